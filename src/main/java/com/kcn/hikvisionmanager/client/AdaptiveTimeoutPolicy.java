@@ -0,0 +1,79 @@
+package com.kcn.hikvisionmanager.client;
+
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Derives ISAPI response timeouts per endpoint from observed latency.
+ * Keeps a rolling window of recent latencies for every {@link IsapiEndpoint}; the timeout is
+ * the configured percentile times a headroom multiplier, clamped to [min, max]. A fast LAN camera
+ * therefore fails fast, while a slow remote NVR (or a heavy search) gets the time it needs.
+ * Until enough samples exist the static {@link HttpClientConfig#RESPONSE_TIMEOUT_SECONDS} applies.
+ */
+@Component
+public class AdaptiveTimeoutPolicy {
+
+    private static final Timeout DEFAULT_TIMEOUT = Timeout.ofSeconds(HttpClientConfig.RESPONSE_TIMEOUT_SECONDS);
+
+    private final Map<IsapiEndpoint, LatencyWindow> windows = new EnumMap<>(IsapiEndpoint.class);
+
+    public AdaptiveTimeoutPolicy() {
+        for (IsapiEndpoint endpoint : IsapiEndpoint.values()) {
+            windows.put(endpoint, new LatencyWindow());
+        }
+    }
+
+    /**
+     * @return Response timeout to apply to next request for the endpoint
+     */
+    public Timeout responseTimeout(IsapiEndpoint endpoint) {
+        return windows.get(endpoint).timeout;
+    }
+
+    /**
+     * Records completed request latency.
+     */
+    public void recordLatency(IsapiEndpoint endpoint, long millis) {
+        windows.get(endpoint).record(millis);
+    }
+
+    /**
+     * Records request that hit its timeout. The timeout itself is recorded as latency sample,
+     * so a camera that became slower widens its timeout instead of failing forever.
+     */
+    public void recordTimeout(IsapiEndpoint endpoint) {
+        windows.get(endpoint).record(responseTimeout(endpoint).toMilliseconds());
+    }
+
+    private static final class LatencyWindow {
+
+        private final long[] samples = new long[HttpClientConfig.ADAPTIVE_TIMEOUT_WINDOW];
+        private int next;
+        private int count;
+        private volatile Timeout timeout = DEFAULT_TIMEOUT;
+
+        synchronized void record(long millis) {
+            samples[next] = millis;
+            next = (next + 1) % samples.length;
+            count = Math.min(count + 1, samples.length);
+
+            if (count >= HttpClientConfig.ADAPTIVE_TIMEOUT_MIN_SAMPLES) {
+                timeout = Timeout.ofMilliseconds(derive());
+            }
+        }
+
+        private long derive() {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(HttpClientConfig.ADAPTIVE_TIMEOUT_PERCENTILE * count) - 1;
+            long percentile = sorted[Math.max(0, Math.min(index, count - 1))];
+            long derived = (long) (percentile * HttpClientConfig.ADAPTIVE_TIMEOUT_MULTIPLIER);
+            return Math.max(HttpClientConfig.ADAPTIVE_TIMEOUT_MIN_MILLIS,
+                    Math.min(derived, HttpClientConfig.ADAPTIVE_TIMEOUT_MAX_MILLIS));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.kcn.hikvisionmanager.client;
+
+import com.kcn.hikvisionmanager.exception.CameraOfflineException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-camera circuit breaker guarding ISAPI and download requests.
+ * <ul>
+ *   <li>CLOSED - requests pass; consecutive transport failures are counted</li>
+ *   <li>OPEN - requests fail immediately with {@link CameraOfflineException}</li>
+ *   <li>HALF_OPEN - after the open period a single trial request is let through;
+ *       its outcome closes or re-opens the circuit</li>
+ * </ul>
+ * Only transport failures (unreachable, timeout) count. HTTP errors and parsing failures
+ * prove the camera is reachable and are recorded as success.
+ */
+@Slf4j
+@Component
+public class CameraCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    /**
+     * Admits request to given camera or fails fast while circuit is open.
+     * Every admitted request must be followed by {@link #recordSuccess} or {@link #recordFailure}.
+     *
+     * @param camera Camera key (host:port)
+     * @throws CameraOfflineException If circuit is open or a half-open trial is already running
+     */
+    public void acquirePermission(String camera) {
+        Circuit circuit = circuits.computeIfAbsent(camera, key -> new Circuit());
+        long retryInMillis = circuit.tryAcquire(camera);
+        if (retryInMillis >= 0) {
+            throw new CameraOfflineException(String.format(
+                    "Camera at %s is unreachable (circuit open, next attempt in %d s)",
+                    camera, TimeUnit.MILLISECONDS.toSeconds(retryInMillis) + 1));
+        }
+    }
+
+    public void recordSuccess(String camera) {
+        Circuit circuit = circuits.get(camera);
+        if (circuit != null) {
+            circuit.onSuccess(camera);
+        }
+    }
+
+    public void recordFailure(String camera) {
+        circuits.computeIfAbsent(camera, key -> new Circuit()).onFailure(camera);
+    }
+
+    public State getState(String camera) {
+        Circuit circuit = circuits.get(camera);
+        return circuit != null ? circuit.state() : State.CLOSED;
+    }
+
+    private static final class Circuit {
+
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAtNanos;
+        private boolean trialInFlight;
+
+        /**
+         * @return -1 when permitted, otherwise milliseconds until next trial is allowed
+         */
+        synchronized long tryAcquire(String camera) {
+            switch (state) {
+                case CLOSED:
+                    return -1;
+                case OPEN:
+                    long elapsed = System.nanoTime() - openedAtNanos;
+                    long openNanos = TimeUnit.SECONDS.toNanos(HttpClientConfig.CIRCUIT_OPEN_SECONDS);
+                    if (elapsed < openNanos) {
+                        return TimeUnit.NANOSECONDS.toMillis(openNanos - elapsed);
+                    }
+                    state = State.HALF_OPEN;
+                    trialInFlight = true;
+                    log.info("🔌 Circuit for camera {} half-open - sending trial request", camera);
+                    return -1;
+                case HALF_OPEN:
+                default:
+                    if (trialInFlight) {
+                        return 0;
+                    }
+                    trialInFlight = true;
+                    return -1;
+            }
+        }
+
+        synchronized void onSuccess(String camera) {
+            if (state != State.CLOSED) {
+                log.info("✅ Circuit for camera {} closed - camera reachable again", camera);
+            }
+            state = State.CLOSED;
+            consecutiveFailures = 0;
+            trialInFlight = false;
+        }
+
+        synchronized void onFailure(String camera) {
+            consecutiveFailures++;
+            trialInFlight = false;
+            if (state == State.HALF_OPEN
+                    || (state == State.CLOSED && consecutiveFailures >= HttpClientConfig.CIRCUIT_FAILURE_THRESHOLD)) {
+                state = State.OPEN;
+                openedAtNanos = System.nanoTime();
+                log.warn("⚠️ Circuit for camera {} opened after {} consecutive failures - failing fast for {} s",
+                        camera, consecutiveFailures, HttpClientConfig.CIRCUIT_OPEN_SECONDS);
+            }
+        }
+
+        synchronized State state() {
+            return state;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.kcn.hikvisionmanager.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.auth.AuthCache;
+import org.apache.hc.client5.http.auth.AuthChallenge;
+import org.apache.hc.client5.http.auth.AuthScheme;
+import org.apache.hc.client5.http.auth.AuthSchemeFactory;
+import org.apache.hc.client5.http.auth.AuthStateCacheable;
+import org.apache.hc.client5.http.auth.AuthenticationException;
+import org.apache.hc.client5.http.auth.CredentialsProvider;
+import org.apache.hc.client5.http.auth.MalformedChallengeException;
+import org.apache.hc.client5.http.auth.StandardAuthScheme;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.auth.BasicSchemeFactory;
+import org.apache.hc.client5.http.impl.auth.DigestScheme;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpRequest;
+import org.apache.hc.core5.http.config.Lookup;
+import org.apache.hc.core5.http.config.RegistryBuilder;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared digest authentication state for all requests to the camera.
+ * HttpClient does not cache digest state between requests, so every ISAPI call would first
+ * receive a 401 challenge. This cache keeps one negotiated digest scheme (realm, nonce,
+ * nonce-count) per camera host and lets every new request authorize preemptively with it.
+ * When the camera rejects the nonce (stale), the entry is dropped and the next successful
+ * challenge replaces it. Used by both {@link HikvisionIsapiClient} and {@link HttpDownloadClient}.
+ */
+@Slf4j
+@Component
+public class DigestAuthCache implements AuthCache {
+
+    // Hikvision uses one realm for the whole /ISAPI tree, so a scheme negotiated for
+    // /ISAPI/System is reused for /ISAPI/ContentMgmt as well - entries are keyed by host only.
+    private final Map<String, AuthScheme> schemes = new ConcurrentHashMap<>();
+    private final Counter avoidedChallengeCounter;
+    private final Counter challengeCounter;
+
+    public DigestAuthCache(MeterRegistry meterRegistry) {
+        this.avoidedChallengeCounter = Counter.builder("isapi.auth.challenges.avoided")
+                .description("ISAPI requests authorized preemptively with cached digest state")
+                .register(meterRegistry);
+        this.challengeCounter = Counter.builder("isapi.auth.challenges")
+                .description("401 digest challenges received from camera")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Auth scheme registry producing cacheable digest schemes.
+     * Must be set as default registry of the shared HttpClient.
+     */
+    public Lookup<AuthSchemeFactory> authSchemeRegistry() {
+        return RegistryBuilder.<AuthSchemeFactory>create()
+                .register(StandardAuthScheme.DIGEST, context -> new SharedDigestScheme())
+                .register(StandardAuthScheme.BASIC, BasicSchemeFactory.INSTANCE)
+                .build();
+    }
+
+    /**
+     * Creates per-request context bound to the shared auth cache.
+     * HttpClientContext itself is not thread-safe and must not be reused across requests.
+     */
+    public HttpClientContext newContext() {
+        HttpClientContext context = HttpClientContext.create();
+        context.setAuthCache(this);
+        return context;
+    }
+
+    /**
+     * Records 401 challenge received from camera (first contact or expired nonce).
+     */
+    void recordChallenge() {
+        challengeCounter.increment();
+    }
+
+    @Override
+    public void put(HttpHost host, AuthScheme authScheme) {
+        put(host, null, authScheme);
+    }
+
+    @Override
+    public AuthScheme get(HttpHost host) {
+        return get(host, null);
+    }
+
+    @Override
+    public void remove(HttpHost host) {
+        remove(host, null);
+    }
+
+    @Override
+    public void put(HttpHost host, String pathPrefix, AuthScheme authScheme) {
+        AuthScheme previous = schemes.put(key(host), authScheme);
+        if (previous != authScheme) {
+            log.debug("🔐 Cached {} auth state for {}", authScheme.getName(), host);
+        }
+    }
+
+    @Override
+    public AuthScheme get(HttpHost host, String pathPrefix) {
+        AuthScheme scheme = schemes.get(key(host));
+        if (scheme != null) {
+            avoidedChallengeCounter.increment();
+        }
+        return scheme;
+    }
+
+    @Override
+    public void remove(HttpHost host, String pathPrefix) {
+        if (schemes.remove(key(host)) != null) {
+            log.debug("🔐 Dropped cached auth state for {} (challenge or failure)", host);
+        }
+    }
+
+    @Override
+    public void clear() {
+        schemes.clear();
+    }
+
+    private static String key(HttpHost host) {
+        try {
+            return host.getSchemeName() + "://" + host.getHostName() + ":" + DefaultSchemePortResolver.INSTANCE.resolve(host);
+        } catch (Exception e) {
+            return host.toURI();
+        }
+    }
+
+    /**
+     * Digest scheme that may be cached and used by concurrent requests.
+     * All calls are serialized on one {@link DigestScheme}, so the nonce-count
+     * increases monotonically across requests sharing the same nonce.
+     */
+    @AuthStateCacheable
+    static final class SharedDigestScheme implements AuthScheme {
+
+        private final DigestScheme delegate = new DigestScheme();
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public boolean isConnectionBased() {
+            return delegate.isConnectionBased();
+        }
+
+        @Override
+        public synchronized void processChallenge(AuthChallenge authChallenge, HttpContext context)
+                throws MalformedChallengeException {
+            delegate.processChallenge(authChallenge, context);
+        }
+
+        @Override
+        public synchronized boolean isChallengeComplete() {
+            return delegate.isChallengeComplete();
+        }
+
+        @Override
+        public synchronized String getRealm() {
+            return delegate.getRealm();
+        }
+
+        @Override
+        public synchronized boolean isResponseReady(HttpHost host, CredentialsProvider credentialsProvider,
+                                                    HttpContext context) throws AuthenticationException {
+            return delegate.isResponseReady(host, credentialsProvider, context);
+        }
+
+        @Override
+        public synchronized Principal getPrincipal() {
+            return delegate.getPrincipal();
+        }
+
+        @Override
+        public synchronized String generateAuthResponse(HttpHost host, HttpRequest request, HttpContext context)
+                throws AuthenticationException {
+            return delegate.generateAuthResponse(host, request, context);
+        }
+
+        @Override
+        public String toString() {
+            return "Shared" + delegate;
+        }
+    }
+}
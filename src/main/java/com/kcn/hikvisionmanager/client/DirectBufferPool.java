@@ -0,0 +1,35 @@
+package com.kcn.hikvisionmanager.client;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Small pool of equally sized direct buffers for the NIO download path.
+ * <p>
+ * Direct memory is only released when a buffer is garbage collected, so buffers are reused across
+ * downloads instead of allocated per transfer. Download threads are virtual and short-lived, so the
+ * pool is a shared queue rather than ThreadLocals; buffers released into a full pool are dropped.
+ */
+final class DirectBufferPool {
+
+    private final BlockingQueue<ByteBuffer> pool;
+    private final int bufferSize;
+
+    DirectBufferPool(int poolSize, int bufferSize) {
+        this.pool = new ArrayBlockingQueue<>(poolSize);
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Returns a cleared buffer of {@code bufferSize} bytes, pooled when one is free.
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = pool.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    void release(ByteBuffer buffer) {
+        pool.offer(buffer);
+    }
+}
@@ -0,0 +1,164 @@
+package com.kcn.hikvisionmanager.client;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.dto.xml.response.EventNotificationAlertXml;
+import com.kcn.hikvisionmanager.exception.CameraRequestException;
+import com.kcn.hikvisionmanager.exception.CameraUnauthorizedException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.auth.AuthScope;
+import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.BasicHttpClientConnectionManager;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Client for the camera alert stream ({@code /ISAPI/Event/notification/alertStream}).
+ * The camera keeps the response open and pushes one {@code multipart/mixed} part per event;
+ * parts are parsed one by one as they arrive, so memory use is bounded by a single part.
+ * Uses its own single-connection HttpClient - the stream occupies its connection for hours
+ * and must not take a slot from the ISAPI request pool.
+ */
+@Slf4j
+@Component
+public class HikvisionAlertStreamClient {
+
+    private static final String DEFAULT_BOUNDARY = "boundary";
+
+    private final CameraConfig cameraConfig;
+    private final DigestAuthCache digestAuthCache;
+    private final ObjectReader alertReader;
+    private final CloseableHttpClient httpClient;
+    private volatile HttpGet activeRequest;
+
+    public HikvisionAlertStreamClient(CameraConfig cameraConfig, XmlMapper xmlMapper, DigestAuthCache digestAuthCache) {
+        this.cameraConfig = cameraConfig;
+        this.digestAuthCache = digestAuthCache;
+        this.alertReader = xmlMapper.readerFor(EventNotificationAlertXml.class);
+        this.httpClient = createHttpClient();
+    }
+
+    private CloseableHttpClient createHttpClient() {
+        BasicCredentialsProvider credsProvider = new BasicCredentialsProvider();
+        credsProvider.setCredentials(
+                new AuthScope(cameraConfig.getIp(), cameraConfig.getPort()),
+                new UsernamePasswordCredentials(cameraConfig.getUsername(), cameraConfig.getPassword().toCharArray())
+        );
+
+        BasicHttpClientConnectionManager connectionManager = new BasicHttpClientConnectionManager();
+        connectionManager.setConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofSeconds(HttpClientConfig.CONNECT_TIMEOUT_SECONDS))
+                .build());
+
+        // Response timeout bounds silence between parts; heartbeats keep a healthy stream well below it
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setResponseTimeout(Timeout.ofSeconds(HttpClientConfig.ALERT_STREAM_READ_TIMEOUT_SECONDS))
+                .build();
+
+        return HttpClients.custom()
+                .setDefaultCredentialsProvider(credsProvider)
+                .setDefaultAuthSchemeRegistry(digestAuthCache.authSchemeRegistry())
+                .setDefaultRequestConfig(requestConfig)
+                .setConnectionManager(connectionManager)
+                .disableAutomaticRetries()
+                .build();
+    }
+
+    /**
+     * Opens the alert stream and delivers alerts until the camera closes the stream,
+     * the connection fails or {@link #abort()} is called. Blocks the calling thread.
+     *
+     * @param url      Alert stream URL
+     * @param onOpen   Called once the camera accepted the stream
+     * @param onAlert  Called for every parsed alert, heartbeats included
+     * @throws IOException                 On connection failure or read timeout
+     * @throws CameraUnauthorizedException If authentication fails (401/403)
+     * @throws CameraRequestException      If camera rejects the request with 4xx/5xx status
+     */
+    public void consume(String url, Runnable onOpen, Consumer<EventNotificationAlertXml> onAlert) throws IOException {
+        HttpGet request = new HttpGet(url);
+        activeRequest = request;
+        ClassicHttpResponse response = null;
+        try {
+            response = httpClient.executeOpen(null, request, digestAuthCache.newContext());
+            int statusCode = response.getCode();
+            if (statusCode == 401 || statusCode == 403) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                throw new CameraUnauthorizedException("Unauthorized alert stream request to camera " + cameraConfig.getIp());
+            }
+            if (statusCode >= 400 || response.getEntity() == null) {
+                EntityUtils.consumeQuietly(response.getEntity());
+                throw new CameraRequestException("Alert stream request failed with status " + statusCode);
+            }
+
+            Header contentType = response.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+            String boundary = MultipartPartReader.boundaryOf(contentType != null ? contentType.getValue() : null);
+            onOpen.run();
+
+            InputStream body = new BufferedInputStream(response.getEntity().getContent(), HttpClientConfig.CHUNK_SIZE);
+            MultipartPartReader reader = new MultipartPartReader(body,
+                    boundary != null ? boundary : DEFAULT_BOUNDARY, HttpClientConfig.ALERT_STREAM_MAX_PART_BYTES);
+
+            MultipartPartReader.Part part;
+            while ((part = reader.next()) != null) {
+                if (part.body() == null || (!part.contentType().isEmpty() && !part.contentType().contains("xml"))) {
+                    continue;
+                }
+                try {
+                    onAlert.accept(alertReader.readValue(part.body()));
+                } catch (IOException e) {
+                    log.debug("⚠️ Skipping unparseable alert part: {}", e.getMessage());
+                }
+            }
+            log.debug("🔌 Alert stream closed by camera {}", cameraConfig.getIp());
+        } finally {
+            // Closing an unfinished chunked body would try to drain an endless stream - drop the connection instead
+            activeRequest = null;
+            request.cancel();
+            if (response != null) {
+                try {
+                    response.close();
+                } catch (IOException ignored) {
+                    // connection already dropped
+                }
+            }
+        }
+    }
+
+    /**
+     * Aborts stream currently being consumed (unblocks {@link #consume}).
+     */
+    public void abort() {
+        HttpGet request = activeRequest;
+        if (request != null) {
+            request.cancel();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        abort();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.error("Error closing alert stream HttpClient", e);
+        }
+    }
+}
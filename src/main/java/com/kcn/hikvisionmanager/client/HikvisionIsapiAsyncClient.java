@@ -0,0 +1,81 @@
+package com.kcn.hikvisionmanager.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Non-blocking facade over {@link HikvisionIsapiClient}.
+ * Each camera round trip runs on a virtual thread, so a slow or unresponsive camera
+ * parks a cheap virtual thread instead of holding a Tomcat or pool worker thread.
+ * Error mapping, authentication and connection pooling are inherited from the blocking client;
+ * returned futures complete exceptionally with the same camera exceptions.
+ */
+@Slf4j
+@Component
+public class HikvisionIsapiAsyncClient {
+
+    private final HikvisionIsapiClient isapiClient;
+    private final ExecutorService executor;
+
+    public HikvisionIsapiAsyncClient(HikvisionIsapiClient isapiClient,
+                                     @Qualifier("isapiAsyncExecutor") ExecutorService executor) {
+        this.isapiClient = isapiClient;
+        this.executor = executor;
+        log.info("✅ HikvisionIsapiAsyncClient initialized (virtual threads)");
+    }
+
+    /**
+     * Asynchronous variant of {@link HikvisionIsapiClient#executeGet(String, Class)}.
+     *
+     * @param url ISAPI endpoint URL
+     * @param responseType Class type to deserialize XML response into
+     * @param <T> Type of expected response object
+     * @return Future completed with parsed response object
+     */
+    public <T> CompletableFuture<T> executeGetAsync(String url, Class<T> responseType) {
+        return CompletableFuture.supplyAsync(() -> isapiClient.executeGet(url, responseType), executor);
+    }
+
+    /**
+     * Asynchronous variant of {@link HikvisionIsapiClient#executePut(String, Object, Class)}.
+     *
+     * @param url ISAPI endpoint URL
+     * @param requestBody Object to serialize as XML request body
+     * @param responseType Class type to deserialize XML response into
+     * @param <T> Type of expected response object
+     * @return Future completed with parsed response object
+     */
+    public <T> CompletableFuture<T> executePutAsync(String url, Object requestBody, Class<T> responseType) {
+        return CompletableFuture.supplyAsync(() -> isapiClient.executePut(url, requestBody, responseType), executor);
+    }
+
+    /**
+     * Asynchronous variant of {@link HikvisionIsapiClient#executePost(String, Object, Class)}.
+     *
+     * @param url ISAPI endpoint URL
+     * @param requestBody Object to serialize as XML request body
+     * @param responseType Class type to deserialize XML response into
+     * @param <T> Type of expected response object
+     * @return Future completed with parsed response object
+     */
+    public <T> CompletableFuture<T> executePostAsync(String url, Object requestBody, Class<T> responseType) {
+        return CompletableFuture.supplyAsync(() -> isapiClient.executePost(url, requestBody, responseType), executor);
+    }
+
+    /**
+     * Asynchronous variant of {@link HikvisionIsapiClient#executePost(String, String, Class)}.
+     *
+     * @param url ISAPI endpoint URL
+     * @param xmlBody Pre-formatted XML string to send as request body
+     * @param responseType Class type to deserialize XML response into
+     * @param <T> Type of expected response object
+     * @return Future completed with parsed response object
+     */
+    public <T> CompletableFuture<T> executePostAsync(String url, String xmlBody, Class<T> responseType) {
+        return CompletableFuture.supplyAsync(() -> isapiClient.executePost(url, xmlBody, responseType), executor);
+    }
+}
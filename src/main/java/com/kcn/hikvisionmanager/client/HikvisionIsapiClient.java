@@ -1,6 +1,10 @@
 package com.kcn.hikvisionmanager.client;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.kcn.hikvisionmanager.config.CameraConfig;
 import com.kcn.hikvisionmanager.exception.CameraOfflineException;
@@ -8,6 +12,7 @@ import com.kcn.hikvisionmanager.exception.CameraParsingException;
 import com.kcn.hikvisionmanager.exception.CameraRequestException;
 import com.kcn.hikvisionmanager.exception.CameraUnauthorizedException;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ConnectTimeoutException;
 import org.apache.hc.client5.http.HttpRequestRetryStrategy;
 import org.apache.hc.client5.http.auth.AuthScope;
 import org.apache.hc.client5.http.auth.UsernamePasswordCredentials;
@@ -19,7 +24,12 @@ import org.apache.hc.client5.http.impl.auth.BasicCredentialsProvider;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ConnectionClosedException;
 import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.HttpStatus;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.util.TimeValue;
@@ -32,14 +42,23 @@ import org.springframework.stereotype.Component;
 import jakarta.annotation.PreDestroy;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.ConnectException;
+import java.net.NoRouteToHostException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Hikvision ISAPI HTTP client that provides GET/POST/PUT operations with XML parsing.
  * Handles digest authentication, automatic retries, connection pooling, and error mapping.
  * Uses shared HttpClient instance for efficient resource management.
+ * Responses are parsed straight from the entity stream with cached ObjectReaders,
+ * optionally item-by-item for large search results.
+ * Requests pass a per-camera circuit breaker, use latency-adaptive response timeouts
+ * and are recorded in {@link IsapiMetrics}.
  */
 @Slf4j
 @Component
@@ -49,20 +68,42 @@ public class HikvisionIsapiClient {
     private final CloseableHttpClient httpClient;
     @Qualifier("xmlMapper")
     private final XmlMapper xmlMapper;
+    private final DigestAuthCache digestAuthCache;
+    private final CameraCircuitBreaker circuitBreaker;
+    private final AdaptiveTimeoutPolicy adaptiveTimeoutPolicy;
+    private final IsapiMetrics isapiMetrics;
+    private final IsapiRequestXmlWriter requestXmlWriter;
+    private final String cameraKey;
+    private RequestConfig requestConfig;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final InFlightRequestCoalescer getCoalescer = new InFlightRequestCoalescer();
 
     /**
      * Constructor creates single HttpClient instance that will be reused for all requests.
      * Configures digest authentication, connection pooling, and retry strategy.
      */
-    public HikvisionIsapiClient(CameraConfig cameraConfig, XmlMapper xmlMapper) {
+    public HikvisionIsapiClient(CameraConfig cameraConfig,
+                                XmlMapper xmlMapper,
+                                DigestAuthCache digestAuthCache,
+                                CameraCircuitBreaker circuitBreaker,
+                                AdaptiveTimeoutPolicy adaptiveTimeoutPolicy,
+                                IsapiMetrics isapiMetrics,
+                                IsapiRequestXmlWriter requestXmlWriter) {
         this.cameraConfig = cameraConfig;
         this.xmlMapper = xmlMapper;
+        this.digestAuthCache = digestAuthCache;
+        this.circuitBreaker = circuitBreaker;
+        this.adaptiveTimeoutPolicy = adaptiveTimeoutPolicy;
+        this.isapiMetrics = isapiMetrics;
+        this.requestXmlWriter = requestXmlWriter;
+        this.cameraKey = cameraConfig.getIp() + ":" + cameraConfig.getPort();
         this.httpClient = createHttpClient();
         log.info("✅ HikvisionIsapiClient initialized for {}:{}", cameraConfig.getIp(), cameraConfig.getPort());
     }
 
     /**
      * Creates configured HttpClient with digest authentication and connection pooling.
+     * Digest state is shared across requests through {@link DigestAuthCache}.
      * This method is called once during initialization.
      *
      * @return Configured CloseableHttpClient instance
@@ -75,8 +116,8 @@ public class HikvisionIsapiClient {
                 new UsernamePasswordCredentials(cameraConfig.getUsername(), cameraConfig.getPassword().toCharArray())
         );
 
-        // Configure connection and response timeouts
-        RequestConfig requestConfig = RequestConfig.custom()
+        // Configure connection and default response timeouts (response timeout is adapted per endpoint)
+        requestConfig = RequestConfig.custom()
                 .setConnectTimeout(Timeout.ofSeconds(HttpClientConfig.CONNECT_TIMEOUT_SECONDS))
                 .setResponseTimeout(Timeout.ofSeconds(HttpClientConfig.RESPONSE_TIMEOUT_SECONDS))
                 .build();
@@ -88,6 +129,12 @@ public class HikvisionIsapiClient {
 
         return HttpClients.custom()
                 .setDefaultCredentialsProvider(credsProvider)
+                .setDefaultAuthSchemeRegistry(digestAuthCache.authSchemeRegistry())
+                .addResponseInterceptorLast((response, entity, context) -> {
+                    if (response.getCode() == HttpStatus.SC_UNAUTHORIZED) {
+                        digestAuthCache.recordChallenge();
+                    }
+                })
                 .setDefaultRequestConfig(requestConfig)
                 .setConnectionManager(connectionManager)
                 .setConnectionManagerShared(true)
@@ -122,6 +169,7 @@ public class HikvisionIsapiClient {
     /**
      * Executes HTTP GET request and parses XML response to specified type.
      * Handles authentication errors, HTTP errors, and network failures.
+     * Concurrent GETs for the same URL and type share one in-flight camera request.
      *
      * @param url ISAPI endpoint URL
      * @param responseType Class type to deserialize XML response into
@@ -133,39 +181,10 @@ public class HikvisionIsapiClient {
      * @throws CameraParsingException If XML parsing fails
      */
     public <T> T executeGet(String url, Class<T> responseType) {
-        log.debug("GET request to: {}", url);
-        HttpGet httpGet = new HttpGet(url);
-        try {
-            return httpClient.execute(httpGet, response -> {
-                int statusCode = response.getCode();
-                log.debug("Response status: {}", statusCode);
-
-                // Handle authentication errors
-                if (statusCode == 401 || statusCode == 403) {
-                    throw new CameraUnauthorizedException("Unauthorized access to camera " + cameraConfig.getIp());
-                }
-
-                // Handle other HTTP errors
-                if (statusCode >= 400) {
-                    String errorBody = EntityUtils.toString(response.getEntity());
-                    throw new CameraRequestException("Camera request failed with status " + statusCode + ": " + errorBody);
-                }
-
-                // Parse successful response
-                String responseBody = EntityUtils.toString(response.getEntity());
-                log.debug("GET successful: {} bytes received", responseBody.length());
-
-                try {
-                    return xmlMapper.readValue(responseBody, responseType);
-                } catch (JsonProcessingException e) {
-                    throw new CameraParsingException("Failed to parse camera XML response", e);
-                }
-            });
-        } catch (UnknownHostException | SocketTimeoutException | ConnectException e) {
-            throw new CameraOfflineException("Camera at " + cameraConfig.getIp() + " is offline or unreachable", e);
-        } catch (IOException e) {
-            throw new CameraRequestException("I/O error during camera GET request: " + e.getMessage(), e);
-        }
+        return getCoalescer.execute(responseType.getName() + " " + url, () -> {
+            log.debug("GET request to: {}", url);
+            return execute(new HttpGet(url), "GET", content -> readerFor(responseType).readValue(content));
+        });
     }
 
     /**
@@ -185,38 +204,10 @@ public class HikvisionIsapiClient {
     public <T> T executePut(String url, Object requestBody, Class<T> responseType) {
         log.debug("PUT request to: {}", url);
         HttpPut httpPut = new HttpPut(url);
-
-        try {
-            String xmlBody = xmlMapper.writeValueAsString(requestBody);
-            httpPut.setEntity(new StringEntity(xmlBody, ContentType.APPLICATION_XML));
-            log.trace("Request body: {}", xmlBody);
-
-            return httpClient.execute(httpPut, response -> {
-                int statusCode = response.getCode();
-                log.debug("Response status: {}", statusCode);
-
-                if (statusCode == 401 || statusCode == 403) {
-                    throw new CameraUnauthorizedException("Unauthorized access to camera " + cameraConfig.getIp());
-                }
-
-                if (statusCode >= 400) {
-                    String errorBody = EntityUtils.toString(response.getEntity());
-                    throw new CameraRequestException("PUT request failed with status " + statusCode + ": " + errorBody);
-                }
-
-                String responseBody = EntityUtils.toString(response.getEntity());
-                log.debug("PUT successful: {} bytes received", responseBody.length());
-
-                try {
-                    return xmlMapper.readValue(responseBody, responseType);
-                } catch (JsonProcessingException e) {
-                    throw new CameraParsingException("Failed to parse camera XML response", e);
-                }
-            });
-        } catch (UnknownHostException | SocketTimeoutException e) {
-            throw new CameraOfflineException("Camera at " + cameraConfig.getIp() + " is offline or unreachable", e);
-        } catch (IOException e) {
-            throw new CameraRequestException("I/O error during camera PUT request: " + e.getMessage(), e);
+        try (IsapiRequestXmlWriter.PooledXml xml = requestXmlWriter.write(requestBody)) {
+            log.trace("Request body: {}", xml);
+            httpPut.setEntity(xml.toEntity());
+            return execute(httpPut, "PUT", content -> readerFor(responseType).readValue(content));
         }
     }
 
@@ -237,38 +228,10 @@ public class HikvisionIsapiClient {
     public <T> T executePost(String url, Object requestBody, Class<T> responseType) {
         log.debug("POST request to: {}", url);
         HttpPost httpPost = new HttpPost(url);
-
-        try {
-            String xmlBody = xmlMapper.writeValueAsString(requestBody);
-            httpPost.setEntity(new StringEntity(xmlBody, ContentType.APPLICATION_XML));
-            log.trace("Request body: {}", xmlBody);
-
-            return httpClient.execute(httpPost, response -> {
-                int statusCode = response.getCode();
-                log.debug("Response status: {}", statusCode);
-
-                if (statusCode == 401 || statusCode == 403) {
-                    throw new CameraUnauthorizedException("Unauthorized access to camera " + cameraConfig.getIp());
-                }
-
-                if (statusCode >= 400) {
-                    String errorBody = EntityUtils.toString(response.getEntity());
-                    throw new CameraRequestException("POST request failed with status " + statusCode + ": " + errorBody);
-                }
-
-                String responseBody = EntityUtils.toString(response.getEntity());
-                log.debug("POST successful: {} bytes received", responseBody.length());
-
-                try {
-                    return xmlMapper.readValue(responseBody, responseType);
-                } catch (JsonProcessingException e) {
-                    throw new CameraParsingException("Failed to parse camera XML response", e);
-                }
-            });
-        } catch (UnknownHostException | SocketTimeoutException e) {
-            throw new CameraOfflineException("Camera at " + cameraConfig.getIp() + " is offline or unreachable", e);
-        } catch (IOException e) {
-            throw new CameraRequestException("I/O error during camera POST request: " + e.getMessage(), e);
+        try (IsapiRequestXmlWriter.PooledXml xml = requestXmlWriter.write(requestBody)) {
+            log.trace("Request body: {}", xml);
+            httpPost.setEntity(xml.toEntity());
+            return execute(httpPost, "POST", content -> readerFor(responseType).readValue(content));
         }
     }
 
@@ -289,38 +252,219 @@ public class HikvisionIsapiClient {
     public <T> T executePost(String url, String xmlBody, Class<T> responseType) {
         log.debug("POST request to: {}", url);
         HttpPost httpPost = new HttpPost(url);
+        httpPost.setEntity(new StringEntity(xmlBody, ContentType.APPLICATION_XML));
+        log.trace("Request body: {}", xmlBody);
+        return execute(httpPost, "POST", content -> readerFor(responseType).readValue(content));
+    }
+
+    /**
+     * Executes HTTP POST request and parses the response incrementally.
+     * Every element named {@code itemElement} is bound to {@code itemType} and handed to
+     * {@code itemConsumer} as soon as it is parsed, so memory use does not grow with the
+     * number of items. Remaining top-level scalar fields are bound to {@code headerType}.
+     *
+     * @param url ISAPI endpoint URL
+     * @param requestBody Object to serialize as XML request body
+     * @param headerType Class type receiving top-level scalar fields (item list stays empty)
+     * @param itemElement Local name of the repeated element (e.g. "searchMatchItem")
+     * @param itemType Class type to deserialize each item into
+     * @param itemConsumer Callback receiving items in document order
+     * @param <T> Type of header object
+     * @param <I> Type of streamed item
+     * @return Header object with top-level fields populated
+     * @throws CameraUnauthorizedException If authentication fails (401/403)
+     * @throws CameraRequestException If HTTP request fails with 4xx/5xx status
+     * @throws CameraOfflineException If camera is unreachable or times out
+     * @throws CameraParsingException If XML parsing fails
+     */
+    public <T, I> T executePostStreaming(String url,
+                                         Object requestBody,
+                                         Class<T> headerType,
+                                         String itemElement,
+                                         Class<I> itemType,
+                                         Consumer<? super I> itemConsumer) {
+        log.debug("POST (streaming) request to: {}", url);
+        HttpPost httpPost = new HttpPost(url);
+        try (IsapiRequestXmlWriter.PooledXml xml = requestXmlWriter.write(requestBody)) {
+            log.trace("Request body: {}", xml);
+            httpPost.setEntity(xml.toEntity());
+            return execute(httpPost, "POST", content ->
+                    parseIncrementally(content, headerType, itemElement, itemType, itemConsumer));
+        }
+    }
 
+    /**
+     * Sends request, maps HTTP errors to camera exceptions and parses the response body
+     * directly from the entity stream (no intermediate String copy).
+     */
+    private <T> T execute(ClassicHttpRequest request, String method, ResponseParser<T> parser) {
+        IsapiEndpoint endpoint = IsapiEndpoint.fromUrl(request.getRequestUri());
+        long startNanos = System.nanoTime();
+
+        // Fail fast while the camera is known to be unreachable
         try {
-            httpPost.setEntity(new StringEntity(xmlBody, ContentType.APPLICATION_XML));
-            log.trace("Request body: {}", xmlBody);
+            circuitBreaker.acquirePermission(cameraKey);
+        } catch (CameraOfflineException e) {
+            isapiMetrics.recordRequest(endpoint, cameraKey, 0, IsapiMetrics.Outcome.CIRCUIT_OPEN, System.nanoTime() - startNanos);
+            throw e;
+        }
 
-            return httpClient.execute(httpPost, response -> {
+        HttpClientContext context = digestAuthCache.newContext();
+        context.setRequestConfig(RequestConfig.copy(requestConfig)
+                .setResponseTimeout(adaptiveTimeoutPolicy.responseTimeout(endpoint))
+                .build());
+
+        int[] status = {0};
+        try {
+            T result = httpClient.execute(request, context, response -> {
                 int statusCode = response.getCode();
+                status[0] = statusCode;
                 log.debug("Response status: {}", statusCode);
 
+                // Handle authentication errors
                 if (statusCode == 401 || statusCode == 403) {
                     throw new CameraUnauthorizedException("Unauthorized access to camera " + cameraConfig.getIp());
                 }
 
+                // Handle other HTTP errors (error bodies are small, read them as text)
                 if (statusCode >= 400) {
                     String errorBody = EntityUtils.toString(response.getEntity());
-                    throw new CameraRequestException("POST request failed with status " + statusCode + ": " + errorBody);
+                    throw new CameraRequestException(method + " request failed with status " + statusCode + ": " + errorBody);
                 }
 
-                String responseBody = EntityUtils.toString(response.getEntity());
-                log.debug("POST successful: {} bytes received", responseBody.length());
+                HttpEntity entity = response.getEntity();
+                log.debug("{} successful: {} bytes announced", method, entity.getContentLength());
 
-                try {
-                    return xmlMapper.readValue(responseBody, responseType);
+                // Parse successful response straight from the socket stream
+                long parseStartNanos = System.nanoTime();
+                try (CountingInputStream content = new CountingInputStream(entity.getContent())) {
+                    T parsed = parser.parse(content);
+                    isapiMetrics.recordParseTime(endpoint, cameraKey, System.nanoTime() - parseStartNanos);
+                    isapiMetrics.recordResponseBytes(endpoint, cameraKey, content.getCount());
+                    return parsed;
                 } catch (JsonProcessingException e) {
+                    if (isTransportFailure(e)) {
+                        throw new SocketTimeoutException("Camera stopped responding while streaming body: " + e.getMessage());
+                    }
                     throw new CameraParsingException("Failed to parse camera XML response", e);
                 }
             });
-        } catch (UnknownHostException | SocketTimeoutException e) {
+            onCameraResponded(endpoint, startNanos, status[0], IsapiMetrics.Outcome.OK);
+            return result;
+        } catch (CameraUnauthorizedException e) {
+            // Camera answered - it is reachable even though the request failed
+            onCameraResponded(endpoint, startNanos, status[0], IsapiMetrics.Outcome.UNAUTHORIZED);
+            throw e;
+        } catch (CameraParsingException e) {
+            onCameraResponded(endpoint, startNanos, status[0], IsapiMetrics.Outcome.PARSE_ERROR);
+            throw e;
+        } catch (CameraRequestException e) {
+            onCameraResponded(endpoint, startNanos, status[0], IsapiMetrics.Outcome.HTTP_ERROR);
+            throw e;
+        } catch (UnknownHostException | ConnectException | ConnectTimeoutException | NoRouteToHostException e) {
+            onCameraUnreachable(endpoint, startNanos, status[0], IsapiMetrics.Outcome.OFFLINE);
+            throw new CameraOfflineException("Camera at " + cameraConfig.getIp() + " is offline or unreachable", e);
+        } catch (SocketTimeoutException e) {
+            adaptiveTimeoutPolicy.recordTimeout(endpoint);
+            onCameraUnreachable(endpoint, startNanos, status[0], IsapiMetrics.Outcome.OFFLINE);
+            log.debug("⏳ {} timed out after {} ms", endpoint.getTagName(), elapsedMillis(startNanos));
             throw new CameraOfflineException("Camera at " + cameraConfig.getIp() + " is offline or unreachable", e);
         } catch (IOException e) {
-            throw new CameraRequestException("I/O error during camera POST request: " + e.getMessage(), e);
+            onCameraUnreachable(endpoint, startNanos, status[0], IsapiMetrics.Outcome.IO_ERROR);
+            throw new CameraRequestException("I/O error during camera " + method + " request: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            // Item consumer, parser or pool failure - still settle the permit, a half-open trial must not stay in flight
+            if (status[0] > 0) {
+                circuitBreaker.recordSuccess(cameraKey);
+            } else {
+                circuitBreaker.recordFailure(cameraKey);
+            }
+            isapiMetrics.recordRequest(endpoint, cameraKey, status[0], IsapiMetrics.Outcome.IO_ERROR, System.nanoTime() - startNanos);
+            throw e;
+        }
+    }
+
+    private void onCameraResponded(IsapiEndpoint endpoint, long startNanos, int status, IsapiMetrics.Outcome outcome) {
+        circuitBreaker.recordSuccess(cameraKey);
+        adaptiveTimeoutPolicy.recordLatency(endpoint, elapsedMillis(startNanos));
+        isapiMetrics.recordRequest(endpoint, cameraKey, status, outcome, System.nanoTime() - startNanos);
+    }
+
+    private void onCameraUnreachable(IsapiEndpoint endpoint, long startNanos, int status, IsapiMetrics.Outcome outcome) {
+        circuitBreaker.recordFailure(cameraKey);
+        isapiMetrics.recordRequest(endpoint, cameraKey, status, outcome, System.nanoTime() - startNanos);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Walks the token stream once, emitting repeated items and collecting top-level scalars.
+     */
+    private <T, I> T parseIncrementally(InputStream content,
+                                        Class<T> headerType,
+                                        String itemElement,
+                                        Class<I> itemType,
+                                        Consumer<? super I> itemConsumer) throws IOException {
+        ObjectReader itemReader = readerFor(itemType);
+        ObjectNode header = xmlMapper.createObjectNode();
+        int items = 0;
+
+        try (JsonParser parser = xmlMapper.getFactory().createParser(content)) {
+            int depth = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                switch (token) {
+                    case START_OBJECT, START_ARRAY -> depth++;
+                    case END_OBJECT, END_ARRAY -> depth--;
+                    case FIELD_NAME -> {
+                        String name = parser.currentName();
+                        JsonToken value = parser.nextToken();
+                        if (itemElement.equals(name) && value == JsonToken.START_OBJECT) {
+                            itemConsumer.accept(itemReader.readValue(parser));
+                            items++;
+                        } else if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                            depth++;
+                        } else if (depth == 1 && value != null && value.isScalarValue()) {
+                            header.put(name, parser.getText());
+                        }
+                    }
+                    default -> { }
+                }
+            }
         }
+
+        log.debug("Streamed {} <{}> items", items, itemElement);
+        return xmlMapper.treeToValue(header, headerType);
+    }
+
+    /**
+     * Returns cached reader for the given response type. ObjectReader is immutable and
+     * thread-safe, so a single instance per DTO class is reused for every response.
+     */
+    private ObjectReader readerFor(Class<?> type) {
+        return readers.computeIfAbsent(type, xmlMapper::readerFor);
+    }
+
+    /**
+     * Detects parser errors that were really caused by the connection dropping mid-body.
+     */
+    private boolean isTransportFailure(Throwable e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException || cause instanceof ConnectionClosedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses response body from the raw entity stream.
+     */
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse(InputStream content) throws IOException;
     }
 
     /**
@@ -20,6 +20,32 @@ public final class HttpClientConfig {
     public static final int RETRY_ATTEMPTS = 3;
     public static final int RETRY_INTERVAL_SECONDS = 1;
 
+    // Circuit breaker (per camera)
+    public static final int CIRCUIT_FAILURE_THRESHOLD = 5;         // Consecutive transport failures before opening
+    public static final int CIRCUIT_OPEN_SECONDS = 30;             // Fail-fast period before a half-open trial call
+
+    // Latency-adaptive response timeout (per ISAPI endpoint)
+    public static final int ADAPTIVE_TIMEOUT_WINDOW = 128;         // Rolling latency samples kept per endpoint
+    public static final int ADAPTIVE_TIMEOUT_MIN_SAMPLES = 20;     // Use RESPONSE_TIMEOUT_SECONDS until reached
+    public static final double ADAPTIVE_TIMEOUT_PERCENTILE = 0.99;
+    public static final double ADAPTIVE_TIMEOUT_MULTIPLIER = 3.0;  // Headroom above observed percentile
+    public static final long ADAPTIVE_TIMEOUT_MIN_MILLIS = 1_000;
+    public static final long ADAPTIVE_TIMEOUT_MAX_MILLIS = 60_000;
+
+    // Alert stream (long-lived multipart event push)
+    public static final int ALERT_STREAM_READ_TIMEOUT_SECONDS = 60;     // Camera sends heartbeats far more often
+    public static final int ALERT_STREAM_MAX_PART_BYTES = 64 * 1024;    // Larger parts (e.g. snapshots) are skipped
+    public static final int ALERT_STREAM_QUEUE_CAPACITY = 256;          // Oldest alerts dropped when listeners lag
+    public static final int ALERT_STREAM_RECONNECT_MIN_SECONDS = 1;
+    public static final int ALERT_STREAM_RECONNECT_MAX_SECONDS = 60;
+
+    // Sharded range search (RecordingSearchPlanner)
+    public static final int SEARCH_MAX_CONCURRENT_SHARDS = 3;           // Below MAX_CONNECTIONS_PER_ROUTE, NVRs reject more
+    public static final int SEARCH_SHARD_PAGE_SIZE = 50;
+    public static final int SEARCH_MIN_SHARD_MINUTES = 60;              // Dense shards are split down to this size
+    public static final int SEARCH_RANGE_MAX_DAYS = 31;
+    public static final int SEARCH_CACHED_PAGE_MAX_DAYS = 2;           // Longer paged searches skip the range cache
+
     // Camera restart grace period
     public static final int CAMERA_RESTART_GRACE_SECONDS = 55;
 
@@ -27,6 +53,14 @@ public final class HttpClientConfig {
     public static final int STREAM_BUFFER_SIZE = 64 * 1024;      // 64KB for buffered streams
     public static final int CHUNK_SIZE = 8192;                   // 8KB for read/write chunks
     public static final long PROGRESS_REPORT_INTERVAL = 102400;  // Report progress every ~100KB
+    public static final String PARTIAL_DOWNLOAD_SUFFIX = ".part";  // Kept after failures so retries can resume
+
+    // NIO download path (FileChannel + pooled direct buffers)
+    public static final int NIO_MIN_CHUNK_SIZE = 64 * 1024;
+    public static final int NIO_MAX_CHUNK_SIZE = 1024 * 1024;      // Capacity of pooled direct buffers
+    public static final long NIO_CHUNK_TARGET_MILLIS = 50;         // Chunk sized to ~50 ms of measured throughput
+    public static final int NIO_BUFFER_POOL_SIZE = 4;              // Above max concurrent downloads per camera
+    public static final int NIO_READ_SIZE = 8 * 1024;              // Heap staging array for stream reads
 
     // Private constructor to prevent instantiation
     private HttpClientConfig() {
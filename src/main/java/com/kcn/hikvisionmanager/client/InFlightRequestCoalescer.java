@@ -0,0 +1,77 @@
+package com.kcn.hikvisionmanager.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical concurrent camera calls.
+ * The first caller for a key (leader) performs the call; callers arriving while it is
+ * in flight wait for and share the leader's result or exception. The key is released as
+ * soon as the call completes, so this never serves stale data - it only collapses overlap.
+ */
+@Slf4j
+final class InFlightRequestCoalescer {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCalls = new AtomicLong();
+
+    /**
+     * Executes {@code call} unless an identical call is already running, in which case
+     * the running call's outcome is returned instead.
+     *
+     * @param key Identity of the call (e.g. URL and response type)
+     * @param call Camera call to perform when this caller becomes leader
+     * @param <T> Result type
+     * @return Result of the leader's call
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(String key, Supplier<T> call) {
+        CompletableFuture<Object> leaderFuture = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, leaderFuture);
+
+        if (existing != null) {
+            long total = coalescedCalls.incrementAndGet();
+            log.debug("🔁 Joining in-flight request for {} (coalesced total={})", key, total);
+            return (T) await(existing);
+        }
+
+        try {
+            T result = call.get();
+            leaderFuture.complete(result);
+            return result;
+        } catch (Throwable e) {
+            leaderFuture.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, leaderFuture);
+        }
+    }
+
+    /**
+     * @return Number of calls answered by joining another caller's request
+     */
+    long getCoalescedCalls() {
+        return coalescedCalls.get();
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Rethrow the leader's original camera exception unchanged
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
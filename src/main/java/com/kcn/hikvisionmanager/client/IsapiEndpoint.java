@@ -0,0 +1,54 @@
+package com.kcn.hikvisionmanager.client;
+
+import lombok.Getter;
+
+/**
+ * Logical ISAPI endpoints used for per-endpoint latency tracking and metrics tags.
+ * Resolved from request URL path; unknown paths map to {@link #OTHER}.
+ */
+@Getter
+public enum IsapiEndpoint {
+
+    DEVICE_INFO("deviceInfo", "/ISAPI/System/deviceInfo"),
+    STATUS("status", "/ISAPI/System/status"),
+    NETWORK("network", "/ISAPI/System/Network"),
+    TIME("time", "/ISAPI/System/time"),
+    REBOOT("reboot", "/ISAPI/System/reboot"),
+    STORAGE("storage", "/ISAPI/ContentMgmt/Storage"),
+    DAILY_DISTRIBUTION("dailyDistribution", null),       // /ISAPI/ContentMgmt/record/tracks/{id}/dailyDistribution
+    TRACKS("tracks", "/ISAPI/ContentMgmt/record/tracks"),
+    RECORD_CONTROL("recordControl", "/ISAPI/ContentMgmt/record/control"),
+    SEARCH("search", "/ISAPI/ContentMgmt/search"),
+    DOWNLOAD("download", "/ISAPI/ContentMgmt/download"),
+    OTHER("other", null);
+
+    private static final String DAILY_DISTRIBUTION_SUFFIX = "/dailyDistribution";
+
+    private final String tagName;
+    private final String pathPrefix;
+
+    IsapiEndpoint(String tagName, String pathPrefix) {
+        this.tagName = tagName;
+        this.pathPrefix = pathPrefix;
+    }
+
+    /**
+     * Resolves endpoint from full request URL (e.g. http://192.168.0.2:80/ISAPI/System/status).
+     * Daily distribution lives below the tracks path and is matched on its full path first.
+     */
+    public static IsapiEndpoint fromUrl(String url) {
+        if (url != null) {
+            int queryStart = url.indexOf('?');
+            String path = queryStart >= 0 ? url.substring(0, queryStart) : url;
+            if (path.contains(TRACKS.pathPrefix + "/") && path.endsWith(DAILY_DISTRIBUTION_SUFFIX)) {
+                return DAILY_DISTRIBUTION;
+            }
+            for (IsapiEndpoint endpoint : values()) {
+                if (endpoint.pathPrefix != null && url.contains(endpoint.pathPrefix)) {
+                    return endpoint;
+                }
+            }
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,103 @@
+package com.kcn.hikvisionmanager.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer instrumentation of ISAPI traffic.
+ * <ul>
+ *   <li>{@code isapi.requests} - timer with percentile histogram, tagged by endpoint, HTTP status, outcome and camera</li>
+ *   <li>{@code isapi.response.bytes} - distribution summary of response body size per endpoint and camera</li>
+ *   <li>{@code isapi.response.parse} - timer of body read + XML binding per endpoint and camera</li>
+ * </ul>
+ * Meters are cached per tag combination, so recording does not allocate builders on the hot path.
+ */
+@Component
+public class IsapiMetrics {
+
+    private static final String NO_STATUS = "none";
+
+    /**
+     * Request outcome tag values.
+     */
+    @Getter
+    public enum Outcome {
+        OK("ok"),
+        OFFLINE("offline"),
+        UNAUTHORIZED("unauthorized"),
+        PARSE_ERROR("parse-error"),
+        HTTP_ERROR("http-error"),
+        IO_ERROR("io-error"),
+        CIRCUIT_OPEN("circuit-open");
+
+        private final String tagValue;
+
+        Outcome(String tagValue) {
+            this.tagValue = tagValue;
+        }
+    }
+
+    private record RequestKey(IsapiEndpoint endpoint, String status, Outcome outcome, String camera) {
+    }
+
+    private record PayloadKey(IsapiEndpoint endpoint, String camera) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<RequestKey, Timer> requestTimers = new ConcurrentHashMap<>();
+    private final Map<PayloadKey, DistributionSummary> responseBytes = new ConcurrentHashMap<>();
+    private final Map<PayloadKey, Timer> parseTimers = new ConcurrentHashMap<>();
+
+    public IsapiMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records completed (or failed) ISAPI request.
+     *
+     * @param status HTTP status code, or 0 when no response was received
+     */
+    public void recordRequest(IsapiEndpoint endpoint, String camera, int status, Outcome outcome, long durationNanos) {
+        String statusTag = status > 0 ? String.valueOf(status) : NO_STATUS;
+        requestTimers.computeIfAbsent(new RequestKey(endpoint, statusTag, outcome, camera), key ->
+                Timer.builder("isapi.requests")
+                        .description("ISAPI request latency")
+                        .tag("endpoint", key.endpoint().getTagName())
+                        .tag("status", key.status())
+                        .tag("outcome", key.outcome().getTagValue())
+                        .tag("camera", key.camera())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordResponseBytes(IsapiEndpoint endpoint, String camera, long bytes) {
+        responseBytes.computeIfAbsent(new PayloadKey(endpoint, camera), key ->
+                DistributionSummary.builder("isapi.response.bytes")
+                        .description("ISAPI response body size")
+                        .baseUnit("bytes")
+                        .tag("endpoint", key.endpoint().getTagName())
+                        .tag("camera", key.camera())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(bytes);
+    }
+
+    public void recordParseTime(IsapiEndpoint endpoint, String camera, long durationNanos) {
+        parseTimers.computeIfAbsent(new PayloadKey(endpoint, camera), key ->
+                Timer.builder("isapi.response.parse")
+                        .description("ISAPI response body read and XML binding time")
+                        .tag("endpoint", key.endpoint().getTagName())
+                        .tag("camera", key.camera())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,274 @@
+package com.kcn.hikvisionmanager.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.kcn.hikvisionmanager.dto.xml.request.RecordingDownloadRequestXml;
+import com.kcn.hikvisionmanager.dto.xml.request.RecordingSearchRequestXml;
+import com.kcn.hikvisionmanager.exception.CameraRequestException;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializes ISAPI request DTOs to XML bytes.
+ * <p>
+ * The two payloads sent most often - {@link RecordingSearchRequestXml} (every search page) and
+ * {@link RecordingDownloadRequestXml} (every download) - are written by hand-coded templates straight
+ * into pooled byte buffers: no reflection, no generator, no intermediate String. Output is equivalent
+ * to what {@link XmlMapper} produces for these DTOs. All other DTOs go through a cached {@link ObjectWriter}
+ * per class.
+ * <p>
+ * Request threads are virtual and short-lived, so buffers are pooled in a small shared queue
+ * rather than in ThreadLocals.
+ */
+@Component
+public class IsapiRequestXmlWriter {
+
+    private static final byte[] XML_DECLARATION =
+            "<?xml version='1.0' encoding='UTF-8'?>".getBytes(StandardCharsets.US_ASCII);
+    private static final int POOL_SIZE = 32;
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_POOLED_BUFFER_SIZE = 16 * 1024;
+
+    private final XmlMapper xmlMapper;
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final BlockingQueue<XmlBuffer> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    public IsapiRequestXmlWriter(XmlMapper xmlMapper) {
+        this.xmlMapper = xmlMapper;
+    }
+
+    /**
+     * Serializes request into a pooled buffer. The returned body must be closed once the
+     * request has been sent, which returns the buffer to the pool.
+     *
+     * @throws CameraRequestException If the DTO cannot be serialized
+     */
+    public PooledXml write(Object requestBody) {
+        XmlBuffer buffer = acquire();
+        try {
+            if (requestBody instanceof RecordingSearchRequestXml search) {
+                writeSearchRequest(search, buffer);
+            } else if (requestBody instanceof RecordingDownloadRequestXml download) {
+                writeDownloadRequest(download, buffer);
+            } else {
+                buffer.append(writerFor(requestBody.getClass()).writeValueAsBytes(requestBody));
+            }
+            return new PooledXml(buffer);
+        } catch (JsonProcessingException e) {
+            release(buffer);
+            throw new CameraRequestException("Failed to serialize camera XML request: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Serializes request into an exact-size array, for bodies held longer than a single request
+     * (e.g. downloads running for minutes).
+     */
+    public byte[] toBytes(Object requestBody) {
+        try (PooledXml xml = write(requestBody)) {
+            return xml.toByteArray();
+        }
+    }
+
+    /**
+     * Returns cached writer for the given request type. ObjectWriter is immutable and
+     * thread-safe, so a single instance per DTO class is reused for every request.
+     */
+    private ObjectWriter writerFor(Class<?> type) {
+        return writers.computeIfAbsent(type, xmlMapper::writerFor);
+    }
+
+    // <CMSearchDescription><searchID/><trackIDList><trackID/></trackIDList><timeSpanList><timeSpan>
+    // <startTime/><endTime/></timeSpan></timeSpanList><maxResults/><searchResultPosition/></CMSearchDescription>
+    private static void writeSearchRequest(RecordingSearchRequestXml request, XmlBuffer out) {
+        out.append(XML_DECLARATION).ascii("<CMSearchDescription>");
+        out.element("searchID", request.getSearchId());
+
+        RecordingSearchRequestXml.TrackIdList trackIdList = request.getTrackIdList();
+        if (trackIdList == null) {
+            out.ascii("<trackIDList/>");
+        } else {
+            out.ascii("<trackIDList>").element("trackID", trackIdList.getTrackId()).ascii("</trackIDList>");
+        }
+
+        RecordingSearchRequestXml.TimeSpanList timeSpanList = request.getTimeSpanList();
+        if (timeSpanList == null) {
+            out.ascii("<timeSpanList/>");
+        } else if (timeSpanList.getTimeSpan() == null) {
+            out.ascii("<timeSpanList><timeSpan/></timeSpanList>");
+        } else {
+            RecordingSearchRequestXml.TimeSpan timeSpan = timeSpanList.getTimeSpan();
+            out.ascii("<timeSpanList><timeSpan>")
+                    .element("startTime", timeSpan.getStartTime())
+                    .element("endTime", timeSpan.getEndTime())
+                    .ascii("</timeSpan></timeSpanList>");
+        }
+
+        out.ascii("<maxResults>").number(request.getMaxResults()).ascii("</maxResults>")
+                .ascii("<searchResultPosition>").number(request.getSearchResultPosition()).ascii("</searchResultPosition>")
+                .ascii("</CMSearchDescription>");
+    }
+
+    private static void writeDownloadRequest(RecordingDownloadRequestXml request, XmlBuffer out) {
+        out.append(XML_DECLARATION)
+                .ascii("<downloadRequest>")
+                .element("playbackURI", request.getPlaybackUri())
+                .ascii("</downloadRequest>");
+    }
+
+    private XmlBuffer acquire() {
+        XmlBuffer buffer = pool.poll();
+        return buffer != null ? buffer : new XmlBuffer(INITIAL_BUFFER_SIZE);
+    }
+
+    private void release(XmlBuffer buffer) {
+        if (buffer.capacity() <= MAX_POOLED_BUFFER_SIZE) {
+            buffer.reset();
+            pool.offer(buffer);
+        }
+    }
+
+    /**
+     * Serialized request body backed by a pooled buffer.
+     * The entity reads the buffer directly, so it must not be used after {@link #close()}.
+     */
+    public final class PooledXml implements AutoCloseable {
+
+        private XmlBuffer buffer;
+
+        private PooledXml(XmlBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        public ByteArrayEntity toEntity() {
+            return new ByteArrayEntity(buffer.bytes, 0, buffer.size, ContentType.APPLICATION_XML);
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer.bytes, buffer.size);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer.bytes, 0, buffer.size, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() {
+            if (buffer != null) {
+                release(buffer);
+                buffer = null;
+            }
+        }
+    }
+
+    /**
+     * Growable byte buffer with XML text escaping.
+     */
+    private static final class XmlBuffer {
+
+        private byte[] bytes;
+        private int size;
+
+        XmlBuffer(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        int capacity() {
+            return bytes.length;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        XmlBuffer append(byte[] data) {
+            ensure(data.length);
+            System.arraycopy(data, 0, bytes, size, data.length);
+            size += data.length;
+            return this;
+        }
+
+        /**
+         * Appends markup known to be ASCII (element names, fixed tags).
+         */
+        XmlBuffer ascii(String markup) {
+            int length = markup.length();
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                bytes[size++] = (byte) markup.charAt(i);
+            }
+            return this;
+        }
+
+        XmlBuffer element(String name, String value) {
+            if (value == null) {
+                return ascii("<").ascii(name).ascii("/>");
+            }
+            return ascii("<").ascii(name).ascii(">").text(value).ascii("</").ascii(name).ascii(">");
+        }
+
+        XmlBuffer number(int value) {
+            if (value == Integer.MIN_VALUE) {
+                return ascii(Integer.toString(value));
+            }
+            ensure(11);
+            if (value < 0) {
+                bytes[size++] = '-';
+                value = -value;
+            }
+            int digits = 1;
+            for (int v = value; v >= 10; v /= 10) {
+                digits++;
+            }
+            for (int i = size + digits - 1; i >= size; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            size += digits;
+            return this;
+        }
+
+        /**
+         * Appends character data as UTF-8, escaping XML special characters.
+         */
+        XmlBuffer text(String value) {
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&' -> ascii("&amp;");
+                    case '<' -> ascii("&lt;");
+                    case '>' -> ascii("&gt;");
+                    default -> {
+                        if (c < 0x80) {
+                            ensure(1);
+                            bytes[size++] = (byte) c;
+                        } else {
+                            // Rare in ISAPI payloads - encode the remaining non-ASCII code point properly
+                            int end = Character.isHighSurrogate(c) && i + 1 < length ? i + 2 : i + 1;
+                            append(value.substring(i, end).getBytes(StandardCharsets.UTF_8));
+                            i = end - 1;
+                        }
+                    }
+                }
+            }
+            return this;
+        }
+
+        private void ensure(int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+            }
+        }
+    }
+}
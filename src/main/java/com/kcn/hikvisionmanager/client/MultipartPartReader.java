@@ -0,0 +1,174 @@
+package com.kcn.hikvisionmanager.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Incremental reader of an endless {@code multipart/mixed} body (camera alert stream).
+ * Reads one part at a time and never buffers more than {@code maxPartBytes}; larger parts
+ * (e.g. JPEG snapshots attached to smart events) are skipped instead of accumulated.
+ */
+final class MultipartPartReader {
+
+    private static final int MAX_HEADER_LINE = 1024;
+
+    /**
+     * @param contentType Part Content-Type header (lower case), may be empty
+     * @param body        Part body, or null when the part exceeded the size limit and was skipped
+     */
+    record Part(String contentType, byte[] body) {
+    }
+
+    private final InputStream in;
+    private final String delimiter;
+    private final int maxPartBytes;
+    private boolean atBoundary;
+    private boolean finished;
+
+    MultipartPartReader(InputStream in, String boundary, int maxPartBytes) {
+        this.in = in;
+        this.delimiter = "--" + boundary;
+        this.maxPartBytes = maxPartBytes;
+    }
+
+    /**
+     * Extracts boundary parameter from multipart Content-Type header.
+     *
+     * @return Boundary, or null if header does not declare one
+     */
+    static String boundaryOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (String param : contentType.split(";")) {
+            String trimmed = param.trim();
+            if (trimmed.regionMatches(true, 0, "boundary=", 0, 9)) {
+                String boundary = trimmed.substring(9).replace("\"", "");
+                return boundary.startsWith("--") ? boundary.substring(2) : boundary;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Blocks until next part is complete.
+     *
+     * @return Next part, or null when the stream ended
+     */
+    Part next() throws IOException {
+        if (finished || !skipToBoundary()) {
+            return null;
+        }
+        atBoundary = false;
+
+        String contentType = "";
+        long contentLength = -1;
+        String header;
+        while ((header = readLine()) != null && !header.isEmpty()) {
+            int colon = header.indexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            String name = header.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = header.substring(colon + 1).trim();
+            if (name.equals("content-type")) {
+                contentType = value.toLowerCase(Locale.ROOT);
+            } else if (name.equals("content-length")) {
+                try {
+                    contentLength = Long.parseLong(value);
+                } catch (NumberFormatException ignored) {
+                    // fall back to boundary scanning
+                }
+            }
+        }
+        if (header == null) {
+            finished = true;
+            return null;
+        }
+
+        return contentLength >= 0
+                ? new Part(contentType, readSized(contentLength))
+                : new Part(contentType, readUntilBoundary());
+    }
+
+    private boolean skipToBoundary() throws IOException {
+        while (!atBoundary) {
+            String line = readLine();
+            if (line == null) {
+                finished = true;
+                return false;
+            }
+            markIfBoundary(line);
+        }
+        return !finished;
+    }
+
+    private void markIfBoundary(String line) {
+        String trimmed = line.trim();
+        if (trimmed.startsWith(delimiter)) {
+            atBoundary = true;
+            finished = trimmed.equals(delimiter + "--");
+        }
+    }
+
+    private byte[] readSized(long length) throws IOException {
+        if (length > maxPartBytes) {
+            in.skipNBytes(length);
+            return null;
+        }
+        byte[] body = in.readNBytes((int) length);
+        if (body.length < length) {
+            finished = true;
+        }
+        return body;
+    }
+
+    private byte[] readUntilBoundary() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        boolean overflow = false;
+        String line;
+        while ((line = readLine()) != null) {
+            markIfBoundary(line);
+            if (atBoundary) {
+                return overflow ? null : body.toByteArray();
+            }
+            byte[] bytes = line.getBytes(StandardCharsets.ISO_8859_1);
+            if (!overflow && body.size() + bytes.length + 1 <= maxPartBytes) {
+                body.write(bytes);
+                body.write('\n');
+            } else {
+                overflow = true;
+            }
+        }
+        finished = true;
+        return overflow ? null : body.toByteArray();
+    }
+
+    /**
+     * Reads one line (CRLF or LF terminated) as ISO-8859-1, keeping at most MAX_HEADER_LINE
+     * characters for header lines and {@code maxPartBytes} for body lines.
+     *
+     * @return Line without terminator, or null at end of stream
+     */
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        int limit = Math.max(MAX_HEADER_LINE, maxPartBytes);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            if (line.length() < limit) {
+                line.append((char) b);
+            }
+        }
+        return line.isEmpty() ? null : line.toString();
+    }
+}
@@ -8,6 +8,10 @@ import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.kcn.hikvisionmanager.domain.DownloadJob;
+import com.kcn.hikvisionmanager.domain.DownloadPriority;
+import com.kcn.hikvisionmanager.domain.DownloadStatus;
 import com.kcn.hikvisionmanager.dto.stream.RunningStream;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -25,6 +29,9 @@ import javax.xml.XMLConstants;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.transform.TransformerFactory;
 import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -44,10 +51,9 @@ public class AppConfig {
     // These values are technical parameters that don't require external configuration.
     // They are optimized for Hikvision camera API response patterns.
 
-    private static final int CAMERA_STATUS_TTL = 2;           // 2 seconds - rapid status updates
-    private static final int CAMERA_INFO_TTL = 5;             // 5 minutes - static camera properties
-    private static final int DOWNLOAD_JOBS_CACHE_TTL = 3;     // 3 hours - active download sessions
-    private static final int BATCH_DOWNLOAD_JOBS_CACHE_TTL = 24;  // 24 hours - batch operations
+    private static final int DOWNLOAD_JOBS_CACHE_TTL = 3;     // 3 hours - finished single downloads
+    private static final int DOWNLOAD_JOBS_CACHE_MAX_FINISHED = 300;
+    private static final int BATCH_DOWNLOAD_JOBS_CACHE_TTL = 24;  // 24 hours - batch operations and their jobs
     private static final int HLS_MANIFEST_TTL = 2;            // 2 seconds - live streaming manifest
     private static final int STREAM_SESSION_TTL = 2;          // 2 hours - active stream sessions
 
@@ -55,15 +61,6 @@ public class AppConfig {
     // Thread Pool Configuration (from properties)
     // ========================================
 
-    @Value("${thread-pool.camera.core-size:2}")
-    private int cameraPoolCoreSize;
-
-    @Value("${thread-pool.camera.max-size:4}")
-    private int cameraPoolMaxSize;
-
-    @Value("${thread-pool.camera.queue-capacity:100}")
-    private int cameraPoolQueueCapacity;
-
     @Value("${thread-pool.stream.core-size:1}")
     private int streamPoolCoreSize;
 
@@ -81,25 +78,6 @@ public class AppConfig {
         return Clock.systemDefaultZone();
     }
 
-    /**
-     * Thread pool executor for camera API operations.
-     * Handles concurrent requests to Hikvision camera API endpoints.
-     * Uses CallerRunsPolicy to prevent task rejection under high load.
-     */
-    @Bean(name = "cameraTaskExecutor", destroyMethod = "shutdown")
-    public ThreadPoolTaskExecutor cameraTaskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(cameraPoolCoreSize);
-        executor.setMaxPoolSize(cameraPoolMaxSize);
-        executor.setQueueCapacity(cameraPoolQueueCapacity);
-        executor.setThreadNamePrefix("camera-task-");
-        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
-        executor.initialize();
-        log.info("✅ Camera TaskExecutor initialized (core={}, max={}, queue={})",
-                cameraPoolCoreSize, cameraPoolMaxSize, cameraPoolQueueCapacity);
-        return executor;
-    }
-
     /**
      * Thread pool executor for video streaming operations.
      * Constrained to camera hardware limitations (single concurrent stream).
@@ -119,6 +97,19 @@ public class AppConfig {
         return executor;
     }
 
+    /**
+     * Virtual-thread-per-task executor for asynchronous ISAPI requests.
+     * Blocking camera I/O parks the virtual thread and releases its carrier,
+     * so platform thread usage does not grow with the number of in-flight camera calls.
+     */
+    @Bean(name = "isapiAsyncExecutor", destroyMethod = "shutdown")
+    public ExecutorService isapiAsyncExecutor() {
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("isapi-vt-", 0).factory());
+        log.info("✅ ISAPI async executor initialized (virtual threads)");
+        return executor;
+    }
+
     /**
      * Configures Caffeine cache manager with multiple specialized caches.
      * Each cache is optimized for specific data access patterns.
@@ -127,27 +118,17 @@ public class AppConfig {
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
 
-        // Camera status cache - frequent updates, short TTL
-        cacheManager.registerCustomCache("cameraStatus",
-                Caffeine.newBuilder()
-                        .expireAfterWrite(CAMERA_STATUS_TTL, TimeUnit.SECONDS)
-                        .maximumSize(10)
-                        .recordStats()
-                        .build());
-
-        // Camera info cache - static data, longer TTL
-        cacheManager.registerCustomCache("cameraInfo",
-                Caffeine.newBuilder()
-                        .expireAfterWrite(CAMERA_INFO_TTL, TimeUnit.MINUTES)
-                        .maximumSize(2)
-                        .recordStats()
-                        .build());
+        // Camera device data (info, status, storage, ...) is cached by CameraService
+        // in refresh-ahead snapshot caches that can serve stale values while the camera is offline.
 
-        // Download jobs cache - active downloads tracking
+        // Download jobs cache - active downloads tracking. Queued and running jobs never expire, and jobs of
+        // a batch weigh nothing and stay as long as the batch itself, so a backup of tens of thousands of
+        // segments keeps every job its status is computed from. Finished single downloads are bounded as before.
         cacheManager.registerCustomCache("downloadJobs",
                 Caffeine.newBuilder()
-                        .expireAfterWrite(DOWNLOAD_JOBS_CACHE_TTL, TimeUnit.HOURS)
-                        .maximumSize(300)
+                        .weigher((Object jobId, Object job) -> isSingleDownload(job) && !isPendingDownload(job) ? 1 : 0)
+                        .maximumWeight(DOWNLOAD_JOBS_CACHE_MAX_FINISHED)
+                        .expireAfter(Expiry.writing((Object jobId, Object job) -> downloadJobTtl(job)))
                         .recordStats()
                         .build());
 
@@ -181,6 +162,24 @@ public class AppConfig {
         return cacheManager;
     }
 
+    private static Duration downloadJobTtl(Object job) {
+        if (isPendingDownload(job)) {
+            return Duration.ofNanos(Long.MAX_VALUE);
+        }
+        return isSingleDownload(job)
+                ? Duration.ofHours(DOWNLOAD_JOBS_CACHE_TTL)
+                : Duration.ofHours(BATCH_DOWNLOAD_JOBS_CACHE_TTL);
+    }
+
+    private static boolean isPendingDownload(Object job) {
+        DownloadStatus status = ((DownloadJob) job).getStatus();
+        return status == DownloadStatus.QUEUED || status == DownloadStatus.DOWNLOADING;
+    }
+
+    private static boolean isSingleDownload(Object job) {
+        return ((DownloadJob) job).getPriority() == DownloadPriority.INTERACTIVE;
+    }
+
     /**
      * Direct cache instance for live streaming operations.
      * Provides non-Spring managed access to stream cache.
@@ -6,6 +6,7 @@ import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -46,9 +47,10 @@ public class BackupConfig {
     private final String defaultScheduleCron;
 
     /**
-     * Maximum number of recordings to process in a single backup job
+     * Number of recordings requested from the camera per search page.
+     * Backups follow pages until the whole time range is covered, so this does not limit backup size.
      */
-    private final int maxRecordingsPerBackup;
+    private final int searchPageSize;
 
     /**
      * Default strategy for determining backup time range
@@ -71,20 +73,20 @@ public class BackupConfig {
      * @param baseDir Base directory for backups
      * @param defaultRetentionDays Number of days to retain backups
      * @param defaultScheduleCron Cron expression for backup scheduling
-     * @param maxRecordingsPerBackup max number of recordings for backup
+     * @param searchPageSize recordings per camera search page
      * @param defaultStrategy to determine backup time range
      * @param retryMaxAttempts Maximum retry attempts
      * @param retryDelay Delay between retries
      */
     public BackupConfig(Path baseDir,
                         int defaultRetentionDays,
-                        String defaultScheduleCron, int maxRecordingsPerBackup, BackupTimeRangeStrategy defaultStrategy,
+                        String defaultScheduleCron, @DefaultValue("50") int searchPageSize, BackupTimeRangeStrategy defaultStrategy,
                         int retryMaxAttempts,
                         Duration retryDelay) {
         this.baseDir = baseDir;
         this.defaultRetentionDays = defaultRetentionDays;
         this.defaultScheduleCron = defaultScheduleCron;
-        this.maxRecordingsPerBackup = maxRecordingsPerBackup;
+        this.searchPageSize = searchPageSize;
         this.defaultStrategy = defaultStrategy;
         this.retryMaxAttempts = retryMaxAttempts;
         this.retryDelay = retryDelay;
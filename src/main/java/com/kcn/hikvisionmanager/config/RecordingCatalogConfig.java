@@ -0,0 +1,65 @@
+package com.kcn.hikvisionmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration for the local recording catalog.
+ * Controls the background sync with the camera and whether searches are answered from the index.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "recording.catalog")
+public class RecordingCatalogConfig {
+
+    /**
+     * When enabled, recordings are indexed in the database and searches are served from the index.
+     * When disabled, every search goes to the camera.
+     * Default: true
+     */
+    private boolean enabled = true;
+
+    /**
+     * Delay between incremental sync runs.
+     * Also the maximum staleness of the newest recordings in index-served results.
+     * Default: 1 minute
+     */
+    private Duration syncInterval = Duration.ofMinutes(1);
+
+    /**
+     * How far back the first sync indexes recordings.
+     * Older ranges are searched on the camera directly.
+     * Default: 7 days
+     */
+    private int initialDays = 7;
+
+    /**
+     * Each sync re-reads this much before the watermark, so a segment that was
+     * still being recorded during the previous sync gets its final end time.
+     * Default: 10 minutes
+     */
+    private Duration overlap = Duration.ofMinutes(10);
+
+    /**
+     * Maximum time span requested from the camera in one sync step.
+     * The watermark is committed after every step, so an interrupted backfill resumes where it stopped.
+     * Default: 24 hours
+     */
+    private Duration syncChunk = Duration.ofHours(24);
+
+    /**
+     * How often the oldest indexed recordings are checked against the camera.
+     * Recordings the camera has overwritten since they were indexed are removed from the index.
+     * Default: 1 hour
+     */
+    private Duration pruneInterval = Duration.ofHours(1);
+
+    /**
+     * Page size used for camera searches during sync.
+     * Default: 50
+     */
+    private int syncPageSize = 50;
+}
@@ -1,13 +1,36 @@
 package com.kcn.hikvisionmanager.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
  * Enables Spring's scheduled task execution capability.
  * Required for @Scheduled annotated methods across the application.
  */
+@Slf4j
 @Configuration
 @EnableScheduling
 public class SchedulingConfig {
-}
\ No newline at end of file
+
+    @Value("${thread-pool.scheduler.size:3}")
+    private int schedulerPoolSize;
+
+    /**
+     * Scheduler for @Scheduled tasks.
+     * One thread per scheduled job, so a long recording catalog backfill does not hold up
+     * the backup scheduler or the anomaly scan.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler taskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(schedulerPoolSize);
+        scheduler.setThreadNamePrefix("scheduler-");
+        scheduler.initialize();
+        log.info("✅ Task scheduler initialized (pool={})", schedulerPoolSize);
+        return scheduler;
+    }
+}
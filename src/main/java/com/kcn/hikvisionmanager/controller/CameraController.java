@@ -1,13 +1,18 @@
 package com.kcn.hikvisionmanager.controller;
 
 import com.kcn.hikvisionmanager.dto.*;
+import com.kcn.hikvisionmanager.service.CameraAlertBroadcaster;
 import com.kcn.hikvisionmanager.service.CameraService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -15,42 +20,66 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CameraController {
 
+    private static final String DATA_STALE_HEADER = "X-Data-Stale";
+
     private final CameraService cameraService;
+    private final CameraAlertBroadcaster alertBroadcaster;
 
     @GetMapping("/info")
-    public ResponseEntity<CameraInfoDTO> getDeviceInfo() {
+    public CompletableFuture<ResponseEntity<CameraInfoDTO>> getDeviceInfo() {
         log.debug("🌐 API: GET /api/camera/info");
-        return ResponseEntity.ok(cameraService.getDeviceInfo());
+        return cameraService.getDeviceInfoSnapshot().thenApply(CameraController::withFreshness);
     }
 
     @GetMapping("/status")
-    public ResponseEntity<CameraHealthDTO> checkHealth() {
+    public CompletableFuture<ResponseEntity<CameraHealthDTO>> checkHealth() {
         log.debug("🌐 API: GET /api/camera/status");
-            return ResponseEntity.ok(cameraService.getSystemStatus());
+        return cameraService.getSystemStatusSnapshot().thenApply(CameraController::withFreshness);
     }
 
     @GetMapping("/network")
-    public ResponseEntity<CameraNetworkDTO> networkInfo() {
+    public CompletableFuture<ResponseEntity<CameraNetworkDTO>> networkInfo() {
         log.debug("🌐 API: GET /api/camera/network");
-        return ResponseEntity.ok(cameraService.getNetworkInfo());
+        return cameraService.getNetworkInfoSnapshot().thenApply(CameraController::withFreshness);
     }
 
     @GetMapping("/storage")
-    public ResponseEntity<CameraStorageDTO> storageInfo() {
+    public CompletableFuture<ResponseEntity<CameraStorageDTO>> storageInfo() {
         log.debug("🌐 API: GET /api/camera/storage");
-        return ResponseEntity.ok(cameraService.getStorageInfo());
+        return cameraService.getStorageInfoSnapshot().thenApply(CameraController::withFreshness);
     }
 
     @GetMapping("/time")
-    public ResponseEntity<CameraTimeDTO> timeInfo() {
+    public CompletableFuture<ResponseEntity<CameraTimeDTO>> timeInfo() {
         log.debug("🌐 API: GET /api/camera/time");
-        return ResponseEntity.ok(cameraService.getTimeInfo());
+        return cameraService.getTimeInfoSnapshot().thenApply(CameraController::withFreshness);
     }
 
     @GetMapping("/channels")
-    public List<CameraChannelInfoDTO> getAllChannels() {
+    public CompletableFuture<ResponseEntity<List<CameraChannelInfoDTO>>> getAllChannels() {
         log.debug("🌐 API: GET /api/camera/channels");
-        return cameraService.getTrackList();
+        return cameraService.getTrackListSnapshot().thenApply(CameraController::withFreshness);
+    }
+
+    /**
+     * Server-Sent Events stream of camera alerts (event name {@code alert}).
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events() {
+        log.debug("🌐 API: GET /api/camera/events");
+        return alertBroadcaster.subscribe();
+    }
+
+    /**
+     * Wraps snapshot value in 200 response with freshness headers:
+     * {@code Age} (seconds since fetched from camera) and {@code X-Data-Stale}
+     * (true when the latest refresh failed and the value is from an earlier fetch).
+     */
+    private static <T> ResponseEntity<T> withFreshness(CameraSnapshot<T> snapshot) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.AGE, String.valueOf(snapshot.age().toSeconds()))
+                .header(DATA_STALE_HEADER, String.valueOf(snapshot.stale()))
+                .body(snapshot.value());
     }
 
-}
\ No newline at end of file
+}
@@ -8,6 +8,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/camera/management")
@@ -17,9 +19,9 @@ public class CameraManagementController {
     private final CameraManagementService cameraService;
 
     @PostMapping("/restart")
-    public ResponseEntity<String> restartCamera() {
+    public CompletableFuture<ResponseEntity<String>> restartCamera() {
         log.info("🌐 API: POST /api/camera/management/restart");
-        boolean success= cameraService.restartCamera();
-        return ResponseEntity.ok(success?"Camera restarted successfully":"Failed to restart camera");
+        return cameraService.restartCameraAsync()
+                .thenApply(success -> ResponseEntity.ok(success?"Camera restarted successfully":"Failed to restart camera"));
     }
 }
@@ -1,7 +1,16 @@
 package com.kcn.hikvisionmanager.controller;
 
+import com.kcn.hikvisionmanager.domain.CoverageResolution;
+import com.kcn.hikvisionmanager.dto.MultiTrackSearchRequestDTO;
+import com.kcn.hikvisionmanager.dto.RecordingAnomalyReportDTO;
+import com.kcn.hikvisionmanager.dto.RecordingCalendarDTO;
+import com.kcn.hikvisionmanager.dto.RecordingCoverageDTO;
 import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
 import com.kcn.hikvisionmanager.dto.RecordingSearchResultDTO;
+import com.kcn.hikvisionmanager.service.RecordingAnomalyService;
+import com.kcn.hikvisionmanager.service.RecordingCatalogService;
+import com.kcn.hikvisionmanager.service.RecordingCoverageService;
+import com.kcn.hikvisionmanager.service.RecordingSearchPlanner;
 import com.kcn.hikvisionmanager.service.RecordingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,7 +19,10 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -19,21 +31,107 @@ import java.time.LocalDateTime;
 public class RecordingController {
 
     private final RecordingService recordingService;
+    private final RecordingCatalogService recordingCatalogService;
+    private final RecordingSearchPlanner recordingSearchPlanner;
+    private final RecordingCoverageService recordingCoverageService;
+    private final RecordingAnomalyService recordingAnomalyService;
     private static final String DEFAULT_PAGE_SIZE = "10";
     private static final String DEFAULT_HOURS = "24";
 
     /**
      * POST /api/recordings/search
      * Searches for recordings in a given time range.
+     * Answered from the local catalog when possible; verify=true forces a camera search.
      */
     @PostMapping("/search")
-    public ResponseEntity<RecordingSearchResultDTO> searchRecordings(
+    public CompletableFuture<ResponseEntity<RecordingSearchResultDTO>> searchRecordings(
+            @Valid @RequestBody RecordingSearchRequestDTO request,
+            @RequestParam(defaultValue = "false") boolean verify) {
+
+        log.debug("🌐 API: POST /api/recordings/search | startTime={} | endTime={} | page={} | pageSize={} | verify={}",
+                request.getStartTime(), request.getEndTime(), request.getPage(), request.getPageSize(), verify);
+
+        return recordingCatalogService.search(request, verify).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * POST /api/recordings/search/range
+     * Returns all recordings in a long time range (up to 31 days) in one result,
+     * searched on the camera as parallel time shards. Paging fields are ignored.
+     */
+    @PostMapping("/search/range")
+    public ResponseEntity<RecordingSearchResultDTO> searchRange(
             @Valid @RequestBody RecordingSearchRequestDTO request) {
 
-        log.debug("🌐 API: POST /api/recordings/search | startTime={} | endTime={} | page={} | pageSize={}",
-                request.getStartTime(), request.getEndTime(), request.getPage(), request.getPageSize());
+        log.debug("🌐 API: POST /api/recordings/search/range | startTime={} | endTime={}",
+                request.getStartTime(), request.getEndTime());
+
+        return ResponseEntity.ok(recordingSearchPlanner.searchRange(request));
+    }
+
+    /**
+     * POST /api/recordings/search/tracks
+     * Returns all recordings of several tracks (all enabled tracks by default) in a time range of up to
+     * 31 days as one list ordered by start time. Tracks are searched in parallel.
+     */
+    @PostMapping("/search/tracks")
+    public ResponseEntity<RecordingSearchResultDTO> searchTracks(
+            @Valid @RequestBody MultiTrackSearchRequestDTO request) {
+
+        log.debug("🌐 API: POST /api/recordings/search/tracks | startTime={} | endTime={} | trackIds={}",
+                request.getStartTime(), request.getEndTime(), request.getTrackIds());
+
+        return ResponseEntity.ok(recordingSearchPlanner.searchTracks(request));
+    }
+
+    /**
+     * GET /api/recordings/coverage
+     * Returns where footage exists for each day in the range (up to 31 days),
+     * as run-length encoded minute, hour or day buckets.
+     */
+    @GetMapping("/coverage")
+    public ResponseEntity<RecordingCoverageDTO> getCoverage(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "HOUR") CoverageResolution resolution) {
+
+        log.debug("🌐 API: GET /api/recordings/coverage | from={} | to={} | resolution={}", from, to, resolution);
+        return ResponseEntity.ok(recordingCoverageService.getCoverage(from, to, resolution));
+    }
+
+    /**
+     * GET /api/recordings/calendar/{month}
+     * Returns the days of a month (yyyy-MM) that hold recordings, from a single camera request.
+     */
+    @GetMapping("/calendar/{month}")
+    public ResponseEntity<RecordingCalendarDTO> getRecordingCalendar(
+            @PathVariable @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+
+        log.debug("🌐 API: GET /api/recordings/calendar/{}", month);
+        return ResponseEntity.ok(recordingService.getRecordingCalendar(month));
+    }
 
-        return ResponseEntity.ok(recordingService.searchRecordings(request));
+    /**
+     * GET /api/recordings/anomalies
+     * Returns gaps, overlaps and abnormally small segments found by the background scan.
+     */
+    @GetMapping("/anomalies")
+    public ResponseEntity<RecordingAnomalyReportDTO> getRecentAnomalies() {
+        log.debug("🌐 API: GET /api/recordings/anomalies");
+        return ResponseEntity.ok(recordingAnomalyService.getRecentAnomalies());
+    }
+
+    /**
+     * GET /api/recordings/anomalies/scan
+     * Scans a time range (up to 92 days) for gaps, overlaps and abnormally small segments.
+     */
+    @GetMapping("/anomalies/scan")
+    public ResponseEntity<RecordingAnomalyReportDTO> scanAnomalies(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        log.debug("🌐 API: GET /api/recordings/anomalies/scan | from={} | to={}", from, to);
+        return ResponseEntity.ok(recordingAnomalyService.scan(from, to));
     }
 
     /**
@@ -43,10 +141,11 @@ public class RecordingController {
     @GetMapping("/recent")
     public ResponseEntity<RecordingSearchResultDTO> getRecentRecordings(
             @RequestParam(defaultValue = DEFAULT_HOURS) int hours,
-            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize) {
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestParam(defaultValue = "false") boolean verify) {
 
-        log.debug("🌐 API: GET /api/recordings/recent | hours={} | pageSize={}", hours, pageSize);
-        return ResponseEntity.ok(recordingService.searchRecentRecordings(hours, pageSize));
+        log.debug("🌐 API: GET /api/recordings/recent | hours={} | pageSize={} | verify={}", hours, pageSize, verify);
+        return ResponseEntity.ok(recordingCatalogService.searchRecent(hours, pageSize, verify));
     }
 
     /**
@@ -57,15 +156,29 @@ public class RecordingController {
     public ResponseEntity<RecordingSearchResultDTO> getRecordingsByDate(
             @PathVariable
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date,
-            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize) {
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int pageSize,
+            @RequestParam(defaultValue = "false") boolean verify) {
+
+        log.debug("🌐 API: GET /api/recordings/date/{} | pageSize={} | verify={}", date, pageSize, verify);
+        return ResponseEntity.ok(recordingCatalogService.searchByDate(date, pageSize, verify));
+    }
+
+    /**
+     * GET /api/recordings/search/next
+     * Fetches the page a cursor (nextCursor of a previous result) points to.
+     */
+    @GetMapping("/search/next")
+    public ResponseEntity<RecordingSearchResultDTO> searchWithCursor(
+            @RequestParam String cursor,
+            @RequestParam(required = false) Integer pageSize) {
 
-        log.debug("🌐 API: GET /api/recordings/date/{} | pageSize={}", date, pageSize);
-        return ResponseEntity.ok(recordingService.searchRecordingsByDate(date, pageSize));
+        log.debug("🌐 API: GET /api/recordings/search/next | pageSize={}", pageSize);
+        return ResponseEntity.ok(recordingCatalogService.searchWithCursor(cursor, pageSize));
     }
 
     /**
      * POST /api/recordings/search/next
-     * Fetches the next page of recordings based on the previous search result.
+     * Fetches the next page of recordings through the nextCursor of the previous search result.
      */
     @PostMapping("/search/next")
     public ResponseEntity<RecordingSearchResultDTO> searchNextPage(
@@ -75,6 +188,6 @@ public class RecordingController {
         log.debug("🌐 API: POST /api/recordings/search/next | currentSearchId={} | pageSize={}",
                 currentResult.getSearchId(), pageSize);
 
-        return ResponseEntity.ok(recordingService.searchNextPage(currentResult, pageSize));
+        return ResponseEntity.ok(recordingCatalogService.searchNextPage(currentResult, pageSize));
     }
 }
\ No newline at end of file
@@ -101,7 +101,9 @@ public class RecordingDownloadController {
 
     /**
      * Start download directly without search first (convenience endpoint)
-     * Backend will search for recordings and download ALL matches as a batch
+     * Backend will search for recordings and download ALL matches as a batch,
+     * following search pages (pageSize per camera request) until the range is covered.
+     * Returns once the first page is read; later pages are queued in the background.
      *
      * POST /api/recordings/download/start-direct
      * Body: RecordingSearchRequestDTO (same as search endpoint)
@@ -116,27 +118,21 @@ public class RecordingDownloadController {
                 request.getStartTime(), request.getEndTime(), request.getPage());
 
         try {
-            // Search for recordings
-            RecordingSearchResultDTO searchResult = searchService.searchRecordings(request);
-
-            if (searchResult.getRecordings().isEmpty()) {
-                log.warn("❌ No recordings found for direct download request");
-                return ResponseEntity.badRequest()
-                        .body(Map.of("error", "No recordings found in specified time range"));
-            }
-
-            // Start batch download for ALL recordings
-            String batchId = batchService.startBatchDownload(searchResult.getRecordings());
+            // Search pages are read in the background while jobs are being queued
+            String batchId = batchService.startBatchDownloadInBackground(searchService.streamRecordings(
+                    request.getStartTime(), request.getEndTime(), request.getPageSize()), null);
 
             Map<String, Object> response = new HashMap<>();
             response.put("batchId", batchId);
             response.put("statusUrl", "/api/recordings/download/batch/" + batchId + "/status");
-            response.put("total", searchResult.getRecordings().size());
-            response.put("message", String.format("Started batch download of %d recordings",
-                    searchResult.getRecordings().size()));
+            response.put("message", "Started batch download, recordings are being queued");
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
+        } catch (IllegalArgumentException e) {
+            log.warn("❌ No recordings found for direct download request");
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "No recordings found in specified time range"));
         } catch (Exception e) {
             log.error("❌ Failed to start direct download", e);
             return ResponseEntity.internalServerError().build();
@@ -11,7 +11,8 @@ import java.util.List;
 @Builder
 public class BatchDownloadJob {
     private String batchId;
-    private List<String> jobIds;
+    private List<String> jobIds;          // Synchronized list, appended while recordings are queued
+    private boolean queuing;              // Recordings are still being read and queued
     private int totalRecordings;
     private int completedRecordings;
     private int failedRecordings;
@@ -0,0 +1,38 @@
+package com.kcn.hikvisionmanager.domain;
+
+import lombok.Getter;
+
+/**
+ * Camera alert types reported on the ISAPI alert stream, keyed by their {@code eventType} code.
+ */
+@Getter
+public enum CameraAlertType {
+    MOTION("VMD", false),
+    VIDEO_LOSS("videoloss", false),
+    TAMPERING("shelteralarm", false),
+    LINE_CROSSING("linedetection", false),
+    INTRUSION("fielddetection", false),
+    DISK_FULL("diskfull", true),
+    DISK_ERROR("diskerror", true),
+    NETWORK_DISCONNECTED("nicbroken", false),
+    IP_CONFLICT("ipconflict", false),
+    ILLEGAL_ACCESS("illaccess", false),
+    OTHER("", false);
+
+    private final String code;
+    private final boolean storageRelated;
+
+    CameraAlertType(String code, boolean storageRelated) {
+        this.code = code;
+        this.storageRelated = storageRelated;
+    }
+
+    public static CameraAlertType fromCode(String code) {
+        for (CameraAlertType type : values()) {
+            if (type != OTHER && type.code.equalsIgnoreCase(code)) {
+                return type;
+            }
+        }
+        return OTHER;
+    }
+}
@@ -0,0 +1,20 @@
+package com.kcn.hikvisionmanager.domain;
+
+/**
+ * Bucket size of a recording coverage timeline.
+ */
+public enum CoverageResolution {
+    MINUTE(1),
+    HOUR(60),
+    DAY(24 * 60);
+
+    private final int bucketMinutes;
+
+    CoverageResolution(int bucketMinutes) {
+        this.bucketMinutes = bucketMinutes;
+    }
+
+    public int getBucketMinutes() {
+        return bucketMinutes;
+    }
+}
@@ -12,13 +12,14 @@ public class DownloadJob {
     private String jobId;
     private String batchId;
     private boolean isBackupJob=false;
+    private DownloadPriority priority;
     private String recordingId;
     private String trackId;
 
     // Timing info
     private LocalDateTime startTime;
     private LocalDateTime endTime;
-    private String duration;           // Format: "10:26"
+    private long durationSeconds;
 
     // Progress tracking
     private DownloadStatus status;
@@ -26,7 +27,7 @@ public class DownloadJob {
     private double downloadSpeed;         // Mbps
     private String currentTime;        // Format: "00:04:42"
     private long downloadedBytes;      // Estimated downloaded bytes
-    private long totalBytes;           // Expected total bytes from fileSize
+    private long totalBytes;           // Expected total bytes, exact when the playback URI carries the size
     private String eta;                // Format: "2m 30s"
 
     // File info
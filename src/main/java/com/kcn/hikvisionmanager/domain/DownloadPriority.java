@@ -0,0 +1,7 @@
+package com.kcn.hikvisionmanager.domain;
+
+public enum DownloadPriority {
+    INTERACTIVE,  // Single download a user is waiting for
+    BATCH,        // Manual batch download
+    BACKUP        // Scheduled backup, runs in the background
+}
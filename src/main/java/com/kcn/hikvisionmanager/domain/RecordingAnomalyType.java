@@ -0,0 +1,7 @@
+package com.kcn.hikvisionmanager.domain;
+
+public enum RecordingAnomalyType {
+    GAP,            // No recording between two consecutive segments
+    OVERLAP,        // Segment starts before the previous one ended
+    SMALL_SEGMENT   // Segment much smaller than its duration implies
+}
@@ -0,0 +1,60 @@
+package com.kcn.hikvisionmanager.domain;
+
+/**
+ * Compact internal form of a camera recording segment.
+ * <p>
+ * Times are epoch seconds and the size is the exact byte count from the playback URI, parsed once when the
+ * camera response is mapped. Formatted values ("10:26", "248,6 MB", local date times) are only produced at
+ * the API edge by {@code RecordingSearchMapper}, so downstream code never has to parse them back.
+ * Track id and codec repeat on every segment and are interned.
+ *
+ * @param startEpoch Start, epoch seconds
+ * @param endEpoch   End, epoch seconds
+ * @param sizeBytes  Exact size in bytes, or -1 when the playback URI does not carry it
+ */
+public record RecordingSegment(String recordingId,
+                               String trackId,
+                               long startEpoch,
+                               long endEpoch,
+                               String codec,
+                               String playbackUrl,
+                               long sizeBytes) {
+
+    public RecordingSegment {
+        trackId = trackId != null ? trackId.intern() : null;
+        codec = codec != null ? codec.intern() : null;
+    }
+
+    public long durationSeconds() {
+        return Math.max(0, endEpoch - startEpoch);
+    }
+
+    public boolean hasSize() {
+        return sizeBytes >= 0;
+    }
+
+    /**
+     * Reads the exact segment size from the {@code size=} parameter of a playback URI.
+     *
+     * @return Size in bytes, or -1 when absent
+     */
+    public static long parseSizeBytes(String playbackUrl) {
+        if (playbackUrl == null) {
+            return -1;
+        }
+        int index = playbackUrl.lastIndexOf("size=");
+        if (index <= 0 || "&?;".indexOf(playbackUrl.charAt(index - 1)) < 0) {
+            return -1;
+        }
+        long size = 0;
+        int digits = 0;
+        for (int i = index + 5; i < playbackUrl.length(); i++, digits++) {
+            char c = playbackUrl.charAt(i);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            size = size * 10 + (c - '0');
+        }
+        return digits > 0 ? size : -1;
+    }
+}
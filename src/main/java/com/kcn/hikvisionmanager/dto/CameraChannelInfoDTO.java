@@ -8,6 +8,7 @@ import lombok.Data;
 @Builder
 public class CameraChannelInfoDTO {
     private String channelId;
+    private String trackId;          // Recording track ID used in searches, e.g. "101"
     private RecordingType recordingType;
     private String codec;
     private String bitrate;
@@ -0,0 +1,28 @@
+package com.kcn.hikvisionmanager.dto;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Last known camera data together with its freshness.
+ * {@code stale} is set when the latest background refresh failed (camera offline or restarting)
+ * and the value is being served from an earlier successful fetch.
+ */
+public record CameraSnapshot<T>(
+        T value,
+        Instant fetchedAt,
+        boolean stale
+) {
+
+    public static <T> CameraSnapshot<T> fresh(T value) {
+        return new CameraSnapshot<>(value, Instant.now(), false);
+    }
+
+    public CameraSnapshot<T> asStale() {
+        return stale ? this : new CameraSnapshot<>(value, fetchedAt, true);
+    }
+
+    public Duration age() {
+        return Duration.between(fetchedAt, Instant.now());
+    }
+}
@@ -0,0 +1,16 @@
+package com.kcn.hikvisionmanager.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class DayCoverageDTO {
+    private LocalDate date;
+    private int coveredMinutes;
+    // Run-length encoded covered buckets: each entry is [firstBucket, bucketCount]
+    private List<int[]> runs;
+}
@@ -0,0 +1,40 @@
+package com.kcn.hikvisionmanager.dto;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PastOrPresent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Search criteria for one time range on several tracks (e.g. main and sub stream, or NVR channels).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultiTrackSearchRequestDTO {
+
+    @NotNull(message = "Start time cannot be null")
+    @PastOrPresent(message = "Start time cannot be in the future")
+    private LocalDateTime startTime;
+
+    @NotNull(message = "End time cannot be null")
+    @PastOrPresent(message = "End time cannot be in the future")
+    private LocalDateTime endTime;
+
+    private List<String> trackIds;   // Track IDs from the camera track list; all enabled tracks when empty
+
+    @AssertTrue(message = "End time must be after start time")
+    public boolean isTimeRangeValid() {
+        if (startTime == null || endTime == null) {
+            return true; // handled by @NotNull separately
+        }
+        return endTime.isAfter(startTime);
+    }
+}
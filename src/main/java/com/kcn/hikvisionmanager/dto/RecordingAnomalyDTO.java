@@ -0,0 +1,18 @@
+package com.kcn.hikvisionmanager.dto;
+
+import com.kcn.hikvisionmanager.domain.RecordingAnomalyType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class RecordingAnomalyDTO {
+    private RecordingAnomalyType type;
+    private LocalDateTime startTime;      // Local time
+    private LocalDateTime endTime;        // Local time
+    private long durationSeconds;
+    private Long sizeBytes;               // SMALL_SEGMENT only
+    private Long expectedSizeBytes;       // SMALL_SEGMENT only
+}
@@ -0,0 +1,23 @@
+package com.kcn.hikvisionmanager.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class RecordingAnomalyReportDTO {
+    private String trackId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long segments;
+    private long recordedSeconds;
+    private long missingSeconds;
+    private long gaps;
+    private long overlaps;
+    private long smallSegments;
+    private LocalDateTime openGapSince;   // Recording stopped and has not resumed yet
+    private List<RecordingAnomalyDTO> anomalies;
+}
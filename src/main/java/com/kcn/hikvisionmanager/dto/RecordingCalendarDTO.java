@@ -0,0 +1,15 @@
+package com.kcn.hikvisionmanager.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class RecordingCalendarDTO {
+    private String trackId;
+    private int year;
+    private int month;
+    private List<Integer> recordedDays;
+}
@@ -0,0 +1,21 @@
+package com.kcn.hikvisionmanager.dto;
+
+import com.kcn.hikvisionmanager.domain.CoverageResolution;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class RecordingCoverageDTO {
+    private String trackId;
+    private LocalDate from;
+    private LocalDate to;
+    private CoverageResolution resolution;
+    private int bucketMinutes;
+    private int bucketsPerDay;
+    private int coveredMinutes;
+    private List<DayCoverageDTO> days;
+}
@@ -24,13 +24,15 @@ public class RecordingItemDTO {
     @NotNull(message = "Recording end time is not defined")
     private LocalDateTime endTime;   // Local time
 
-    private String duration;
+    private String duration;          // Format: "10:26"
+    private long durationSeconds;
     private String codec;
 
     @NotBlank(message = "Playback URL is missing or invalid")
     private String playbackUrl;
 
-    private String fileSize;          // Size in MB
+    private String fileSize;          // Formatted, e.g. "248,6 MB"
+    private Long fileSizeBytes;       // Exact size from the playback URI, null when unknown
     private boolean hasMoreResults;
 
     /**
@@ -37,6 +37,8 @@ public class RecordingSearchRequestDTO {
     @Min(value = 1, message = "Page size must be greater than zero")
     private int pageSize=10;
 
+    private String trackId;   // Track to search, main track when not set
+
     /**
      * Validates that endTime is after startTime.
      * Triggered automatically by @Valid in controller.
@@ -14,4 +14,5 @@ public class RecordingSearchResultDTO {
     private int totalMatches;
     private boolean hasMore;
     private String searchId;
+    private String nextCursor;      // Opaque token for the next page, null when there is none
 }
\ No newline at end of file
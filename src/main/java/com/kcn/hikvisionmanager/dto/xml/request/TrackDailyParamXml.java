@@ -0,0 +1,23 @@
+package com.kcn.hikvisionmanager.dto.xml.request;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import lombok.Data;
+
+@Data
+@JacksonXmlRootElement(localName = "trackDailyParam")
+public class TrackDailyParamXml {
+
+    @JacksonXmlProperty(localName = "year")
+    private int year;
+
+    @JacksonXmlProperty(localName = "monthOfYear")
+    private int monthOfYear;
+
+    public TrackDailyParamXml() {}
+
+    public TrackDailyParamXml(int year, int monthOfYear) {
+        this.year = year;
+        this.monthOfYear = monthOfYear;
+    }
+}
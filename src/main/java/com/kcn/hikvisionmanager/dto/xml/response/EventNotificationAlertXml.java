@@ -0,0 +1,52 @@
+package com.kcn.hikvisionmanager.dto.xml.response;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import lombok.Data;
+
+/**
+ * Single event pushed by camera on {@code /ISAPI/Event/notification/alertStream}.
+ * Cameras also send {@code videoloss/inactive} alerts every few seconds as a heartbeat.
+ */
+@Data
+@JacksonXmlRootElement(localName = "EventNotificationAlert", namespace = "http://www.hikvision.com/ver20/XMLSchema")
+public class EventNotificationAlertXml {
+
+    @JacksonXmlProperty(localName = "ipAddress")
+    private String ipAddress;
+
+    @JacksonXmlProperty(localName = "portNo")
+    private int portNo;
+
+    @JacksonXmlProperty(localName = "protocol")
+    private String protocol;
+
+    @JacksonXmlProperty(localName = "macAddress")
+    private String macAddress;
+
+    @JacksonXmlProperty(localName = "channelID")
+    private int channelId;
+
+    @JacksonXmlProperty(localName = "dateTime")
+    private String dateTime;
+
+    @JacksonXmlProperty(localName = "activePostCount")
+    private int activePostCount;
+
+    @JacksonXmlProperty(localName = "eventType")
+    private String eventType;
+
+    @JacksonXmlProperty(localName = "eventState")
+    private String eventState;
+
+    @JacksonXmlProperty(localName = "eventDescription")
+    private String eventDescription;
+
+    public boolean isActive() {
+        return "active".equalsIgnoreCase(eventState);
+    }
+
+    public boolean isHeartbeat() {
+        return "videoloss".equalsIgnoreCase(eventType) && !isActive();
+    }
+}
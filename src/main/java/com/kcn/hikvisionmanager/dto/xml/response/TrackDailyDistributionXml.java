@@ -0,0 +1,38 @@
+package com.kcn.hikvisionmanager.dto.xml.response;
+
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
+import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlRootElement;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@JacksonXmlRootElement(localName = "trackDailyDistribution", namespace = "http://www.hikvision.com/ver20/XMLSchema")
+public class TrackDailyDistributionXml {
+
+    @JacksonXmlProperty(localName = "dayList")
+    private DayList dayList;
+
+    @Data
+    public static class DayList {
+        @JacksonXmlProperty(localName = "day")
+        @JacksonXmlElementWrapper(useWrapping = false)
+        private List<Day> days;
+    }
+
+    @Data
+    public static class Day {
+        @JacksonXmlProperty(localName = "id")
+        private String id;
+
+        @JacksonXmlProperty(localName = "dayOfMonth")
+        private int dayOfMonth;
+
+        @JacksonXmlProperty(localName = "record")
+        private boolean record;
+
+        @JacksonXmlProperty(localName = "recordType")
+        private String recordType;
+    }
+}
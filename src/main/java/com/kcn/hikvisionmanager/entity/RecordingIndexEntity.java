@@ -0,0 +1,57 @@
+package com.kcn.hikvisionmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Local copy of a camera recording segment, kept in sync by {@code RecordingCatalogService}.
+ * Times are stored in local time, same as {@code RecordingItemDTO}.
+ */
+@Entity
+@Table(name = "recording_index",
+        indexes = @Index(name = "idx_recording_index_track_start", columnList = "track_id, start_time"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingIndexEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "recording_id", nullable = false, unique = true, length = 100)
+    private String recordingId;
+
+    @Column(name = "track_id", nullable = false, length = 10)
+    private String trackId;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(length = 20)
+    private String duration;
+
+    @Column(length = 20)
+    private String codec;
+
+    @Column(name = "playback_url", nullable = false, length = 500)
+    private String playbackUrl;
+
+    @Column(name = "file_size", length = 20)
+    private String fileSize;
+
+    @Column(name = "file_size_bytes")
+    private Long fileSizeBytes;
+
+    @Column(name = "indexed_at", nullable = false)
+    private LocalDateTime indexedAt;
+}
@@ -0,0 +1,39 @@
+package com.kcn.hikvisionmanager.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sync watermark of the recording catalog for one track.
+ * The index is complete for [coveredFrom, syncedUntil]; the next sync only asks the camera
+ * for recordings after {@code syncedUntil}.
+ */
+@Entity
+@Table(name = "recording_sync_state")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingSyncStateEntity {
+
+    @Id
+    @Column(name = "track_id", length = 10)
+    private String trackId;
+
+    @Column(name = "covered_from", nullable = false)
+    private LocalDateTime coveredFrom;
+
+    @Column(name = "synced_until", nullable = false)
+    private LocalDateTime syncedUntil;
+
+    @Column(name = "last_sync_at")
+    private LocalDateTime lastSyncAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
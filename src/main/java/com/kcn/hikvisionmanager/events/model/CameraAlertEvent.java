@@ -0,0 +1,32 @@
+package com.kcn.hikvisionmanager.events.model;
+
+import com.kcn.hikvisionmanager.domain.CameraAlertType;
+import com.kcn.hikvisionmanager.events.DomainEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event published for every alert pushed by camera on its alert stream (heartbeats excluded).
+ *
+ * @param camera      Camera key (host:port)
+ * @param type        Alert type, {@link CameraAlertType#OTHER} for codes not mapped yet
+ * @param eventType   Raw ISAPI event type code (e.g. VMD, diskfull)
+ * @param active      True when the condition started, false when it ended
+ * @param channelId   Camera channel the alert refers to
+ * @param description Human-readable description sent by camera
+ */
+public record CameraAlertEvent(
+        String camera,
+        CameraAlertType type,
+        String eventType,
+        boolean active,
+        int channelId,
+        String description,
+        LocalDateTime occurredAt
+) implements DomainEvent {
+
+    @Override
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
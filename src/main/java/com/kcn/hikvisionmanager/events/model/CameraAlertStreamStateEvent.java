@@ -0,0 +1,23 @@
+package com.kcn.hikvisionmanager.events.model;
+
+import com.kcn.hikvisionmanager.events.DomainEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event published when the camera alert stream opens or is lost.
+ *
+ * @param camera    Camera key (host:port)
+ * @param connected True once camera accepted the stream, false after it dropped
+ */
+public record CameraAlertStreamStateEvent(
+        String camera,
+        boolean connected,
+        LocalDateTime occurredAt
+) implements DomainEvent {
+
+    @Override
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -0,0 +1,48 @@
+package com.kcn.hikvisionmanager.events.publishers;
+
+import com.kcn.hikvisionmanager.domain.CameraAlertType;
+import com.kcn.hikvisionmanager.dto.xml.response.EventNotificationAlertXml;
+import com.kcn.hikvisionmanager.events.model.CameraAlertEvent;
+import com.kcn.hikvisionmanager.events.model.CameraAlertStreamStateEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publisher for alerts received from camera alert stream and for changes of its connection state.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CameraAlertPublisher {
+
+    private final EventPublisherHelper eventPublisherHelper;
+
+    public void publishAlert(String camera, EventNotificationAlertXml alert) {
+        try {
+            eventPublisherHelper.publish(new CameraAlertEvent(
+                    camera,
+                    CameraAlertType.fromCode(alert.getEventType()),
+                    alert.getEventType(),
+                    alert.isActive(),
+                    alert.getChannelId(),
+                    alert.getEventDescription(),
+                    LocalDateTime.now()
+            ));
+            log.debug("📣 Published CameraAlertEvent {} ({}) for {}", alert.getEventType(), alert.getEventState(), camera);
+        } catch (Exception e) {
+            log.warn("⛔ Failed to publish CameraAlertEvent: {}", e.getMessage());
+        }
+    }
+
+    public void publishStreamState(String camera, boolean connected) {
+        try {
+            eventPublisherHelper.publish(new CameraAlertStreamStateEvent(camera, connected, LocalDateTime.now()));
+            log.debug("📣 Published CameraAlertStreamStateEvent (connected={}) for {}", connected, camera);
+        } catch (Exception e) {
+            log.warn("⛔ Failed to publish CameraAlertStreamStateEvent: {}", e.getMessage());
+        }
+    }
+}
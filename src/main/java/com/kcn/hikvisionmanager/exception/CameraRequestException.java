@@ -3,11 +3,30 @@ package com.kcn.hikvisionmanager.exception;
 import java.io.IOException;
 
 public class CameraRequestException extends RuntimeException {
+
+    private final int statusCode;
+
     public CameraRequestException(String message) {
-        super(message);
+        this(message, 0);
     }
 
     public CameraRequestException(String message, Throwable cause) {
         super(message, cause);
+        this.statusCode = 0;
+    }
+
+    /**
+     * @param statusCode HTTP status the camera answered with
+     */
+    public CameraRequestException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * HTTP status the camera answered with, or 0 when the request failed without one.
+     */
+    public int getStatusCode() {
+        return statusCode;
     }
 }
\ No newline at end of file
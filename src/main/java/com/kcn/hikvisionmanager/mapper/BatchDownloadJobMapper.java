@@ -72,6 +72,22 @@ public class BatchDownloadJobMapper {
     private BatchDownloadStatus determineBatchStatus(BatchDownloadJob batch, int completed, int failed, int queued) {
         int total = batch.getTotalRecordings();
 
+        // More recordings are still being queued
+        if (batch.isQueuing()) {
+            return BatchDownloadStatus.IN_PROGRESS;
+        }
+
+        // Batch stopped with an error (cancelled, recordings could not all be read) - never COMPLETED
+        if (batch.getErrorMessage() != null) {
+            if (batch.getStatus() != BatchDownloadStatus.IN_PROGRESS) {
+                return batch.getStatus();
+            }
+            if (completed + failed < total) {
+                return BatchDownloadStatus.IN_PROGRESS;
+            }
+            return completed == 0 ? BatchDownloadStatus.FAILED : BatchDownloadStatus.PARTIAL_FAILURE;
+        }
+
         // All completed
         if (completed == total) {
             return BatchDownloadStatus.COMPLETED;
@@ -26,6 +26,7 @@ public class CameraChannelMapper {
     private CameraChannelInfoDTO toCameraChannelDTO(TrackListXml.Track track) {
         return CameraChannelInfoDTO.builder()
                 .channelId(track.getChannel())
+                .trackId(track.getId())
                 .recordingType(track.getRecordingType())
                 .codec(track.getCodec())
                 .bitrate(track.getBitrate())
@@ -49,6 +50,7 @@ public class CameraChannelMapper {
         return List.of(
                 CameraChannelInfoDTO.builder()
                         .channelId("101")
+                        .trackId("101")
                         .recordingType(RecordingType.UNKNOWN)
                         .codec("Unknown")
                         .bitrate("Unknown")
@@ -1,6 +1,7 @@
 package com.kcn.hikvisionmanager.mapper;
 
 import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.domain.RecordingSegment;
 import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
 import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
 import com.kcn.hikvisionmanager.dto.RecordingSearchResultDTO;
@@ -12,12 +13,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
-import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,17 +27,30 @@ public class RecordingSearchMapper {
 
     private final CameraConfig config;
 
+    // Search IDs only need to be unique per camera session: random per-instance prefix + counter
+    // avoids a SecureRandom call (UUID.randomUUID) on every search page
+    private final long searchIdPrefix = UUID.randomUUID().getMostSignificantBits();
+    private final AtomicLong searchIdCounter = new AtomicLong();
+
     public RecordingSearchRequestXml toXmlRequest(RecordingSearchRequestDTO request) {
-        RecordingSearchRequestXml xmlRequest = new RecordingSearchRequestXml();
+        // New search: unique searchId, position from the page number (ensure page >= 1)
+        String searchId = new UUID(searchIdPrefix, searchIdCounter.incrementAndGet()).toString();
+        int page = Math.max(request.getPage(), 1);
+        return toXmlRequest(request, searchId, (page - 1) * request.getPageSize());
+    }
 
-        // Generate unique searchId for each request
-        String searchId = UUID.randomUUID().toString();
+    /**
+     * Request for a page of an existing camera search: reusing its searchId lets the camera continue
+     * the same search from {@code position}.
+     */
+    public RecordingSearchRequestXml toXmlRequest(RecordingSearchRequestDTO request, String searchId, int position) {
+        RecordingSearchRequestXml xmlRequest = new RecordingSearchRequestXml();
         xmlRequest.setSearchId(searchId);
         log.debug("Creating RecordingSearchRequestXml with searchId={}", searchId);
 
-        // Track ID
+        // Track ID (main track unless the request names one)
         RecordingSearchRequestXml.TrackIdList trackIdList = new RecordingSearchRequestXml.TrackIdList();
-        trackIdList.setTrackId(String.valueOf(config.getTrackMain()));
+        trackIdList.setTrackId(request.getTrackId() != null ? request.getTrackId() : String.valueOf(config.getTrackMain()));
         xmlRequest.setTrackIdList(trackIdList);
 
         // Time span (converted to camera UTC)
@@ -49,10 +62,9 @@ public class RecordingSearchMapper {
         timeSpanList.setTimeSpan(timeSpan);
         xmlRequest.setTimeSpanList(timeSpanList);
 
-        // Pagination (ensure page >= 1)
-        int page = Math.max(request.getPage(), 1);
+        // Pagination
         xmlRequest.setMaxResults(request.getPageSize());
-        xmlRequest.setSearchResultPosition((page - 1) * request.getPageSize());
+        xmlRequest.setSearchResultPosition(position);
 
         return xmlRequest;
     }
@@ -96,7 +108,11 @@ public class RecordingSearchMapper {
                 .build();
     }
 
-    private RecordingItemDTO toRecordingItemDTO(RecordingSearchResponseXml.SearchMatchItem matchItem) {
+    /**
+     * Maps a single camera match item to DTO.
+     * Public so streaming searches can convert items one by one while the response is still being read.
+     */
+    public RecordingItemDTO toRecordingItemDTO(RecordingSearchResponseXml.SearchMatchItem matchItem) {
         if (matchItem == null || matchItem.getTimeSpan() == null) {
             log.warn("Invalid SearchMatchItem: missing TimeSpan or null item.");
             return RecordingItemDTO.builder()
@@ -106,51 +122,66 @@ public class RecordingSearchMapper {
                     .fileSize("Unknown")
                     .build();
         }
+        return toRecordingItemDTO(toRecordingSegment(matchItem));
+    }
 
-        // Convert UTC timestamps to local time
-        LocalDateTime startTime = TimeUtils.cameraUtcToLocal(matchItem.getTimeSpan().getStartTime());
-        LocalDateTime endTime = TimeUtils.cameraUtcToLocal(matchItem.getTimeSpan().getEndTime());
+    /**
+     * Parses a camera match item once into the compact internal form: epoch seconds and exact byte size.
+     */
+    public RecordingSegment toRecordingSegment(RecordingSearchResponseXml.SearchMatchItem matchItem) {
+        String playbackUri = matchItem.getMediaSegmentDescriptor().getPlaybackUri();
+        return new RecordingSegment(
+                generateRecordingId(matchItem),
+                matchItem.getTrackId(),
+                TimeUtils.cameraUtcToEpochSecond(matchItem.getTimeSpan().getStartTime()),
+                TimeUtils.cameraUtcToEpochSecond(matchItem.getTimeSpan().getEndTime()),
+                matchItem.getMediaSegmentDescriptor().getCodecType(),
+                playbackUri,
+                RecordingSegment.parseSizeBytes(playbackUri));
+    }
+
+    /**
+     * Compact form of a recording received from the API or read from the catalog.
+     * The size comes from the playback URI; the formatted {@code fileSize} string is never parsed back.
+     */
+    public RecordingSegment toRecordingSegment(RecordingItemDTO item) {
+        long sizeBytes = item.getFileSizeBytes() != null
+                ? item.getFileSizeBytes()
+                : RecordingSegment.parseSizeBytes(item.getPlaybackUrl());
+        return new RecordingSegment(
+                item.getRecordingId(),
+                item.getTrackId(),
+                TimeUtils.localToEpochSecond(item.getStartTime()),
+                TimeUtils.localToEpochSecond(item.getEndTime()),
+                item.getCodec(),
+                item.getPlaybackUrl(),
+                sizeBytes);
+    }
 
+    /**
+     * API representation: local times and formatted duration and size next to the exact values.
+     */
+    public RecordingItemDTO toRecordingItemDTO(RecordingSegment segment) {
         return RecordingItemDTO.builder()
-                .recordingId(generateRecordingId(matchItem))
-                .trackId(matchItem.getTrackId())
-                .startTime(startTime)
-                .endTime(endTime)
-                .duration(calculateDuration(startTime, endTime))
-                .codec(matchItem.getMediaSegmentDescriptor().getCodecType())
-                .playbackUrl(matchItem.getMediaSegmentDescriptor().getPlaybackUri())
-                .fileSize(extractFileSize(matchItem.getMediaSegmentDescriptor().getPlaybackUri()))
+                .recordingId(segment.recordingId())
+                .trackId(segment.trackId())
+                .startTime(TimeUtils.epochSecondToLocal(segment.startEpoch()))
+                .endTime(TimeUtils.epochSecondToLocal(segment.endEpoch()))
+                .duration(formatDuration(segment.durationSeconds()))
+                .durationSeconds(segment.durationSeconds())
+                .codec(segment.codec())
+                .playbackUrl(segment.playbackUrl())
+                .fileSize(segment.hasSize() ? formatFileSize(segment.sizeBytes()) : "Unknown")
+                .fileSizeBytes(segment.hasSize() ? segment.sizeBytes() : null)
                 .build();
     }
 
     private String generateRecordingId(RecordingSearchResponseXml.SearchMatchItem matchItem) {
-        return String.format("%s_%s", matchItem.getTrackId(), matchItem.getTimeSpan().getStartTime());
+        return matchItem.getTrackId() + "_" + matchItem.getTimeSpan().getStartTime();
     }
 
-    private String calculateDuration(LocalDateTime start, LocalDateTime end) {
-        Duration duration = Duration.between(start, end);
-        long minutes = duration.toMinutes();
-        long seconds = duration.minusMinutes(minutes).getSeconds();
-        return String.format("%02d:%02d", minutes, seconds);
-    }
-
-    private String extractFileSize(String playbackUri) {
-        if (playbackUri == null) return "Unknown";
-
-        try {
-            String[] params = playbackUri.split("&");
-            for (String param : params) {
-                if (param.trim().startsWith("size=")) {
-                    String sizeStr = param.substring(5); // skip "size="
-                    long sizeBytes = Long.parseLong(sizeStr);
-                    return formatFileSize(sizeBytes);
-                }
-            }
-        } catch (Exception e) {
-            log.debug("Failed to extract file size from URL [{}]: {}", playbackUri, e.getMessage());
-        }
-
-        return "Unknown";
+    private String formatDuration(long seconds) {
+        return String.format("%02d:%02d", seconds / 60, seconds % 60);
     }
 
     private String formatFileSize(long bytes) {
@@ -163,4 +194,4 @@ public class RecordingSearchMapper {
         if (kb >= 1) return String.format("%.1f KB", kb);
         return bytes + " B";
     }
-}
\ No newline at end of file
+}
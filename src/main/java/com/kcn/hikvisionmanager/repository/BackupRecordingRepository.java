@@ -16,6 +16,8 @@ public interface BackupRecordingRepository extends JpaRepository<BackupRecording
 
     List<BackupRecordingEntity> findByBackupJobIdAndStatus(String backupJobId, BackupRecordingStatus status);
 
+    long countByBackupJobId(String backupJobId);
+
     long countByBackupJobIdAndStatus(String backupJobId, BackupRecordingStatus status);
 
     @Query("SELECT SUM(r.fileSizeBytes) FROM BackupRecordingEntity r WHERE r.backupJobId = :jobId AND r.status = 'COMPLETED'")
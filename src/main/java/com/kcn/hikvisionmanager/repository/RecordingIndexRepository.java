@@ -0,0 +1,59 @@
+package com.kcn.hikvisionmanager.repository;
+
+import com.kcn.hikvisionmanager.entity.RecordingIndexEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecordingIndexRepository extends JpaRepository<RecordingIndexEntity, Long> {
+
+    List<RecordingIndexEntity> findByRecordingIdIn(Collection<String> recordingIds);
+
+    Optional<RecordingIndexEntity> findFirstByTrackIdOrderByStartTimeAsc(String trackId);
+
+    /**
+     * Recordings of a track starting in [from, to) - all of them overlap the range, so a camera search
+     * of the range returns every one the camera still has.
+     */
+    @Query("SELECT r FROM RecordingIndexEntity r WHERE r.trackId = :trackId " +
+            "AND r.startTime >= :from AND r.startTime < :to")
+    List<RecordingIndexEntity> findStartingBetween(String trackId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Recordings of a track overlapping [from, to] - same matching rule as the camera search.
+     * Ordered by (start time, recordingId), the order search cursors continue in.
+     */
+    @Query("SELECT r FROM RecordingIndexEntity r WHERE r.trackId = :trackId " +
+            "AND r.startTime <= :to AND r.endTime >= :from ORDER BY r.startTime, r.recordingId")
+    Page<RecordingIndexEntity> findOverlapping(String trackId, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    /**
+     * Page of recordings overlapping [from, to] that come after the recording ({@code after},
+     * {@code afterRecordingId}) in (start time, recordingId) order - the page a search cursor points to.
+     */
+    @Query("SELECT r FROM RecordingIndexEntity r WHERE r.trackId = :trackId " +
+            "AND (r.startTime > :after OR (r.startTime = :after AND r.recordingId > :afterRecordingId)) " +
+            "AND r.startTime <= :to AND r.endTime >= :from ORDER BY r.startTime, r.recordingId")
+    List<RecordingIndexEntity> findOverlappingAfterRecording(String trackId, LocalDateTime after,
+                                                             String afterRecordingId, LocalDateTime from,
+                                                             LocalDateTime to, Pageable pageable);
+
+    /**
+     * Next batch of recordings overlapping [from, to] that come after the row ({@code after}, {@code afterId}),
+     * in (start time, id) order. Keyset paging for long scans: each batch is an index range read, however
+     * deep into the range, and rows sharing a start time across a batch boundary are not skipped.
+     */
+    @Query("SELECT r FROM RecordingIndexEntity r WHERE r.trackId = :trackId " +
+            "AND (r.startTime > :after OR (r.startTime = :after AND r.id > :afterId)) " +
+            "AND r.startTime <= :to AND r.endTime >= :from ORDER BY r.startTime, r.id")
+    List<RecordingIndexEntity> findOverlappingAfter(String trackId, LocalDateTime after, long afterId,
+                                                    LocalDateTime from, LocalDateTime to, Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.kcn.hikvisionmanager.repository;
+
+import com.kcn.hikvisionmanager.entity.RecordingSyncStateEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RecordingSyncStateRepository extends JpaRepository<RecordingSyncStateEntity, String> {
+}
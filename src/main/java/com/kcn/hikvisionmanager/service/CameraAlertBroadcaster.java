@@ -0,0 +1,72 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.kcn.hikvisionmanager.events.model.CameraAlertEvent;
+import com.kcn.hikvisionmanager.events.model.CameraAlertStreamStateEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Forwards camera alerts to browsers over Server-Sent Events,
+ * so the UI refreshes on change instead of polling the camera status.
+ * Every subscriber first receives a {@code stream} event with the current alert stream state and
+ * another one whenever it changes - until it reports {@code connected}, alerts may not be arriving.
+ */
+@Slf4j
+@Component
+public class CameraAlertBroadcaster {
+
+    private static final long EMITTER_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private volatile boolean streamConnected;
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        emitters.add(emitter);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+        send(emitter, streamStateEvent(streamConnected));
+        log.debug("📡 Alert subscriber connected ({} active)", emitters.size());
+        return emitter;
+    }
+
+    @EventListener
+    public void onCameraAlert(CameraAlertEvent event) {
+        broadcast(() -> SseEmitter.event().name("alert").data(event));
+    }
+
+    @EventListener
+    public void onAlertStreamStateChange(CameraAlertStreamStateEvent event) {
+        streamConnected = event.connected();
+        broadcast(() -> streamStateEvent(event.connected()));
+    }
+
+    private static SseEmitter.SseEventBuilder streamStateEvent(boolean connected) {
+        return SseEmitter.event().name("stream").data(Map.of("connected", connected));
+    }
+
+    private void broadcast(Supplier<SseEmitter.SseEventBuilder> event) {
+        // Builders are single use - build one per emitter
+        for (SseEmitter emitter : emitters) {
+            send(emitter, event.get());
+        }
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            emitters.remove(emitter);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.kcn.hikvisionmanager.client.HikvisionAlertStreamClient;
+import com.kcn.hikvisionmanager.client.HttpClientConfig;
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.dto.xml.response.EventNotificationAlertXml;
+import com.kcn.hikvisionmanager.events.model.CameraRestartInitiatedEvent;
+import com.kcn.hikvisionmanager.events.publishers.CameraAlertPublisher;
+import com.kcn.hikvisionmanager.exception.CameraUnauthorizedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Long-lived consumer of the camera alert stream.
+ * A reader thread keeps the stream open (reconnecting with exponential backoff) and hands parsed
+ * alerts to a bounded queue; a dispatcher thread publishes them as {@code CameraAlertEvent}s, so a
+ * slow listener never stalls the socket. When listeners fall behind, the oldest queued alerts are dropped.
+ * Heartbeats only mark the stream as alive and are not published; opening and losing the stream
+ * is published as {@code CameraAlertStreamStateEvent}.
+ * Enabled with {@code camera.alert-stream.enabled=true}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "camera.alert-stream", name = "enabled", havingValue = "true")
+public class CameraAlertStreamService {
+
+    private final HikvisionAlertStreamClient alertStreamClient;
+    private final CameraUrlBuilder urlBuilder;
+    private final CameraAlertPublisher alertPublisher;
+    private final MeterRegistry meterRegistry;
+    private final String cameraKey;
+
+    private final BlockingQueue<EventNotificationAlertXml> queue =
+            new ArrayBlockingQueue<>(HttpClientConfig.ALERT_STREAM_QUEUE_CAPACITY);
+    private final Counter reconnects;
+    private final Counter dropped;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile LocalDateTime restartGraceUntil;
+    private Thread readerThread;
+    private Thread dispatcherThread;
+
+    public CameraAlertStreamService(HikvisionAlertStreamClient alertStreamClient,
+                                    CameraUrlBuilder urlBuilder,
+                                    CameraAlertPublisher alertPublisher,
+                                    CameraConfig cameraConfig,
+                                    MeterRegistry meterRegistry) {
+        this.alertStreamClient = alertStreamClient;
+        this.urlBuilder = urlBuilder;
+        this.alertPublisher = alertPublisher;
+        this.meterRegistry = meterRegistry;
+        this.cameraKey = cameraConfig.getIp() + ":" + cameraConfig.getPort();
+
+        this.reconnects = Counter.builder("camera.alert.stream.reconnects")
+                .description("Alert stream connection attempts after the stream was lost")
+                .tag("camera", cameraKey)
+                .register(meterRegistry);
+        this.dropped = Counter.builder("camera.alerts.dropped")
+                .description("Alerts dropped because listeners could not keep up")
+                .tag("camera", cameraKey)
+                .register(meterRegistry);
+        Gauge.builder("camera.alert.stream.connected", this, service -> service.connected ? 1 : 0)
+                .description("1 while the camera alert stream is open")
+                .tag("camera", cameraKey)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        dispatcherThread = Thread.ofVirtual().name("alert-dispatcher").start(this::dispatchLoop);
+        readerThread = Thread.ofVirtual().name("alert-stream-reader").start(this::readLoop);
+        log.info("✅ Camera alert stream consumer started for {}", cameraKey);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        alertStreamClient.abort();
+        if (readerThread != null) {
+            readerThread.interrupt();
+        }
+        if (dispatcherThread != null) {
+            dispatcherThread.interrupt();
+        }
+        log.info("🔴 Camera alert stream consumer stopped");
+    }
+
+    /**
+     * Event listener for camera restart - stream drops while camera reboots,
+     * reconnect attempts are postponed until grace period ends.
+     */
+    @EventListener
+    public void onCameraRestart(CameraRestartInitiatedEvent event) {
+        restartGraceUntil = event.getOccurredAt().plusSeconds(event.getGracePeriodSeconds());
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void readLoop() {
+        Duration backoff = Duration.ofSeconds(HttpClientConfig.ALERT_STREAM_RECONNECT_MIN_SECONDS);
+        boolean firstAttempt = true;
+
+        while (running) {
+            try {
+                waitIfCameraRestarting();
+                if (!firstAttempt) {
+                    reconnects.increment();
+                }
+                firstAttempt = false;
+
+                alertStreamClient.consume(urlBuilder.buildAlertStreamUrl(), () -> {
+                    connected = true;
+                    log.info("🔔 Alert stream connected to {}", cameraKey);
+                    alertPublisher.publishStreamState(cameraKey, true);
+                }, this::enqueue);
+            } catch (CameraUnauthorizedException e) {
+                log.warn("🔐 Alert stream rejected by {}: {}", cameraKey, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                if (running) {
+                    log.debug("⚠️ Alert stream to {} lost: {}", cameraKey, e.getMessage());
+                }
+            }
+
+            if (connected) {
+                // Stream was up - start a fresh backoff sequence
+                connected = false;
+                backoff = Duration.ofSeconds(HttpClientConfig.ALERT_STREAM_RECONNECT_MIN_SECONDS);
+                log.info("🔌 Alert stream to {} disconnected, reconnecting", cameraKey);
+                alertPublisher.publishStreamState(cameraKey, false);
+            }
+            if (!running) {
+                return;
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = backoff.multipliedBy(2);
+            Duration max = Duration.ofSeconds(HttpClientConfig.ALERT_STREAM_RECONNECT_MAX_SECONDS);
+            if (backoff.compareTo(max) > 0) {
+                backoff = max;
+            }
+        }
+    }
+
+    private void enqueue(EventNotificationAlertXml alert) {
+        if (alert.isHeartbeat()) {
+            return;
+        }
+        meterRegistry.counter("camera.alerts", "camera", cameraKey, "type", String.valueOf(alert.getEventType()))
+                .increment();
+
+        while (!queue.offer(alert)) {
+            if (queue.poll() != null) {
+                dropped.increment();
+            }
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                EventNotificationAlertXml alert = queue.take();
+                log.debug("🔔 Camera alert: {} {} (channel {})",
+                        alert.getEventType(), alert.getEventState(), alert.getChannelId());
+                alertPublisher.publishAlert(cameraKey, alert);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("⚠️ Alert listener failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void waitIfCameraRestarting() throws InterruptedException {
+        LocalDateTime graceUntil = restartGraceUntil;
+        if (graceUntil == null) {
+            return;
+        }
+        Duration remaining = Duration.between(LocalDateTime.now(), graceUntil);
+        if (!remaining.isNegative()) {
+            log.debug("⏳ Alert stream reconnect waits {}s for camera restart", remaining.toSeconds());
+            Thread.sleep(remaining);
+        }
+        restartGraceUntil = null;
+    }
+}
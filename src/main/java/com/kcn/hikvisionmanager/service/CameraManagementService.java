@@ -1,5 +1,6 @@
 package com.kcn.hikvisionmanager.service;
 
+import com.kcn.hikvisionmanager.client.HikvisionIsapiAsyncClient;
 import com.kcn.hikvisionmanager.client.HikvisionIsapiClient;
 import com.kcn.hikvisionmanager.dto.xml.request.RebootRequestXml;
 import com.kcn.hikvisionmanager.dto.xml.response.RebootResponseXml;
@@ -11,6 +12,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 import static com.kcn.hikvisionmanager.client.HttpClientConfig.CAMERA_RESTART_GRACE_SECONDS;
 
 @Slf4j
@@ -20,6 +23,7 @@ public class CameraManagementService {
 
 
     private final HikvisionIsapiClient hikvisionIsapiClient;
+    private final HikvisionIsapiAsyncClient hikvisionIsapiAsyncClient;
     private final CameraUrlBuilder urlBuilder;
     private final CameraRestartPublisher cameraRestartPublisher;
 
@@ -69,4 +73,32 @@ public class CameraManagementService {
             throw e;
         }
     }
+
+    /**
+     * Asynchronous variant of {@link #restartCamera()}.
+     * Publishes the restart event immediately and sends the reboot command on a virtual thread.
+     */
+    public CompletableFuture<Boolean> restartCameraAsync() {
+        cameraRestartPublisher.publishRestartInitiated(CAMERA_RESTART_GRACE_SECONDS);
+
+        log.info("🔄 Camera restart initiated (async) - grace period: {} seconds", CAMERA_RESTART_GRACE_SECONDS);
+
+        return hikvisionIsapiAsyncClient.executePutAsync(
+                        urlBuilder.buildRestartUrl(),
+                        new RebootRequestXml(),
+                        RebootResponseXml.class)
+                .thenApply(response -> {
+                    if (response.isSuccess()) {
+                        log.info("✅ Camera restart initiated successfully");
+                        return true;
+                    }
+                    log.warn("❌ Camera restart failed: {}", response.getStatusString());
+                    return false;
+                })
+                .whenComplete((success, ex) -> {
+                    if (ex != null) {
+                        log.warn("⚠️ Camera restart request failed: {}", ex.getMessage());
+                    }
+                });
+    }
 }
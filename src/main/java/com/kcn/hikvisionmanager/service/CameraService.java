@@ -1,8 +1,9 @@
 package com.kcn.hikvisionmanager.service;
 
-import com.kcn.hikvisionmanager.client.HikvisionIsapiClient;
+import com.kcn.hikvisionmanager.client.HikvisionIsapiAsyncClient;
 import com.kcn.hikvisionmanager.dto.*;
 import com.kcn.hikvisionmanager.dto.xml.response.*;
+import com.kcn.hikvisionmanager.events.model.CameraAlertEvent;
 import com.kcn.hikvisionmanager.events.model.CameraRestartInitiatedEvent;
 import com.kcn.hikvisionmanager.exception.CameraOfflineException;
 import com.kcn.hikvisionmanager.exception.CameraParsingException;
@@ -11,12 +12,14 @@ import com.kcn.hikvisionmanager.exception.CameraUnauthorizedException;
 import com.kcn.hikvisionmanager.mapper.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 @Slf4j
@@ -29,47 +32,158 @@ public class CameraService {
     private final CameraNetworkMapper cameraNetworkMapper;
     private final CameraTimeMapper cameraTimeMapper;
     private final CameraChannelMapper cameraChannelMapper;
-    private final HikvisionIsapiClient hikvisionIsapiClient;
+    private final HikvisionIsapiAsyncClient hikvisionIsapiAsyncClient;
     private final CameraUrlBuilder urlBuilder;
 
+    // ========================================
+    // Snapshot refresh configuration (hardcoded by design)
+    // ========================================
+    // Refresh interval: after this age the next read triggers a background reload.
+    // Max staleness: how long the last good value is served while the camera is unreachable.
+
+    private static final Duration DEVICE_INFO_REFRESH = Duration.ofMinutes(5);
+    private static final Duration DEVICE_INFO_MAX_STALENESS = Duration.ofHours(24);
+    private static final Duration STATUS_REFRESH = Duration.ofSeconds(2);
+    private static final Duration STATUS_MAX_STALENESS = Duration.ofMinutes(10);
+    private static final Duration STORAGE_REFRESH = Duration.ofSeconds(30);
+    private static final Duration STORAGE_MAX_STALENESS = Duration.ofHours(1);
+    private static final Duration NETWORK_REFRESH = Duration.ofMinutes(5);
+    private static final Duration NETWORK_MAX_STALENESS = Duration.ofHours(24);
+    private static final Duration TIME_REFRESH = Duration.ofSeconds(2);
+    private static final Duration TIME_MAX_STALENESS = Duration.ofMinutes(10);
+    private static final Duration TRACKS_REFRESH = Duration.ofMinutes(5);
+    private static final Duration TRACKS_MAX_STALENESS = Duration.ofHours(24);
+    private static final Duration ALERT_REFRESH_MIN_INTERVAL = Duration.ofSeconds(2);
+
     private volatile LocalDateTime restartGraceUntil = null;
 
-    @Cacheable("cameraInfo")
+    private final CameraSnapshotCache<CameraInfoDTO> deviceInfoCache = new CameraSnapshotCache<>(
+            "deviceInfo", DEVICE_INFO_REFRESH, DEVICE_INFO_MAX_STALENESS, this::loadDeviceInfo);
+    private final CameraSnapshotCache<CameraHealthDTO> statusCache = new CameraSnapshotCache<>(
+            "status", STATUS_REFRESH, STATUS_MAX_STALENESS, this::loadSystemStatus);
+    private final CameraSnapshotCache<CameraStorageDTO> storageCache = new CameraSnapshotCache<>(
+            "storage", STORAGE_REFRESH, STORAGE_MAX_STALENESS, this::loadStorageInfo);
+    private final CameraSnapshotCache<CameraNetworkDTO> networkCache = new CameraSnapshotCache<>(
+            "network", NETWORK_REFRESH, NETWORK_MAX_STALENESS, this::loadNetworkInfo);
+    private final CameraSnapshotCache<CameraTimeDTO> timeCache = new CameraSnapshotCache<>(
+            "time", TIME_REFRESH, TIME_MAX_STALENESS, this::loadTimeInfo);
+    private final CameraSnapshotCache<List<CameraChannelInfoDTO>> trackListCache = new CameraSnapshotCache<>(
+            "trackList", TRACKS_REFRESH, TRACKS_MAX_STALENESS, this::loadTrackList);
+
     public CameraInfoDTO getDeviceInfo() {
-        DeviceInfoXml xml = fetchData(urlBuilder.buildDeviceInfoUrl(), DeviceInfoXml.class);
-        return cameraInfoMapper.toCameraInfoDTO(xml);
+        return await(getDeviceInfoSnapshot()).value();
     }
 
-    @Cacheable("cameraStatus")
     public CameraHealthDTO getSystemStatus() {
-        DeviceStatusXml xml = fetchData(urlBuilder.buildSystemStatusUrl(), DeviceStatusXml.class);
-        return cameraHealthMapper.toCameraHealthDTO(xml);
+        return await(getSystemStatusSnapshot()).value();
     }
 
     public CameraStorageDTO getStorageInfo() {
-        DeviceStorageInfoXml xml = fetchData(urlBuilder.buildStorageInfosUrl(), DeviceStorageInfoXml.class);
-        return cameraStorageMapper.toCameraStorageDTO(xml);
+        return await(getStorageInfoSnapshot()).value();
     }
 
     public CameraNetworkDTO getNetworkInfo() {
-        DeviceNetworkInfoXml xml = fetchData(urlBuilder.buildNetworkInfoUrl(), DeviceNetworkInfoXml.class);
-        return cameraNetworkMapper.toCameraNetworkDTO(xml);
+        return await(getNetworkInfoSnapshot()).value();
     }
 
     public CameraTimeDTO getTimeInfo() {
-        DeviceTimeXml xml = fetchData(urlBuilder.buildTimeInfoUrl(), DeviceTimeXml.class);
-        return cameraTimeMapper.toCameraTimeDTO(xml);
+        return await(getTimeInfoSnapshot()).value();
     }
 
     public List<CameraChannelInfoDTO> getTrackList() {
-        TrackListXml xml = fetchData(urlBuilder.buildTrackListUrl(), TrackListXml.class);
-        return cameraChannelMapper.toCameraChannelDTOs(xml);
+        return await(getTrackListSnapshot()).value();
+    }
+
+    // ===== ASYNC VARIANTS (no platform thread held while waiting for the camera) =====
+
+    public CompletableFuture<CameraInfoDTO> getDeviceInfoAsync() {
+        return getDeviceInfoSnapshot().thenApply(CameraSnapshot::value);
+    }
+
+    public CompletableFuture<CameraHealthDTO> getSystemStatusAsync() {
+        return getSystemStatusSnapshot().thenApply(CameraSnapshot::value);
     }
 
+    public CompletableFuture<CameraStorageDTO> getStorageInfoAsync() {
+        return getStorageInfoSnapshot().thenApply(CameraSnapshot::value);
+    }
+
+    public CompletableFuture<CameraNetworkDTO> getNetworkInfoAsync() {
+        return getNetworkInfoSnapshot().thenApply(CameraSnapshot::value);
+    }
+
+    public CompletableFuture<CameraTimeDTO> getTimeInfoAsync() {
+        return getTimeInfoSnapshot().thenApply(CameraSnapshot::value);
+    }
+
+    public CompletableFuture<List<CameraChannelInfoDTO>> getTrackListAsync() {
+        return getTrackListSnapshot().thenApply(CameraSnapshot::value);
+    }
+
+    // ===== SNAPSHOTS (stale-while-revalidate, value + freshness) =====
+
+    /**
+     * Returns last known device info immediately; refreshes it in the background when due.
+     * During camera restart or outage the previous value is returned with {@code stale=true}.
+     */
+    public CompletableFuture<CameraSnapshot<CameraInfoDTO>> getDeviceInfoSnapshot() {
+        return deviceInfoCache.get();
+    }
+
+    public CompletableFuture<CameraSnapshot<CameraHealthDTO>> getSystemStatusSnapshot() {
+        return statusCache.get();
+    }
+
+    public CompletableFuture<CameraSnapshot<CameraStorageDTO>> getStorageInfoSnapshot() {
+        return storageCache.get();
+    }
+
+    public CompletableFuture<CameraSnapshot<CameraNetworkDTO>> getNetworkInfoSnapshot() {
+        return networkCache.get();
+    }
+
+    public CompletableFuture<CameraSnapshot<CameraTimeDTO>> getTimeInfoSnapshot() {
+        return timeCache.get();
+    }
+
+    public CompletableFuture<CameraSnapshot<List<CameraChannelInfoDTO>>> getTrackListSnapshot() {
+        return trackListCache.get();
+    }
+
+    private CompletableFuture<CameraInfoDTO> loadDeviceInfo() {
+        return fetchDataAsync(urlBuilder.buildDeviceInfoUrl(), DeviceInfoXml.class)
+                .thenApply(cameraInfoMapper::toCameraInfoDTO);
+    }
+
+    private CompletableFuture<CameraHealthDTO> loadSystemStatus() {
+        return fetchDataAsync(urlBuilder.buildSystemStatusUrl(), DeviceStatusXml.class)
+                .thenApply(cameraHealthMapper::toCameraHealthDTO);
+    }
+
+    private CompletableFuture<CameraStorageDTO> loadStorageInfo() {
+        return fetchDataAsync(urlBuilder.buildStorageInfosUrl(), DeviceStorageInfoXml.class)
+                .thenApply(cameraStorageMapper::toCameraStorageDTO);
+    }
+
+    private CompletableFuture<CameraNetworkDTO> loadNetworkInfo() {
+        return fetchDataAsync(urlBuilder.buildNetworkInfoUrl(), DeviceNetworkInfoXml.class)
+                .thenApply(cameraNetworkMapper::toCameraNetworkDTO);
+    }
+
+    private CompletableFuture<CameraTimeDTO> loadTimeInfo() {
+        return fetchDataAsync(urlBuilder.buildTimeInfoUrl(), DeviceTimeXml.class)
+                .thenApply(cameraTimeMapper::toCameraTimeDTO);
+    }
+
+    private CompletableFuture<List<CameraChannelInfoDTO>> loadTrackList() {
+        return fetchDataAsync(urlBuilder.buildTrackListUrl(), TrackListXml.class)
+                .thenApply(cameraChannelMapper::toCameraChannelDTOs);
+    }
 
     /**
      * Event listener that handles camera restart initialization.
-     * Sets grace period during which cache refresh attempts will be skipped.
+     * Sets grace period during which cache refresh attempts will be skipped
+     * and cached snapshots are served as stale.
      *
      * @param event Camera restart event containing grace period duration
      */
@@ -81,35 +195,68 @@ public class CameraService {
     }
 
     /**
-     * Executes camera GET request and handles known exceptions consistently.
-     * Skips HTTP calls during camera restart grace period to prevent connection errors.
+     * Event listener for camera alerts - refreshes affected snapshots right away
+     * instead of waiting for the next read past refresh interval.
+     * Alerts arriving in bursts (e.g. motion) are coalesced to one refresh per {@code ALERT_REFRESH_MIN_INTERVAL}.
+     *
+     * @param event Alert pushed by camera alert stream
+     */
+    @EventListener
+    public void onCameraAlert(CameraAlertEvent event) {
+        statusCache.refreshIfOlderThan(ALERT_REFRESH_MIN_INTERVAL);
+        if (event.type().isStorageRelated()) {
+            storageCache.refreshIfOlderThan(ALERT_REFRESH_MIN_INTERVAL);
+        }
+    }
+
+    /**
+     * Waits for a snapshot on behalf of synchronous callers and rethrows camera exceptions unwrapped.
+     */
+    private <T> CameraSnapshot<T> await(CompletableFuture<CameraSnapshot<T>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CameraRequestException("Unexpected error while communicating with camera", e.getCause());
+        }
+    }
+
+    /**
+     * Executes camera GET request asynchronously and handles known exceptions consistently.
+     * Skips HTTP calls during camera restart grace period to prevent connection errors;
+     * snapshot caches then keep serving the last known value marked as stale.
      */
-    private <T> T fetchData(String url, Class<T> responseType) {
-        // Check if we're in grace period after restart
+    private <T> CompletableFuture<T> fetchDataAsync(String url, Class<T> responseType) {
         if (isInRestartGracePeriod()) {
-            log.debug("⏳ Skipping fetch from {} - camera restart grace period active until {}",
+            log.debug("⏳ Skipping async fetch from {} - camera restart grace period active until {}",
                     url, restartGraceUntil);
-            throw new CameraOfflineException("Camera is restarting, please wait");
+            return CompletableFuture.failedFuture(new CameraOfflineException("Camera is restarting, please wait"));
         }
 
-        try {
-            return hikvisionIsapiClient.executeGet(url, responseType);
-        } catch (CameraOfflineException e) {
-            log.warn("❌ Camera is offline while calling {}: {}", url, e.getMessage());
-            throw e;
-        } catch (CameraParsingException e) {
-            log.error("❌ Failed to parse camera response from {}: {}", url, e.getMessage());
-            throw e;
-        } catch (CameraRequestException e) {
-            log.error("❌ Camera request failed for {}: {}", url, e.getMessage());
-            throw e;
-        } catch (CameraUnauthorizedException e) {
-            log.warn("❌ Unauthorized access to camera while calling {}: {}", url, e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            log.error("❌ Unexpected error while fetching data from {}: {}", url, e.getMessage());
-            throw new CameraRequestException("Unexpected error while communicating with camera", e);
-        }
+        return hikvisionIsapiAsyncClient.executeGetAsync(url, responseType)
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof CameraOfflineException e) {
+                        log.warn("❌ Camera is offline while calling {}: {}", url, e.getMessage());
+                        throw e;
+                    }
+                    if (cause instanceof CameraParsingException e) {
+                        log.error("❌ Failed to parse camera response from {}: {}", url, e.getMessage());
+                        throw e;
+                    }
+                    if (cause instanceof CameraRequestException e) {
+                        log.error("❌ Camera request failed for {}: {}", url, e.getMessage());
+                        throw e;
+                    }
+                    if (cause instanceof CameraUnauthorizedException e) {
+                        log.warn("❌ Unauthorized access to camera while calling {}: {}", url, e.getMessage());
+                        throw e;
+                    }
+                    log.error("❌ Unexpected error while fetching data from {}: {}", url, cause.getMessage());
+                    throw new CameraRequestException("Unexpected error while communicating with camera", cause);
+                });
     }
 
     /**
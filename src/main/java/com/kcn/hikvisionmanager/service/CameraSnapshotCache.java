@@ -0,0 +1,97 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.kcn.hikvisionmanager.dto.CameraSnapshot;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Single-value refresh-ahead cache for one camera endpoint.
+ * After {@code refreshAfter} the next read returns the cached snapshot immediately and triggers
+ * a background reload. A failed reload keeps the previous value, flagged as stale, until it is
+ * older than {@code maxStaleness}; only then do callers see the camera error again.
+ */
+@Slf4j
+final class CameraSnapshotCache<T> {
+
+    private static final String KEY = "snapshot";
+
+    private final String name;
+    private final Supplier<CompletableFuture<T>> loader;
+    private final AsyncLoadingCache<String, CameraSnapshot<T>> cache;
+
+    CameraSnapshotCache(String name, Duration refreshAfter, Duration maxStaleness,
+                        Supplier<CompletableFuture<T>> loader) {
+        this.name = name;
+        this.loader = loader;
+        this.cache = Caffeine.newBuilder()
+                .refreshAfterWrite(refreshAfter)
+                .expireAfter(Expiry.writing((String key, CameraSnapshot<T> snapshot) -> remaining(snapshot, maxStaleness)))
+                .maximumSize(1)
+                .recordStats()
+                .buildAsync(new SnapshotLoader());
+    }
+
+    /**
+     * @return Future completed with last known snapshot; loads from camera only on first access
+     *         or after the cached value exceeded its maximum staleness
+     */
+    CompletableFuture<CameraSnapshot<T>> get() {
+        return cache.get(KEY);
+    }
+
+    /**
+     * Starts a background reload regardless of refresh interval (e.g. after a camera alert).
+     */
+    void refresh() {
+        cache.synchronous().refresh(KEY);
+    }
+
+    /**
+     * Starts a background reload unless the cached snapshot is a fresh value younger than {@code minAge}.
+     * Bursts of triggers therefore cost at most one camera request per {@code minAge};
+     * a reload already in progress is shared rather than started again.
+     */
+    void refreshIfOlderThan(Duration minAge) {
+        CompletableFuture<CameraSnapshot<T>> current = cache.getIfPresent(KEY);
+        if (current != null && current.isDone() && !current.isCompletedExceptionally()) {
+            CameraSnapshot<T> snapshot = current.join();
+            if (!snapshot.stale() && snapshot.age().compareTo(minAge) < 0) {
+                return;
+            }
+        }
+        refresh();
+    }
+
+    private static Duration remaining(CameraSnapshot<?> snapshot, Duration maxStaleness) {
+        Duration remaining = maxStaleness.minus(snapshot.age());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    private final class SnapshotLoader implements AsyncCacheLoader<String, CameraSnapshot<T>> {
+
+        @Override
+        public CompletableFuture<CameraSnapshot<T>> asyncLoad(String key, Executor executor) {
+            return loader.get().thenApply(CameraSnapshot::fresh);
+        }
+
+        @Override
+        public CompletableFuture<CameraSnapshot<T>> asyncReload(String key, CameraSnapshot<T> oldValue, Executor executor) {
+            return loader.get().handle((value, ex) -> {
+                if (ex == null) {
+                    return CameraSnapshot.fresh(value);
+                }
+                log.debug("⚠️ Refresh of {} failed, serving stale value fetched at {}: {}",
+                        name, oldValue.fetchedAt(), ex.getMessage());
+                return oldValue.asStale();
+            });
+        }
+    }
+}
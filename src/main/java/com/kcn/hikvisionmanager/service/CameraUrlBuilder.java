@@ -53,6 +53,12 @@ public class CameraUrlBuilder {
         return url;
     }
 
+    public String buildDailyDistributionUrl(String trackId) {
+        String url=buildBaseUrl()+"ISAPI/ContentMgmt/record/tracks/"+trackId+"/dailyDistribution";
+        log.debug("Camera URL: {}", url);
+        return url;
+    }
+
     public String buildStopRecordUrl(String channelId) {
         String url=buildBaseUrl()+"ISAPI/ContentMgmt/record/control/manual/stop/track/"+channelId;
         log.debug("Camera URL: {}", url);
@@ -77,6 +83,12 @@ public class CameraUrlBuilder {
         return url;
     }
 
+    public String buildAlertStreamUrl() {
+        String url = buildBaseUrl() + "ISAPI/Event/notification/alertStream";
+        log.debug("Camera alert stream URL: {}", url);
+        return url;
+    }
+
     public String buildStreamUrl(String channel) {
         return String.format("rtsp://%s:%s@%s:%d/Streaming/Channels/%s",
                 cameraConfig.getUsername(),
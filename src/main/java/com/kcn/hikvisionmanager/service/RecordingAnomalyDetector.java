@@ -0,0 +1,181 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.kcn.hikvisionmanager.domain.RecordingAnomalyType;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass anomaly detector over recording segments fed in start time order.
+ * <p>
+ * Gaps and overlaps are found by comparing each segment with the end of everything seen before it.
+ * Abnormally small segments are found by comparing the segment bitrate (bytes per second, from the
+ * {@code size=} parameter of the playback URI) with the median of the last {@value #BITRATE_WINDOW}
+ * segments. All state is a few longs and a primitive ring buffer, so months of segments can be fed
+ * through it and an incremental scan simply keeps feeding the same instance.
+ * <p>
+ * Times are epoch seconds. Not thread-safe.
+ */
+final class RecordingAnomalyDetector {
+
+    static final long GAP_TOLERANCE_SECONDS = 5;        // Segments are back to back, timestamps have 1 s precision
+    static final long OVERLAP_TOLERANCE_SECONDS = 1;
+    static final long MIN_SCORED_SECONDS = 30;          // Bitrate of shorter segments is too noisy to judge
+    static final double SMALL_SEGMENT_RATIO = 0.25;
+
+    private static final int BITRATE_WINDOW = 2048;
+    private static final int MIN_REFERENCE_SAMPLES = 16;
+    private static final int REFERENCE_REFRESH_SAMPLES = 256;
+
+    @FunctionalInterface
+    interface Listener {
+        /**
+         * @param sizeBytes     Segment size, SMALL_SEGMENT only (otherwise -1)
+         * @param expectedBytes Size expected from the median bitrate, SMALL_SEGMENT only (otherwise -1)
+         */
+        void onAnomaly(RecordingAnomalyType type, long start, long end, long sizeBytes, long expectedBytes);
+    }
+
+    private final Listener listener;
+
+    private boolean started;
+    private long lastStart = Long.MIN_VALUE;
+    private long coveredUntil;
+    private long segments;
+    private long recordedSeconds;
+    private long missingSeconds;
+
+    private final long[] bitrates = new long[BITRATE_WINDOW];
+    private int bitrateCount;
+    private int bitrateNext;
+    private int sinceRefresh;
+    private long referenceBitrate;
+
+    // Segments seen before enough samples existed for a reference bitrate
+    private final long[] pendingStarts = new long[MIN_REFERENCE_SAMPLES];
+    private final long[] pendingEnds = new long[MIN_REFERENCE_SAMPLES];
+    private final long[] pendingSizes = new long[MIN_REFERENCE_SAMPLES];
+    private int pending;
+
+    /**
+     * @param scanStart Start of the scanned range; a first segment starting later is reported as a gap
+     */
+    RecordingAnomalyDetector(long scanStart, Listener listener) {
+        this.coveredUntil = scanStart;
+        this.listener = listener;
+    }
+
+    /**
+     * Feeds the next segment. Segments not starting after the previous one are ignored, so overlapping
+     * incremental windows can be fed without de-duplication.
+     *
+     * @param sizeBytes Segment size, or a negative value when unknown
+     */
+    void accept(long start, long end, long sizeBytes) {
+        if (started && start <= lastStart) {
+            return;
+        }
+        if (start - coveredUntil > GAP_TOLERANCE_SECONDS) {
+            missingSeconds += start - coveredUntil;
+            listener.onAnomaly(RecordingAnomalyType.GAP, coveredUntil, start, -1, -1);
+        } else if (started && coveredUntil - start > OVERLAP_TOLERANCE_SECONDS) {
+            listener.onAnomaly(RecordingAnomalyType.OVERLAP, start, Math.min(end, coveredUntil), -1, -1);
+        }
+
+        recordedSeconds += Math.max(0, end - Math.max(start, coveredUntil));
+        coveredUntil = Math.max(coveredUntil, end);
+        lastStart = start;
+        started = true;
+        segments++;
+
+        scoreSize(start, end, sizeBytes);
+    }
+
+    /**
+     * Judges segments still waiting for a reference bitrate. Call at the end of a standalone scan.
+     */
+    void finish() {
+        if (referenceBitrate == 0 && bitrateCount > 0) {
+            refreshReference();
+        }
+    }
+
+    /**
+     * Reports the time after the last segment up to {@code end} as a gap, for the end of a range scan.
+     */
+    void finishRange(long end) {
+        if (end - coveredUntil > GAP_TOLERANCE_SECONDS) {
+            missingSeconds += end - coveredUntil;
+            listener.onAnomaly(RecordingAnomalyType.GAP, coveredUntil, end, -1, -1);
+            coveredUntil = end;
+        }
+        finish();
+    }
+
+    long lastStart() {
+        return lastStart;
+    }
+
+    long coveredUntil() {
+        return coveredUntil;
+    }
+
+    long segments() {
+        return segments;
+    }
+
+    long recordedSeconds() {
+        return recordedSeconds;
+    }
+
+    long missingSeconds() {
+        return missingSeconds;
+    }
+
+    private void scoreSize(long start, long end, long sizeBytes) {
+        long seconds = end - start;
+        if (sizeBytes <= 0 || seconds < MIN_SCORED_SECONDS) {
+            return;
+        }
+
+        bitrates[bitrateNext] = sizeBytes / seconds;
+        bitrateNext = (bitrateNext + 1) % BITRATE_WINDOW;
+        bitrateCount = Math.min(bitrateCount + 1, BITRATE_WINDOW);
+        sinceRefresh++;
+
+        if (referenceBitrate == 0) {
+            pendingStarts[pending] = start;
+            pendingEnds[pending] = end;
+            pendingSizes[pending++] = sizeBytes;
+            if (bitrateCount >= MIN_REFERENCE_SAMPLES) {
+                refreshReference();
+            }
+            return;
+        }
+        if (sinceRefresh >= REFERENCE_REFRESH_SAMPLES) {
+            refreshReference();
+        }
+        judge(start, end, sizeBytes);
+    }
+
+    /**
+     * Recomputes the median bitrate of the window and judges any pending segments against it.
+     */
+    private void refreshReference() {
+        long[] window = Arrays.copyOf(bitrates, bitrateCount);
+        Arrays.sort(window);
+        referenceBitrate = window[bitrateCount / 2];
+        sinceRefresh = 0;
+
+        for (int i = 0; i < pending; i++) {
+            judge(pendingStarts[i], pendingEnds[i], pendingSizes[i]);
+        }
+        pending = 0;
+    }
+
+    private void judge(long start, long end, long sizeBytes) {
+        long expected = referenceBitrate * (end - start);
+        if (sizeBytes < expected * SMALL_SEGMENT_RATIO) {
+            listener.onAnomaly(RecordingAnomalyType.SMALL_SEGMENT, start, end, sizeBytes, expected);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.config.RecordingCatalogConfig;
+import com.kcn.hikvisionmanager.domain.RecordingAnomalyType;
+import com.kcn.hikvisionmanager.domain.RecordingSegment;
+import com.kcn.hikvisionmanager.dto.RecordingAnomalyDTO;
+import com.kcn.hikvisionmanager.dto.RecordingAnomalyReportDTO;
+import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
+import com.kcn.hikvisionmanager.exception.CameraValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Detects missing footage (gaps), overlapping segments and abnormally small segments.
+ * <p>
+ * While the recording catalog is enabled, a background scan follows it: each run feeds the segments
+ * indexed since the previous run into the same {@link RecordingAnomalyDetector}, stopping
+ * {@link #NOW_EDGE} before now where the current segment is still being written. Findings are kept in
+ * memory (the latest {@value #MAX_KEPT_ANOMALIES}) and counted in metrics:
+ * <ul>
+ *   <li>{@code recording.anomalies} - counter tagged by type</li>
+ *   <li>{@code recording.anomalies.missing} - seconds of footage missing in detected gaps</li>
+ *   <li>{@code recording.anomalies.open.gap} - seconds since recording stopped, 0 while recording</li>
+ * </ul>
+ * Any range can also be scanned on demand; it is read in one streaming pass from the catalog or the camera.
+ */
+@Slf4j
+@Service
+public class RecordingAnomalyService {
+
+    private static final Duration NOW_EDGE = Duration.ofMinutes(15);    // Segments ending this close to now may still grow
+    private static final Duration MAX_SCAN_RANGE = Duration.ofDays(92);
+    private static final int MAX_KEPT_ANOMALIES = 1000;
+    private static final int MAX_REPORTED_ANOMALIES = 1000;
+
+    private static final ZoneId LOCAL_ZONE = ZoneId.systemDefault();
+
+    private final RecordingCatalogService catalogService;
+    private final RecordingCatalogConfig catalogConfig;
+    private final Clock clock;
+    private final String trackId;
+
+    private final Map<RecordingAnomalyType, Counter> anomalyCounters = new EnumMap<>(RecordingAnomalyType.class);
+    private final Counter missingSeconds;
+
+    // Background scan state, guarded by this
+    private RecordingAnomalyDetector detector;
+    private LocalDateTime scanStart;
+    private LocalDateTime scannedUntil;
+    private final long[] counts = new long[RecordingAnomalyType.values().length];
+    private final Deque<RecordingAnomalyDTO> recentAnomalies = new ArrayDeque<>();
+    private volatile long openGapSeconds;
+
+    public RecordingAnomalyService(RecordingCatalogService catalogService,
+                                   RecordingCatalogConfig catalogConfig,
+                                   CameraConfig cameraConfig,
+                                   Clock clock,
+                                   MeterRegistry meterRegistry) {
+        this.catalogService = catalogService;
+        this.catalogConfig = catalogConfig;
+        this.clock = clock;
+        this.trackId = String.valueOf(cameraConfig.getTrackMain());
+
+        for (RecordingAnomalyType type : RecordingAnomalyType.values()) {
+            anomalyCounters.put(type, Counter.builder("recording.anomalies")
+                    .tag("type", type.name().toLowerCase())
+                    .tag("track", trackId)
+                    .register(meterRegistry));
+        }
+        this.missingSeconds = Counter.builder("recording.anomalies.missing")
+                .baseUnit("seconds")
+                .tag("track", trackId)
+                .register(meterRegistry);
+        Gauge.builder("recording.anomalies.open.gap", this, service -> service.openGapSeconds)
+                .baseUnit("seconds")
+                .tag("track", trackId)
+                .register(meterRegistry);
+    }
+
+    // ========== BACKGROUND SCAN ==========
+
+    @Scheduled(initialDelayString = "PT30S", fixedDelayString = "${recording.catalog.sync-interval:PT1M}")
+    public void scanScheduled() {
+        if (!catalogConfig.isEnabled()) {
+            return;
+        }
+        try {
+            scanIncrement();
+        } catch (Exception e) {
+            log.warn("⚠️ Recording anomaly scan failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Feeds segments recorded since the previous run into the background detector.
+     */
+    public synchronized void scanIncrement() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime closedEdge = now.minus(NOW_EDGE);
+        if (detector == null) {
+            // Same start as the first catalog sync, so the whole scan is served by the index
+            scanStart = now.minusDays(catalogConfig.getInitialDays());
+            scannedUntil = scanStart;
+            detector = new RecordingAnomalyDetector(toEpoch(scanStart), this::recordAnomaly);
+        }
+        if (!closedEdge.isAfter(scannedUntil)) {
+            return;
+        }
+
+        long closedEdgeEpoch = toEpoch(closedEdge);
+        long before = detector.segments();
+        LocalDateTime from = detector.segments() == 0 ? scannedUntil : fromEpoch(detector.lastStart());
+        boolean stillRecording = false;
+        try (Stream<RecordingItemDTO> recordings = catalogService.streamRecordings(from, closedEdge)) {
+            Iterator<RecordingItemDTO> iterator = recordings.iterator();
+            while (iterator.hasNext()) {
+                RecordingItemDTO recording = iterator.next();
+                if (recording.getStartTime() == null || recording.getEndTime() == null) {
+                    continue;
+                }
+                long end = toEpoch(recording.getEndTime());
+                if (end > closedEdgeEpoch) {
+                    stillRecording = true;  // Still being written - picked up by a later run
+                    break;
+                }
+                detector.accept(toEpoch(recording.getStartTime()), end, sizeBytes(recording));
+            }
+        }
+        scannedUntil = closedEdge;
+
+        long openGap = closedEdgeEpoch - detector.coveredUntil();
+        openGapSeconds = !stillRecording && openGap > RecordingAnomalyDetector.GAP_TOLERANCE_SECONDS ? openGap : 0;
+        if (openGapSeconds > 0) {
+            log.debug("⚠️ No recordings since {}", fromEpoch(detector.coveredUntil()));
+        }
+        log.debug("🔍 Anomaly scan checked {} segments up to {}", detector.segments() - before, closedEdge);
+    }
+
+    /**
+     * Findings of the background scan, newest first.
+     */
+    public synchronized RecordingAnomalyReportDTO getRecentAnomalies() {
+        if (detector == null) {
+            return RecordingAnomalyReportDTO.builder().trackId(trackId).anomalies(List.of()).build();
+        }
+        List<RecordingAnomalyDTO> anomalies = new ArrayList<>(recentAnomalies);
+        return RecordingAnomalyReportDTO.builder()
+                .trackId(trackId)
+                .from(scanStart)
+                .to(scannedUntil)
+                .segments(detector.segments())
+                .recordedSeconds(detector.recordedSeconds())
+                .missingSeconds(detector.missingSeconds())
+                .gaps(counts[RecordingAnomalyType.GAP.ordinal()])
+                .overlaps(counts[RecordingAnomalyType.OVERLAP.ordinal()])
+                .smallSegments(counts[RecordingAnomalyType.SMALL_SEGMENT.ordinal()])
+                .openGapSince(openGapSeconds > 0 ? fromEpoch(detector.coveredUntil()) : null)
+                .anomalies(anomalies)
+                .build();
+    }
+
+    private void recordAnomaly(RecordingAnomalyType type, long start, long end, long sizeBytes, long expectedBytes) {
+        counts[type.ordinal()]++;
+        anomalyCounters.get(type).increment();
+        if (type == RecordingAnomalyType.GAP) {
+            missingSeconds.increment(end - start);
+            log.info("⚠️ Missing footage {} - {}", fromEpoch(start), fromEpoch(end));
+        }
+        if (recentAnomalies.size() >= MAX_KEPT_ANOMALIES) {
+            recentAnomalies.removeLast();
+        }
+        recentAnomalies.addFirst(toDto(type, start, end, sizeBytes, expectedBytes));
+    }
+
+    // ========== ON-DEMAND SCAN ==========
+
+    /**
+     * Scans [from, to] in one streaming pass. Gaps at either end of the range are reported too.
+     *
+     * @throws CameraValidationException If the range is inverted or longer than {@link #MAX_SCAN_RANGE}
+     */
+    public RecordingAnomalyReportDTO scan(LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from)) {
+            throw new CameraValidationException("End time must be after start time");
+        }
+        if (Duration.between(from, to).compareTo(MAX_SCAN_RANGE) > 0) {
+            throw new CameraValidationException("Scan range cannot exceed " + MAX_SCAN_RANGE.toDays() + " days");
+        }
+
+        long[] counts = new long[RecordingAnomalyType.values().length];
+        List<RecordingAnomalyDTO> anomalies = new ArrayList<>();
+        RecordingAnomalyDetector rangeDetector = new RecordingAnomalyDetector(toEpoch(from),
+                (type, start, end, sizeBytes, expectedBytes) -> {
+                    counts[type.ordinal()]++;
+                    if (anomalies.size() < MAX_REPORTED_ANOMALIES) {
+                        anomalies.add(toDto(type, start, end, sizeBytes, expectedBytes));
+                    }
+                });
+
+        long startNanos = System.nanoTime();
+        try (Stream<RecordingItemDTO> recordings = catalogService.streamRecordings(from, to)) {
+            recordings.forEach(recording -> {
+                if (recording.getStartTime() != null && recording.getEndTime() != null) {
+                    rangeDetector.accept(toEpoch(recording.getStartTime()), toEpoch(recording.getEndTime()),
+                            sizeBytes(recording));
+                }
+            });
+        }
+        rangeDetector.finishRange(toEpoch(to));
+
+        log.debug("✅ Anomaly scan {} - {}: {} segments, {} anomalies in {} ms", from, to,
+                rangeDetector.segments(), counts[0] + counts[1] + counts[2],
+                Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+
+        return RecordingAnomalyReportDTO.builder()
+                .trackId(trackId)
+                .from(from)
+                .to(to)
+                .segments(rangeDetector.segments())
+                .recordedSeconds(rangeDetector.recordedSeconds())
+                .missingSeconds(rangeDetector.missingSeconds())
+                .gaps(counts[RecordingAnomalyType.GAP.ordinal()])
+                .overlaps(counts[RecordingAnomalyType.OVERLAP.ordinal()])
+                .smallSegments(counts[RecordingAnomalyType.SMALL_SEGMENT.ordinal()])
+                .anomalies(anomalies)
+                .build();
+    }
+
+    // ========== HELPERS ==========
+
+    private static RecordingAnomalyDTO toDto(RecordingAnomalyType type, long start, long end,
+                                             long sizeBytes, long expectedBytes) {
+        return RecordingAnomalyDTO.builder()
+                .type(type)
+                .startTime(fromEpoch(start))
+                .endTime(fromEpoch(end))
+                .durationSeconds(end - start)
+                .sizeBytes(sizeBytes >= 0 ? sizeBytes : null)
+                .expectedSizeBytes(expectedBytes >= 0 ? expectedBytes : null)
+                .build();
+    }
+
+    /**
+     * Exact segment size, from the mapped search result or, for older catalog rows, the playback URI.
+     *
+     * @return Size in bytes, or -1 when unknown
+     */
+    private static long sizeBytes(RecordingItemDTO recording) {
+        return recording.getFileSizeBytes() != null
+                ? recording.getFileSizeBytes()
+                : RecordingSegment.parseSizeBytes(recording.getPlaybackUrl());
+    }
+
+    private static long toEpoch(LocalDateTime time) {
+        return time.atZone(LOCAL_ZONE).toEpochSecond();
+    }
+
+    private static LocalDateTime fromEpoch(long epochSeconds) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds), LOCAL_ZONE);
+    }
+}
@@ -0,0 +1,536 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.config.RecordingCatalogConfig;
+import com.kcn.hikvisionmanager.domain.RecordingSegment;
+import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchResultDTO;
+import com.kcn.hikvisionmanager.entity.RecordingIndexEntity;
+import com.kcn.hikvisionmanager.entity.RecordingSyncStateEntity;
+import com.kcn.hikvisionmanager.events.model.CameraRestartInitiatedEvent;
+import com.kcn.hikvisionmanager.exception.CameraValidationException;
+import com.kcn.hikvisionmanager.repository.RecordingIndexRepository;
+import com.kcn.hikvisionmanager.repository.RecordingSyncStateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Local recording catalog.
+ * <p>
+ * A background sync copies camera search results into the {@code recording_index} table. Each run only
+ * asks the camera for the range after the stored watermark (minus a small overlap for the segment that
+ * was still being recorded), in bounded chunks, committing the watermark after each chunk.
+ * <p>
+ * Each synced range is reconciled with the camera: indexed recordings starting in it that the camera no
+ * longer returns are deleted. Once per {@code prune-interval} the oldest indexed range is re-synced the
+ * same way, so recordings the camera has overwritten leave the index and it stays as long as the camera's
+ * own retention.
+ * <p>
+ * Searches inside the indexed range are answered from the database without a camera round trip, as long
+ * as the last sync succeeded and its watermark is current. Ranges older than the index, searches made while
+ * the sync is failing or behind, and searches made while the catalog is disabled go through
+ * {@link RecordingSearchPlanner#searchPage} (camera, with the search range cache); searches with
+ * {@code verify=true} always go to the camera. Camera results are written back into the index.
+ */
+@Slf4j
+@Service
+public class RecordingCatalogService {
+
+    private final RecordingService recordingService;
+    private final RecordingSearchPlanner searchPlanner;
+    private final ExecutorService isapiAsyncExecutor;
+    private final RecordingIndexRepository indexRepository;
+    private final RecordingSyncStateRepository syncStateRepository;
+    private final RecordingCatalogConfig catalogConfig;
+    private final Clock clock;
+    private final String trackId;
+
+    // Index reads for long scans: batch size, and how far back a segment overlapping the range may start
+    private static final int SCAN_BATCH_SIZE = 500;
+    private static final Duration MAX_SEGMENT_LENGTH = Duration.ofDays(1);
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private volatile LocalDateTime restartGraceUntil;
+    private LocalDateTime lastPruneAt;         // Guarded by syncLock
+
+    public RecordingCatalogService(RecordingService recordingService,
+                                   RecordingSearchPlanner searchPlanner,
+                                   @Qualifier("isapiAsyncExecutor") ExecutorService isapiAsyncExecutor,
+                                   RecordingIndexRepository indexRepository,
+                                   RecordingSyncStateRepository syncStateRepository,
+                                   RecordingCatalogConfig catalogConfig,
+                                   CameraConfig cameraConfig,
+                                   Clock clock) {
+        this.recordingService = recordingService;
+        this.searchPlanner = searchPlanner;
+        this.isapiAsyncExecutor = isapiAsyncExecutor;
+        this.indexRepository = indexRepository;
+        this.syncStateRepository = syncStateRepository;
+        this.catalogConfig = catalogConfig;
+        this.clock = clock;
+        this.trackId = String.valueOf(cameraConfig.getTrackMain());
+    }
+
+    // ========== SEARCH ==========
+
+    /**
+     * Searches recordings, from the index when the range is covered by it.
+     *
+     * @param verify When true, always searches the camera and refreshes the index with the result
+     */
+    public CompletableFuture<RecordingSearchResultDTO> search(RecordingSearchRequestDTO request, boolean verify) {
+        // Only the main track is indexed; other tracks are always searched on the camera
+        boolean catalogTrack = isCatalogTrack(request);
+        if (verify) {
+            CompletableFuture<RecordingSearchResultDTO> live = recordingService.searchRecordingsAsync(request);
+            return catalogTrack ? live.thenApply(this::indexResult) : live;
+        }
+        if (!catalogTrack) {
+            return CompletableFuture.supplyAsync(() -> searchPlanner.searchPage(request), isapiAsyncExecutor);
+        }
+        if (isCovered(request)) {
+            return CompletableFuture.completedFuture(searchIndex(request));
+        }
+        return CompletableFuture.supplyAsync(() -> indexResult(searchPlanner.searchPage(request)), isapiAsyncExecutor);
+    }
+
+    /**
+     * Searches recordings from the last N hours.
+     */
+    public RecordingSearchResultDTO searchRecent(int lastNHours, int pageSize, boolean verify) {
+        LocalDateTime endTime = LocalDateTime.now(clock);
+        return searchBlocking(RecordingSearchRequestDTO.builder()
+                .startTime(endTime.minusHours(lastNHours))
+                .endTime(endTime)
+                .page(1)
+                .pageSize(pageSize)
+                .build(), verify);
+    }
+
+    /**
+     * Searches recordings by a specific date (00:00-23:59).
+     */
+    public RecordingSearchResultDTO searchByDate(LocalDateTime date, int pageSize, boolean verify) {
+        LocalDateTime startTime = date.toLocalDate().atStartOfDay();
+        return searchBlocking(RecordingSearchRequestDTO.builder()
+                .startTime(startTime)
+                .endTime(startTime.plusDays(1).minusSeconds(1))
+                .page(1)
+                .pageSize(pageSize)
+                .build(), verify);
+    }
+
+    /**
+     * Fetches the page a cursor ({@code nextCursor} of a previous result) points to.
+     * Camera cursors continue the camera search; keyset cursors are answered from the index when the range
+     * is covered by it, otherwise through {@link RecordingSearchPlanner#searchPageAfter}.
+     *
+     * @param pageSize Page size, or null to keep the one of the original search
+     * @throws CameraValidationException If the cursor is invalid
+     */
+    public RecordingSearchResultDTO searchWithCursor(String token, Integer pageSize) {
+        RecordingSearchCursor cursor = RecordingSearchCursor.decode(token);
+        if (!cursor.isKeyset()) {
+            return recordingService.continueSearch(cursor, pageSize);
+        }
+
+        RecordingSearchRequestDTO request = cursor.toRequest(pageSize);
+        boolean catalogTrack = isCatalogTrack(request);
+        if (catalogTrack && isCovered(request)) {
+            List<RecordingIndexEntity> rows = indexRepository.findOverlappingAfterRecording(trackId,
+                    cursor.afterStartTime(), cursor.afterRecordingId(),
+                    request.getStartTime(), request.getEndTime(), PageRequest.of(0, request.getPageSize() + 1));
+            boolean hasMore = rows.size() > request.getPageSize();
+            return indexPage(request, hasMore ? rows.subList(0, request.getPageSize()) : rows, hasMore);
+        }
+        RecordingSearchResultDTO result = searchPlanner.searchPageAfter(request,
+                cursor.afterStartTime(), cursor.afterRecordingId());
+        return catalogTrack ? indexResult(result) : result;
+    }
+
+    /**
+     * Fetches the page following a previous result through its {@code nextCursor}.
+     *
+     * @throws CameraValidationException If the result has more recordings but no cursor
+     */
+    public RecordingSearchResultDTO searchNextPage(RecordingSearchResultDTO currentResult, Integer pageSize) {
+        if (!currentResult.isHasMore()) {
+            log.warn("⚠️ No more results available.");
+            return currentResult;
+        }
+        if (currentResult.getNextCursor() == null) {
+            throw new CameraValidationException("Search result has no nextCursor - pass the nextCursor of the previous result");
+        }
+        return searchWithCursor(currentResult.getNextCursor(), pageSize);
+    }
+
+    private RecordingSearchResultDTO searchBlocking(RecordingSearchRequestDTO request, boolean verify) {
+        if (verify) {
+            return indexResult(recordingService.searchRecordings(request));
+        }
+        if (isCovered(request)) {
+            return searchIndex(request);
+        }
+        return indexResult(searchPlanner.searchPage(request));
+    }
+
+    /**
+     * Streams every recording overlapping [from, to] in start time order - from the index when the range
+     * is covered by it, otherwise lazily from the camera. Meant for long scans: the index is read in
+     * keyset batches, so only one batch is held in memory.
+     */
+    public Stream<RecordingItemDTO> streamRecordings(LocalDateTime from, LocalDateTime to) {
+        if (!isCovered(from, to)) {
+            return recordingService.streamRecordings(from, to, catalogConfig.getSyncPageSize());
+        }
+        return Stream.iterate(indexBatch(from.minus(MAX_SEGMENT_LENGTH), Long.MIN_VALUE, from, to),
+                        batch -> !batch.isEmpty(),
+                        batch -> batch.size() < SCAN_BATCH_SIZE
+                                ? List.of()
+                                : indexBatch(batch.getLast().getStartTime(), batch.getLast().getId(), from, to))
+                .flatMap(batch -> batch.stream().map(this::toDto));
+    }
+
+    private List<RecordingIndexEntity> indexBatch(LocalDateTime after, long afterId,
+                                                  LocalDateTime from, LocalDateTime to) {
+        return indexRepository.findOverlappingAfter(trackId, after, afterId, from, to,
+                PageRequest.of(0, SCAN_BATCH_SIZE));
+    }
+
+    /**
+     * Whether the request searches the track the catalog indexes (the main track when none is given).
+     */
+    private boolean isCatalogTrack(RecordingSearchRequestDTO request) {
+        return request.getTrackId() == null || trackId.equals(request.getTrackId());
+    }
+
+    private boolean isCovered(RecordingSearchRequestDTO request) {
+        return isCovered(request.getStartTime(), request.getEndTime());
+    }
+
+    /**
+     * Range is covered when the catalog is enabled, the index has been synced from before its start and
+     * the last sync succeeded with a watermark at most one sync interval (plus overlap) behind the range end.
+     * A sync that fails or stalls therefore sends searches back to the camera instead of serving a
+     * truncated index.
+     */
+    private boolean isCovered(LocalDateTime startTime, LocalDateTime endTime) {
+        if (!catalogConfig.isEnabled()) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime needed = (endTime.isBefore(now) ? endTime : now)
+                .minus(catalogConfig.getSyncInterval())
+                .minus(catalogConfig.getOverlap());
+        return syncStateRepository.findById(trackId)
+                .map(state -> state.getLastError() == null
+                        && !startTime.isBefore(state.getCoveredFrom())
+                        && !state.getSyncedUntil().isBefore(needed))
+                .orElse(false);
+    }
+
+    private RecordingSearchResultDTO searchIndex(RecordingSearchRequestDTO request) {
+        int page = Math.max(request.getPage(), 1);
+        Page<RecordingIndexEntity> result = indexRepository.findOverlapping(trackId,
+                request.getStartTime(), request.getEndTime(), PageRequest.of(page - 1, request.getPageSize()));
+        return indexPage(request, result.getContent(), result.hasNext());
+    }
+
+    /**
+     * Result page from index rows; continued by a keyset cursor after the last row.
+     */
+    private RecordingSearchResultDTO indexPage(RecordingSearchRequestDTO request, List<RecordingIndexEntity> rows,
+                                               boolean hasMore) {
+        List<RecordingItemDTO> recordings = rows.stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+
+        log.debug("📚 Served {} recordings from catalog (page {}, hasMore={})",
+                recordings.size(), request.getPage(), hasMore);
+
+        return RecordingSearchResultDTO.builder()
+                .recordings(recordings)
+                .currentPage(request.getPage())
+                .pageSize(request.getPageSize())
+                .totalMatches(recordings.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore && !recordings.isEmpty()
+                        ? RecordingSearchCursor.after(request, recordings.getLast()).encode()
+                        : null)
+                .build();
+    }
+
+    private RecordingSearchResultDTO indexResult(RecordingSearchResultDTO result) {
+        if (catalogConfig.isEnabled() && result.getRecordings() != null) {
+            try {
+                upsert(result.getRecordings());
+            } catch (Exception e) {
+                log.warn("⚠️ Failed to update recording catalog from live search: {}", e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    // ========== SYNC ==========
+
+    /**
+     * Incremental sync: indexes everything between the stored watermark and now.
+     */
+    @Scheduled(initialDelayString = "PT15S", fixedDelayString = "${recording.catalog.sync-interval:PT1M}")
+    public void syncScheduled() {
+        if (!catalogConfig.isEnabled() || isCameraRestarting()) {
+            return;
+        }
+        sync();
+    }
+
+    /**
+     * Runs one sync pass. Concurrent calls are skipped rather than queued.
+     *
+     * @return Number of recordings written to the index
+     */
+    public int sync() {
+        if (!syncLock.tryLock()) {
+            log.debug("⏳ Recording catalog sync already running");
+            return 0;
+        }
+        try {
+            int indexed = syncFromWatermark();
+            pruneIfDue();
+            return indexed;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private int syncFromWatermark() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        RecordingSyncStateEntity state = syncStateRepository.findById(trackId).orElse(null);
+
+        LocalDateTime from = state == null
+                ? now.minusDays(catalogConfig.getInitialDays())
+                : state.getSyncedUntil().minus(catalogConfig.getOverlap());
+        int indexed = 0;
+
+        try {
+            while (from.isBefore(now)) {
+                LocalDateTime chunkEnd = from.plus(catalogConfig.getSyncChunk());
+                if (chunkEnd.isAfter(now)) {
+                    chunkEnd = now;
+                }
+
+                indexed += syncRange(from, chunkEnd);
+
+                if (state == null) {
+                    state = RecordingSyncStateEntity.builder().trackId(trackId).coveredFrom(from).build();
+                }
+                state.setSyncedUntil(chunkEnd);
+                state.setLastSyncAt(LocalDateTime.now(clock));
+                state.setLastError(null);
+                state = syncStateRepository.save(state);
+
+                from = chunkEnd;
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Recording catalog sync stopped at {}: {}", from, e.getMessage());
+            if (state != null) {
+                state.setLastError(e.getMessage());
+                syncStateRepository.save(state);
+            }
+            return indexed;
+        }
+
+        if (indexed > 0) {
+            log.info("📚 Recording catalog synced {} recordings up to {}", indexed, now);
+        }
+        return indexed;
+    }
+
+    /**
+     * Indexes the camera's recordings of [from, to] and deletes indexed ones starting in it that the
+     * camera no longer returns.
+     */
+    private int syncRange(LocalDateTime from, LocalDateTime to) {
+        int indexed = 0;
+        Set<String> returned = new HashSet<>();
+        List<RecordingItemDTO> batch = new ArrayList<>(catalogConfig.getSyncPageSize());
+        try (Stream<RecordingItemDTO> recordings =
+                     recordingService.streamRecordings(from, to, catalogConfig.getSyncPageSize())) {
+            Iterator<RecordingItemDTO> iterator = recordings.iterator();
+            while (iterator.hasNext()) {
+                RecordingItemDTO recording = iterator.next();
+                batch.add(recording);
+                returned.add(recording.getRecordingId());
+                if (batch.size() >= catalogConfig.getSyncPageSize()) {
+                    indexed += upsert(batch);
+                    batch.clear();
+                }
+            }
+        }
+        indexed += upsert(batch);
+
+        List<RecordingIndexEntity> missing = indexRepository.findStartingBetween(trackId, from, to).stream()
+                .filter(entity -> !returned.contains(entity.getRecordingId()))
+                .toList();
+        if (!missing.isEmpty()) {
+            indexRepository.deleteAllInBatch(missing);
+            log.info("🗑️ Removed {} recordings between {} and {} that are no longer on the camera",
+                    missing.size(), from, to);
+        }
+        return indexed;
+    }
+
+    // ========== PRUNE ==========
+
+    private void pruneIfDue() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        if (lastPruneAt != null && now.isBefore(lastPruneAt.plus(catalogConfig.getPruneInterval()))) {
+            return;
+        }
+        lastPruneAt = now;
+        try {
+            pruneOverwritten();
+        } catch (Exception e) {
+            log.warn("⚠️ Recording catalog prune failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Re-syncs the oldest indexed range, one sync chunk at a time, until the camera still has recordings
+     * in it. Ranges the camera has overwritten completely are emptied on the way.
+     */
+    private void pruneOverwritten() {
+        RecordingSyncStateEntity state = syncStateRepository.findById(trackId).orElse(null);
+        if (state == null || state.getSyncedUntil() == null) {
+            return;
+        }
+        // The newest range is reconciled by every incremental sync
+        LocalDateTime limit = state.getSyncedUntil().minus(catalogConfig.getOverlap());
+
+        RecordingIndexEntity oldest;
+        while ((oldest = indexRepository.findFirstByTrackIdOrderByStartTimeAsc(trackId).orElse(null)) != null
+                && oldest.getStartTime().isBefore(limit)) {
+            LocalDateTime from = oldest.getStartTime();
+            LocalDateTime to = from.plus(catalogConfig.getSyncChunk());
+            if (to.isAfter(limit)) {
+                to = limit;
+            }
+            syncRange(from, to);
+            if (!indexRepository.findStartingBetween(trackId, from, to).isEmpty()) {
+                return;     // Camera still has recordings here - everything newer is kept
+            }
+        }
+    }
+
+    /**
+     * Inserts new recordings and updates known ones (a segment being recorded grows between syncs).
+     */
+    private int upsert(Collection<RecordingItemDTO> items) {
+        try {
+            return saveItems(items);
+        } catch (DataIntegrityViolationException e) {
+            // A live search indexed the same recording concurrently - reload and retry once
+            log.debug("Recording catalog upsert conflict, retrying: {}", e.getMessage());
+            return saveItems(items);
+        }
+    }
+
+    private int saveItems(Collection<RecordingItemDTO> items) {
+        List<RecordingItemDTO> valid = items.stream()
+                .filter(item -> item.getStartTime() != null && item.getEndTime() != null && item.getPlaybackUrl() != null)
+                .toList();
+        if (valid.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, RecordingIndexEntity> existing = indexRepository
+                .findByRecordingIdIn(valid.stream().map(RecordingItemDTO::getRecordingId).toList())
+                .stream()
+                .collect(Collectors.toMap(RecordingIndexEntity::getRecordingId, Function.identity()));
+
+        LocalDateTime indexedAt = LocalDateTime.now(clock);
+        List<RecordingIndexEntity> toSave = new ArrayList<>(valid.size());
+        for (RecordingItemDTO item : valid) {
+            RecordingIndexEntity entity = existing.computeIfAbsent(item.getRecordingId(),
+                    id -> RecordingIndexEntity.builder().recordingId(id).build());
+            entity.setTrackId(item.getTrackId());
+            entity.setStartTime(item.getStartTime());
+            entity.setEndTime(item.getEndTime());
+            entity.setDuration(item.getDuration());
+            entity.setCodec(item.getCodec());
+            entity.setPlaybackUrl(item.getPlaybackUrl());
+            entity.setFileSize(item.getFileSize());
+            entity.setFileSizeBytes(item.getFileSizeBytes());
+            entity.setIndexedAt(indexedAt);
+            toSave.add(entity);
+        }
+
+        indexRepository.saveAll(toSave);
+        return toSave.size();
+    }
+
+    private RecordingItemDTO toDto(RecordingIndexEntity entity) {
+        return RecordingItemDTO.builder()
+                .recordingId(entity.getRecordingId())
+                .trackId(entity.getTrackId())
+                .startTime(entity.getStartTime())
+                .endTime(entity.getEndTime())
+                .duration(entity.getDuration())
+                .durationSeconds(Duration.between(entity.getStartTime(), entity.getEndTime()).toSeconds())
+                .codec(entity.getCodec())
+                .playbackUrl(entity.getPlaybackUrl())
+                .fileSize(entity.getFileSize())
+                .fileSizeBytes(fileSizeBytes(entity))
+                .build();
+    }
+
+    /**
+     * Rows indexed before the exact size was stored get it from the playback URI.
+     */
+    private static Long fileSizeBytes(RecordingIndexEntity entity) {
+        if (entity.getFileSizeBytes() != null) {
+            return entity.getFileSizeBytes();
+        }
+        long parsed = RecordingSegment.parseSizeBytes(entity.getPlaybackUrl());
+        return parsed >= 0 ? parsed : null;
+    }
+
+    // ========== CAMERA RESTART ==========
+
+    /**
+     * Event listener for camera restart - sync is paused until grace period ends.
+     */
+    @EventListener
+    public void onCameraRestart(CameraRestartInitiatedEvent event) {
+        restartGraceUntil = event.getOccurredAt().plusSeconds(event.getGracePeriodSeconds());
+    }
+
+    private boolean isCameraRestarting() {
+        LocalDateTime graceUntil = restartGraceUntil;
+        return graceUntil != null && LocalDateTime.now(clock).isBefore(graceUntil);
+    }
+}
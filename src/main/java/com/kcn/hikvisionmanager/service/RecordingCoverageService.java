@@ -0,0 +1,225 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kcn.hikvisionmanager.client.HttpClientConfig;
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.domain.CoverageResolution;
+import com.kcn.hikvisionmanager.dto.DayCoverageDTO;
+import com.kcn.hikvisionmanager.dto.RecordingCoverageDTO;
+import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
+import com.kcn.hikvisionmanager.exception.CameraValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recording coverage timeline: where footage exists, per day, at minute, hour or day resolution.
+ * <p>
+ * Each day is kept as a bitmap of its 1440 minutes, set where any recording overlaps the minute,
+ * computed from a range search. Days missing from the cache are searched together, one range search per
+ * run of consecutive days, so a month calendar costs at most a single sharded search. Closed days (ended
+ * more than {@link #NOW_EDGE} ago) never change on the camera and are cached without expiry; the current
+ * day is recomputed after {@link #OPEN_DAY_TTL}.
+ * <p>
+ * The response encodes covered buckets as runs ([first bucket, count]) instead of one value per bucket.
+ */
+@Slf4j
+@Service
+public class RecordingCoverageService {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final Duration NOW_EDGE = Duration.ofMinutes(15);     // Segments ending this close to now may still grow
+    private static final Duration OPEN_DAY_TTL = Duration.ofSeconds(30);
+    private static final int MAX_CACHED_DAYS = 1000;
+
+    private final RecordingSearchPlanner searchPlanner;
+    private final CameraConfig cameraConfig;
+    private final Clock clock;
+
+    private final Cache<DayKey, BitSet> closedDays = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_DAYS)
+            .build();
+    private final Cache<DayKey, BitSet> openDays = Caffeine.newBuilder()
+            .expireAfterWrite(OPEN_DAY_TTL)
+            .maximumSize(MAX_CACHED_DAYS)
+            .build();
+
+    private record DayKey(String trackId, LocalDate date) {
+    }
+
+    public RecordingCoverageService(RecordingSearchPlanner searchPlanner, CameraConfig cameraConfig, Clock clock) {
+        this.searchPlanner = searchPlanner;
+        this.cameraConfig = cameraConfig;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns coverage of the main track for every day from {@code from} to {@code to}, both inclusive.
+     *
+     * @throws CameraValidationException If the range is inverted or longer than
+     *                                   {@link HttpClientConfig#SEARCH_RANGE_MAX_DAYS} days
+     */
+    public RecordingCoverageDTO getCoverage(LocalDate from, LocalDate to, CoverageResolution resolution) {
+        if (to.isBefore(from)) {
+            throw new CameraValidationException("Coverage end date must not be before start date");
+        }
+        long dayCount = ChronoUnit.DAYS.between(from, to) + 1;
+        if (dayCount > HttpClientConfig.SEARCH_RANGE_MAX_DAYS) {
+            throw new CameraValidationException(
+                    "Coverage range cannot exceed " + HttpClientConfig.SEARCH_RANGE_MAX_DAYS + " days");
+        }
+
+        String trackId = String.valueOf(cameraConfig.getTrackMain());
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<LocalDate, BitSet> minutesByDay = new HashMap<>();
+
+        // Search consecutive uncached days as one range
+        LocalDate runStart = null;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            BitSet cached = cached(new DayKey(trackId, date), now);
+            if (cached != null) {
+                minutesByDay.put(date, cached);
+            }
+            if (cached == null && runStart == null) {
+                runStart = date;
+            } else if (cached != null && runStart != null) {
+                minutesByDay.putAll(load(trackId, runStart, date, now));
+                runStart = null;
+            }
+        }
+        if (runStart != null) {
+            minutesByDay.putAll(load(trackId, runStart, to.plusDays(1), now));
+        }
+
+        List<DayCoverageDTO> days = new ArrayList<>((int) dayCount);
+        int coveredMinutes = 0;
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            BitSet minutes = minutesByDay.get(date);
+            coveredMinutes += minutes.cardinality();
+            days.add(DayCoverageDTO.builder()
+                    .date(date)
+                    .coveredMinutes(minutes.cardinality())
+                    .runs(encodeRuns(minutes, resolution.getBucketMinutes()))
+                    .build());
+        }
+
+        return RecordingCoverageDTO.builder()
+                .trackId(trackId)
+                .from(from)
+                .to(to)
+                .resolution(resolution)
+                .bucketMinutes(resolution.getBucketMinutes())
+                .bucketsPerDay(MINUTES_PER_DAY / resolution.getBucketMinutes())
+                .coveredMinutes(coveredMinutes)
+                .days(days)
+                .build();
+    }
+
+    private BitSet cached(DayKey key, LocalDateTime now) {
+        if (key.date().isAfter(now.toLocalDate())) {
+            return new BitSet(MINUTES_PER_DAY);
+        }
+        BitSet closed = closedDays.getIfPresent(key);
+        return closed != null ? closed : openDays.getIfPresent(key);
+    }
+
+    /**
+     * Searches days [firstDay, endDay) on the camera and caches their minute bitmaps.
+     */
+    private Map<LocalDate, BitSet> load(String trackId, LocalDate firstDay, LocalDate endDay, LocalDateTime now) {
+        LocalDateTime rangeStart = firstDay.atStartOfDay();
+        LocalDateTime rangeEnd = endDay.atStartOfDay().isBefore(now) ? endDay.atStartOfDay() : now;
+
+        Map<LocalDate, BitSet> minutesByDay = new HashMap<>();
+        for (LocalDate date = firstDay; date.isBefore(endDay); date = date.plusDays(1)) {
+            minutesByDay.put(date, new BitSet(MINUTES_PER_DAY));
+        }
+
+        List<RecordingItemDTO> recordings = searchPlanner.searchRange(RecordingSearchRequestDTO.builder()
+                .startTime(rangeStart)
+                .endTime(rangeEnd)
+                .build()).getRecordings();
+        for (RecordingItemDTO recording : recordings) {
+            if (recording.getStartTime() != null && recording.getEndTime() != null) {
+                mark(minutesByDay, max(recording.getStartTime(), rangeStart), min(recording.getEndTime(), rangeEnd));
+            }
+        }
+
+        LocalDateTime closedBefore = now.minus(NOW_EDGE);
+        minutesByDay.forEach((date, minutes) -> {
+            DayKey key = new DayKey(trackId, date);
+            if (!date.plusDays(1).atStartOfDay().isAfter(closedBefore)) {
+                closedDays.put(key, minutes);
+            } else {
+                openDays.put(key, minutes);
+            }
+        });
+
+        log.debug("🔍 Coverage of {} - {} computed from {} recordings", firstDay, endDay.minusDays(1), recordings.size());
+        return minutesByDay;
+    }
+
+    /**
+     * Sets every minute overlapped by [start, end), split across the days it spans.
+     */
+    private static void mark(Map<LocalDate, BitSet> minutesByDay, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime cursor = start;
+        while (cursor.isBefore(end)) {
+            LocalDateTime midnight = cursor.toLocalDate().atStartOfDay();
+            LocalDateTime dayEnd = midnight.plusDays(1);
+            LocalDateTime partEnd = end.isBefore(dayEnd) ? end : dayEnd;
+
+            BitSet minutes = minutesByDay.get(cursor.toLocalDate());
+            if (minutes != null) {
+                int fromMinute = (int) Duration.between(midnight, cursor).toMinutes();
+                long endSeconds = Duration.between(midnight, partEnd).toSeconds();
+                int toMinute = (int) Math.min(MINUTES_PER_DAY, (endSeconds + 59) / 60);
+                minutes.set(fromMinute, toMinute);
+            }
+            cursor = partEnd;
+        }
+    }
+
+    /**
+     * Run-length encodes buckets holding at least one covered minute.
+     */
+    private static List<int[]> encodeRuns(BitSet minutes, int bucketMinutes) {
+        List<int[]> runs = new ArrayList<>();
+        int runStart = -1;
+        int buckets = MINUTES_PER_DAY / bucketMinutes;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int next = minutes.nextSetBit(bucket * bucketMinutes);
+            boolean covered = next >= 0 && next < (bucket + 1) * bucketMinutes;
+            if (covered && runStart < 0) {
+                runStart = bucket;
+            } else if (!covered && runStart >= 0) {
+                runs.add(new int[]{runStart, bucket - runStart});
+                runStart = -1;
+            }
+        }
+        if (runStart >= 0) {
+            runs.add(new int[]{runStart, buckets - runStart});
+        }
+        return runs;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,275 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.kcn.hikvisionmanager.domain.RecordingSegment;
+import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
+import com.kcn.hikvisionmanager.events.model.CameraRestartInitiatedEvent;
+import com.kcn.hikvisionmanager.mapper.RecordingSearchMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Search result cache keyed by time coverage rather than by query.
+ * <p>
+ * For each track it keeps the time intervals already searched on the camera, as sorted arrays of epoch
+ * seconds, plus the recordings found in them as compact {@link RecordingSegment}s (DTOs are only built for
+ * the recordings a lookup returns). A query is answered from the covered part and only the
+ * uncovered gaps have to be searched, so overlapping windows ("last 24h", then "today", then "last 6h")
+ * reuse each other's results.
+ * <p>
+ * The part of an interval close to now, where the current segment is still being recorded, expires after
+ * {@value #NOW_EDGE_TTL_SECONDS}s; closed historic intervals after {@value #CLOSED_TTL_SECONDS}s (the camera
+ * only changes them when it overwrites its oldest footage). Everything is dropped when the camera restarts.
+ * Callers pass only track IDs validated against the camera track list, so the per-track map stays bounded.
+ */
+@Slf4j
+@Component
+public class RecordingSearchCache {
+
+    private static final long NOW_EDGE_SECONDS = 15 * 60;          // Segments ending this close to now may still grow
+    private static final long NOW_EDGE_TTL_SECONDS = 30;
+    private static final long CLOSED_TTL_SECONDS = 6 * 60 * 60;
+    private static final int MAX_RECORDINGS_PER_TRACK = 100_000;
+
+    private static final ZoneId LOCAL_ZONE = ZoneId.systemDefault();
+
+    private final Clock clock;
+    private final RecordingSearchMapper mapper;
+    private final Map<String, TrackCoverage> tracks = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter partialHits;
+    private final Counter misses;
+
+    public RecordingSearchCache(Clock clock, RecordingSearchMapper mapper, MeterRegistry meterRegistry) {
+        this.clock = clock;
+        this.mapper = mapper;
+        this.hits = meterRegistry.counter("recording.search.cache", "result", "hit");
+        this.partialHits = meterRegistry.counter("recording.search.cache", "result", "partial");
+        this.misses = meterRegistry.counter("recording.search.cache", "result", "miss");
+    }
+
+    /**
+     * Time range in local time, same as {@link RecordingItemDTO} timestamps.
+     */
+    public record TimeRange(LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * Result of a cache lookup.
+     *
+     * @param gaps     Parts of the range that must be searched on the camera
+     * @param recordings Cached recordings from the covered part, ordered by start time
+     */
+    public record Lookup(List<TimeRange> gaps, List<RecordingItemDTO> recordings) {
+    }
+
+    public Lookup lookup(String trackId, LocalDateTime start, LocalDateTime end) {
+        long from = toEpoch(start);
+        long to = toEpoch(end);
+        List<TimeRange> gaps = new ArrayList<>();
+        List<RecordingSegment> segments = tracks.computeIfAbsent(trackId, id -> new TrackCoverage())
+                .lookup(from, to, clock.instant().getEpochSecond(), gaps);
+        List<RecordingItemDTO> recordings = new ArrayList<>(segments.size());
+        for (RecordingSegment segment : segments) {
+            recordings.add(mapper.toRecordingItemDTO(segment));
+        }
+        Lookup lookup = new Lookup(gaps, recordings);
+
+        if (lookup.gaps().isEmpty()) {
+            hits.increment();
+        } else if (lookup.gaps().size() == 1 && lookup.gaps().getFirst().equals(new TimeRange(start, end))) {
+            misses.increment();
+        } else {
+            partialHits.increment();
+        }
+        return lookup;
+    }
+
+    /**
+     * Stores the complete camera search result for [start, end] and marks the range as covered.
+     */
+    public void put(String trackId, LocalDateTime start, LocalDateTime end, Collection<RecordingItemDTO> recordings) {
+        List<RecordingSegment> segments = new ArrayList<>(recordings.size());
+        for (RecordingItemDTO recording : recordings) {
+            if (recording.getStartTime() != null && recording.getEndTime() != null) {
+                segments.add(mapper.toRecordingSegment(recording));
+            }
+        }
+        tracks.computeIfAbsent(trackId, id -> new TrackCoverage())
+                .put(toEpoch(start), toEpoch(end), segments, clock.instant().getEpochSecond());
+    }
+
+    /**
+     * Event listener for camera restart - the segment being recorded is closed and the timeline
+     * may change while camera reboots, so all cached coverage is dropped.
+     */
+    @EventListener
+    public void onCameraRestart(CameraRestartInitiatedEvent event) {
+        tracks.clear();
+        log.debug("🧹 Recording search cache cleared due to camera restart");
+    }
+
+    private static long toEpoch(LocalDateTime time) {
+        return time.atZone(LOCAL_ZONE).toEpochSecond();
+    }
+
+    private static LocalDateTime fromEpoch(long epochSeconds) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds), LOCAL_ZONE);
+    }
+
+    /**
+     * Covered intervals and recordings of one track.
+     * Intervals are disjoint and sorted by start; the three arrays are parallel.
+     */
+    private static final class TrackCoverage {
+
+        private long[] starts = new long[8];
+        private long[] ends = new long[8];
+        private long[] expires = new long[8];
+        private int size;
+
+        private final NavigableMap<Long, RecordingSegment> recordingsByStart = new TreeMap<>();
+        private long maxDurationSeconds;
+
+        /**
+         * Adds the uncovered parts of [from, to) to {@code gaps} and returns the cached recordings.
+         */
+        synchronized List<RecordingSegment> lookup(long from, long to, long now, List<TimeRange> gaps) {
+            long cursor = from;
+            for (int i = 0; i < size && cursor < to; i++) {
+                if (ends[i] <= cursor || expires[i] <= now) {
+                    continue;
+                }
+                if (starts[i] >= to) {
+                    break;
+                }
+                if (starts[i] > cursor) {
+                    gaps.add(new TimeRange(fromEpoch(cursor), fromEpoch(starts[i])));
+                }
+                cursor = Math.max(cursor, ends[i]);
+            }
+            if (cursor < to) {
+                gaps.add(new TimeRange(fromEpoch(cursor), fromEpoch(to)));
+            }
+
+            // Recordings overlapping the range the way the camera matches them (end > from, start < to),
+            // minus those starting inside a gap - they are searched again
+            List<RecordingSegment> recordings = new ArrayList<>();
+            for (RecordingSegment recording
+                    : recordingsByStart.subMap(from - maxDurationSeconds, true, to, false).values()) {
+                if (recording.endEpoch() > from && !startsInGap(recording.startEpoch(), gaps)) {
+                    recordings.add(recording);
+                }
+            }
+            return recordings;
+        }
+
+        synchronized void put(long from, long to, List<RecordingSegment> recordings, long now) {
+            if (to <= from) {
+                return;
+            }
+            if (recordingsByStart.size() + recordings.size() > MAX_RECORDINGS_PER_TRACK) {
+                log.debug("Recording search cache full, dropping {} cached recordings", recordingsByStart.size());
+                recordingsByStart.clear();
+                maxDurationSeconds = 0;
+                size = 0;
+            }
+
+            long closedEnd = Math.min(to, now - NOW_EDGE_SECONDS);
+            if (from < closedEnd) {
+                cover(from, closedEnd, now + CLOSED_TTL_SECONDS, now);
+            }
+            long edgeStart = Math.max(from, closedEnd);
+            if (edgeStart < to) {
+                cover(edgeStart, to, now + NOW_EDGE_TTL_SECONDS, now);
+            }
+
+            // Fresh result replaces whatever was cached for recordings starting in the range
+            recordingsByStart.subMap(from, true, to, false).clear();
+            for (RecordingSegment recording : recordings) {
+                recordingsByStart.put(recording.startEpoch(), recording);
+                maxDurationSeconds = Math.max(maxDurationSeconds, recording.durationSeconds());
+            }
+        }
+
+        /**
+         * Marks [from, to) as covered until {@code expiresAt}, replacing overlapping parts of older
+         * intervals and dropping expired ones.
+         */
+        private void cover(long from, long to, long expiresAt, long now) {
+            long[] newStarts = new long[size + 3];
+            long[] newEnds = new long[size + 3];
+            long[] newExpires = new long[size + 3];
+            int n = 0;
+            boolean inserted = false;
+
+            for (int i = 0; i < size; i++) {
+                if (expires[i] <= now) {
+                    continue;
+                }
+                if (!inserted && starts[i] >= from) {
+                    newStarts[n] = from;
+                    newEnds[n] = to;
+                    newExpires[n++] = expiresAt;
+                    inserted = true;
+                }
+                // Keep the parts of the old interval outside [from, to)
+                if (starts[i] < from) {
+                    newStarts[n] = starts[i];
+                    newEnds[n] = Math.min(ends[i], from);
+                    newExpires[n++] = expires[i];
+                    if (!inserted && ends[i] > from) {
+                        newStarts[n] = from;
+                        newEnds[n] = to;
+                        newExpires[n++] = expiresAt;
+                        inserted = true;
+                    }
+                }
+                if (ends[i] > to) {
+                    newStarts[n] = Math.max(starts[i], to);
+                    newEnds[n] = ends[i];
+                    newExpires[n++] = expires[i];
+                }
+                if (n + 3 > newStarts.length) {
+                    newStarts = Arrays.copyOf(newStarts, newStarts.length * 2);
+                    newEnds = Arrays.copyOf(newEnds, newEnds.length * 2);
+                    newExpires = Arrays.copyOf(newExpires, newExpires.length * 2);
+                }
+            }
+            if (!inserted) {
+                newStarts[n] = from;
+                newEnds[n] = to;
+                newExpires[n++] = expiresAt;
+            }
+
+            starts = newStarts;
+            ends = newEnds;
+            expires = newExpires;
+            size = n;
+        }
+
+        private static boolean startsInGap(long start, List<TimeRange> gaps) {
+            for (TimeRange gap : gaps) {
+                if (start >= toEpoch(gap.start()) && start < toEpoch(gap.end())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
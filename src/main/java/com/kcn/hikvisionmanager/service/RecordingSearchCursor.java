@@ -0,0 +1,129 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
+import com.kcn.hikvisionmanager.exception.CameraValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a search result, handed to clients as an opaque token.
+ * <p>
+ * It pins the original search window and track, and holds one of two kinds of position:
+ * <ul>
+ *   <li>camera cursor - the camera searchID and the result position the next page starts at. The position
+ *       advances by the number of results the camera actually returned, not by the page size, because cameras
+ *       cap maxResults. Following pages continue the camera's own search instead of starting a new one over
+ *       a shifted window, which could skip or repeat recordings.</li>
+ *   <li>keyset cursor - start time and recordingId of the last recording returned, for results served from
+ *       the catalog or the search cache (ordered by start time, then recordingId). The next page holds the
+ *       recordings after it, wherever it is served from.</li>
+ * </ul>
+ *
+ * @param trackId          Searched track, null for the main track
+ * @param searchId         Camera searchID, null for a keyset cursor
+ * @param afterStartTime   Start time of the last returned recording, null for a camera cursor
+ * @param afterRecordingId Recording ID of the last returned recording, null for a camera cursor
+ * @param page             Page number the cursor points to, for display only
+ */
+record RecordingSearchCursor(LocalDateTime startTime,
+                             LocalDateTime endTime,
+                             String trackId,
+                             String searchId,
+                             int position,
+                             LocalDateTime afterStartTime,
+                             String afterRecordingId,
+                             int page,
+                             int pageSize) {
+
+    private static final String VERSION = "2";
+    private static final String SEPARATOR = "|";
+    private static final int FIELDS = 10;
+
+    /**
+     * Cursor continuing a camera search at {@code position}.
+     */
+    static RecordingSearchCursor camera(RecordingSearchRequestDTO request, String searchId, int position) {
+        return new RecordingSearchCursor(request.getStartTime(), request.getEndTime(), request.getTrackId(),
+                searchId, position, null, null, nextPage(request), request.getPageSize());
+    }
+
+    /**
+     * Cursor pointing at the recordings following {@code last} in the request window.
+     */
+    static RecordingSearchCursor after(RecordingSearchRequestDTO request, RecordingItemDTO last) {
+        return new RecordingSearchCursor(request.getStartTime(), request.getEndTime(), request.getTrackId(),
+                null, 0, last.getStartTime(), last.getRecordingId(), nextPage(request), request.getPageSize());
+    }
+
+    boolean isKeyset() {
+        return afterStartTime != null;
+    }
+
+    /**
+     * Request for the page the cursor points to.
+     *
+     * @param pageSize Page size, or null to keep the one of the original search
+     */
+    RecordingSearchRequestDTO toRequest(Integer pageSize) {
+        return RecordingSearchRequestDTO.builder()
+                .startTime(startTime)
+                .endTime(endTime)
+                .trackId(trackId)
+                .page(page)
+                .pageSize(pageSize != null ? pageSize : this.pageSize)
+                .build();
+    }
+
+    String encode() {
+        // Recording ID goes last: it comes from the camera and is the only field that may contain the separator
+        String token = String.join(SEPARATOR, VERSION, startTime.toString(), endTime.toString(),
+                trackId != null ? trackId : "", searchId != null ? searchId : "", Integer.toString(position),
+                afterStartTime != null ? afterStartTime.toString() : "",
+                Integer.toString(page), Integer.toString(pageSize),
+                afterRecordingId != null ? afterRecordingId : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws CameraValidationException If the token was not produced by {@link #encode()}
+     */
+    static RecordingSearchCursor decode(String cursor) {
+        try {
+            String token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] fields = token.split("\\|", FIELDS);
+            if (fields.length != FIELDS || !VERSION.equals(fields[0])) {
+                throw new CameraValidationException("Invalid search cursor");
+            }
+            RecordingSearchCursor decoded = new RecordingSearchCursor(
+                    LocalDateTime.parse(fields[1]),
+                    LocalDateTime.parse(fields[2]),
+                    fields[3].isEmpty() ? null : fields[3],
+                    fields[4].isEmpty() ? null : fields[4],
+                    Integer.parseInt(fields[5]),
+                    fields[6].isEmpty() ? null : LocalDateTime.parse(fields[6]),
+                    fields[9].isEmpty() ? null : fields[9],
+                    Integer.parseInt(fields[7]),
+                    Integer.parseInt(fields[8]));
+            // Exactly one kind of position
+            boolean camera = decoded.searchId() != null && decoded.afterStartTime() == null
+                    && decoded.afterRecordingId() == null;
+            boolean keyset = decoded.searchId() == null && decoded.afterStartTime() != null
+                    && decoded.afterRecordingId() != null;
+            if ((!camera && !keyset) || decoded.position() < 0 || decoded.pageSize() < 1
+                    || !decoded.endTime().isAfter(decoded.startTime())) {
+                throw new CameraValidationException("Invalid search cursor");
+            }
+            return decoded;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new CameraValidationException("Invalid search cursor");
+        }
+    }
+
+    private static int nextPage(RecordingSearchRequestDTO request) {
+        return Math.max(request.getPage(), 1) + 1;
+    }
+}
@@ -0,0 +1,411 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.kcn.hikvisionmanager.client.HttpClientConfig;
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.dto.CameraChannelInfoDTO;
+import com.kcn.hikvisionmanager.dto.MultiTrackSearchRequestDTO;
+import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchResultDTO;
+import com.kcn.hikvisionmanager.exception.CameraRequestException;
+import com.kcn.hikvisionmanager.exception.CameraValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Searches long time ranges as parallel time shards.
+ * <p>
+ * The range is cut into day shards. Each shard first asks the camera for one page; a shard that fits
+ * in it is done. For a denser shard, the time span covered by that page gives the recording density:
+ * the rest of the shard is split into parts expected to fit in about one page each (whole hours, at least
+ * {@link HttpClientConfig#SEARCH_MIN_SHARD_MINUTES}) and searched in parallel, instead of paging through
+ * the day serially. Shards already at the minimum size page through the rest on their own.
+ * <p>
+ * Shards run on virtual threads, but at most {@link HttpClientConfig#SEARCH_MAX_CONCURRENT_SHARDS}
+ * camera searches are in flight at once (shared by all range searches). Results are merged in start
+ * time order and de-duplicated by recordingId, since segments crossing a shard boundary match both shards.
+ * <p>
+ * Ranges already searched are served from {@link RecordingSearchCache}; only the uncovered gaps are sharded.
+ * <p>
+ * Several tracks are searched as one range search per track, run in parallel on the same search slots,
+ * and their results are k-way merged by start time.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecordingSearchPlanner {
+
+    private static final Duration DAY = Duration.ofDays(1);
+    private static final Duration MIN_SHARD = Duration.ofMinutes(HttpClientConfig.SEARCH_MIN_SHARD_MINUTES);
+
+    private final RecordingService recordingService;
+    private final RecordingSearchCache searchCache;
+    private final CameraConfig cameraConfig;
+    private final CameraService cameraService;
+    private final Semaphore searchSlots = new Semaphore(HttpClientConfig.SEARCH_MAX_CONCURRENT_SHARDS, true);
+
+    private record Shard(LocalDateTime start, LocalDateTime end) {
+
+        Duration length() {
+            return Duration.between(start, end);
+        }
+
+        /**
+         * Splits into consecutive shards of the given size, aligned to multiples of it from midnight.
+         */
+        List<Shard> split(Duration size) {
+            List<Shard> shards = new ArrayList<>();
+            LocalDateTime midnight = start.toLocalDate().atStartOfDay();
+            long offset = Duration.between(midnight, start).toSeconds() / size.toSeconds();
+            LocalDateTime boundary = midnight.plus(size.multipliedBy(offset + 1));
+            LocalDateTime cursor = start;
+            while (cursor.isBefore(end)) {
+                LocalDateTime shardEnd = boundary.isBefore(end) ? boundary : end;
+                shards.add(new Shard(cursor, shardEnd));
+                cursor = shardEnd;
+                boundary = boundary.plus(size);
+            }
+            return shards;
+        }
+    }
+
+    /**
+     * Searches the whole request range and returns every recording in it as a single result.
+     * Paging fields of the request are ignored.
+     *
+     * @throws CameraValidationException If the track is not on the camera track list or the range is longer
+     *                                   than {@link HttpClientConfig#SEARCH_RANGE_MAX_DAYS}
+     */
+    public RecordingSearchResultDTO searchRange(RecordingSearchRequestDTO request) {
+        String trackId = request.getTrackId() != null
+                ? resolveTracks(List.of(request.getTrackId())).getFirst()
+                : String.valueOf(cameraConfig.getTrackMain());
+        return searchRange(trackId, request.getStartTime(), request.getEndTime());
+    }
+
+    /**
+     * Range search on a track already known to be valid.
+     */
+    private RecordingSearchResultDTO searchRange(String trackId, LocalDateTime start, LocalDateTime end) {
+        Shard range = new Shard(start, end);
+        if (range.length().compareTo(Duration.ofDays(HttpClientConfig.SEARCH_RANGE_MAX_DAYS)) > 0) {
+            throw new CameraValidationException(
+                    "Search range cannot exceed " + HttpClientConfig.SEARCH_RANGE_MAX_DAYS + " days");
+        }
+
+        long startNanos = System.nanoTime();
+        RecordingSearchCache.Lookup cached = searchCache.lookup(trackId, range.start(), range.end());
+
+        // Only the parts not covered by the cache go to the camera; fresh results come first so they win the merge
+        List<List<RecordingItemDTO>> results = new ArrayList<>();
+        if (!cached.gaps().isEmpty()) {
+            try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("search-shard-", 0).factory())) {
+                List<Shard> gaps = cached.gaps().stream()
+                        .map(gap -> new Shard(gap.start(), gap.end()))
+                        .toList();
+                results.addAll(searchAll(gaps, executor, gap -> searchGap(trackId, gap, executor)));
+            }
+        }
+        results.add(cached.recordings());
+        List<RecordingItemDTO> recordings = merge(results);
+
+        log.debug("✅ Range search {} - {} (track {}): {} recordings, {} gaps searched on camera in {} ms",
+                range.start(), range.end(), trackId, recordings.size(), cached.gaps().size(),
+                Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+
+        return RecordingSearchResultDTO.builder()
+                .recordings(recordings)
+                .currentPage(1)
+                .pageSize(recordings.size())
+                .totalMatches(recordings.size())
+                .hasMore(false)
+                .build();
+    }
+
+    /**
+     * Searches the range on several tracks at once and returns all their recordings ordered by start time,
+     * each tagged with its track. Tracks are searched in parallel, so the result takes about as long as
+     * the slowest track; the camera still sees at most {@link HttpClientConfig#SEARCH_MAX_CONCURRENT_SHARDS}
+     * searches at a time.
+     *
+     * @throws CameraValidationException If a track is not on the camera track list or the range is longer
+     *                                   than {@link HttpClientConfig#SEARCH_RANGE_MAX_DAYS}
+     */
+    public RecordingSearchResultDTO searchTracks(MultiTrackSearchRequestDTO request) {
+        List<String> trackIds = resolveTracks(request.getTrackIds());
+        long startNanos = System.nanoTime();
+
+        List<List<RecordingItemDTO>> results;
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("search-track-", 0).factory())) {
+            results = searchAll(trackIds, executor,
+                    trackId -> searchRange(trackId, request.getStartTime(), request.getEndTime()).getRecordings());
+        }
+        List<RecordingItemDTO> recordings = mergeByStartTime(results);
+
+        log.debug("✅ Multi-track search {} - {} on tracks {}: {} recordings in {} ms",
+                request.getStartTime(), request.getEndTime(), trackIds, recordings.size(),
+                Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+
+        return RecordingSearchResultDTO.builder()
+                .recordings(recordings)
+                .currentPage(1)
+                .pageSize(recordings.size())
+                .totalMatches(recordings.size())
+                .hasMore(false)
+                .build();
+    }
+
+    /**
+     * Paged search answered from the whole range: the range is completed through the cache and the
+     * requested page is cut from it, so further pages and overlapping windows need no camera round trip.
+     * Ranges longer than {@link HttpClientConfig#SEARCH_CACHED_PAGE_MAX_DAYS} are paged on the camera directly.
+     */
+    public RecordingSearchResultDTO searchPage(RecordingSearchRequestDTO request) {
+        Duration length = Duration.between(request.getStartTime(), request.getEndTime());
+        if (length.compareTo(Duration.ofDays(HttpClientConfig.SEARCH_CACHED_PAGE_MAX_DAYS)) > 0) {
+            return recordingService.searchRecordings(request);
+        }
+
+        List<RecordingItemDTO> all = searchRange(request).getRecordings();
+        int page = Math.max(request.getPage(), 1);
+        return page(request, all, Math.min((page - 1) * request.getPageSize(), all.size()));
+    }
+
+    /**
+     * Page of a keyset search cursor: the recordings of the request range that follow
+     * ({@code afterStartTime}, {@code afterRecordingId}), answered from the whole range like {@link #searchPage}.
+     */
+    public RecordingSearchResultDTO searchPageAfter(RecordingSearchRequestDTO request,
+                                                    LocalDateTime afterStartTime, String afterRecordingId) {
+        List<RecordingItemDTO> all = searchRange(request).getRecordings();
+        int from = 0;
+        while (from < all.size() && !isAfter(all.get(from), afterStartTime, afterRecordingId)) {
+            from++;
+        }
+        return page(request, all, from);
+    }
+
+    private static boolean isAfter(RecordingItemDTO recording, LocalDateTime afterStartTime, String afterRecordingId) {
+        int byStart = recording.getStartTime().compareTo(afterStartTime);
+        return byStart > 0 || (byStart == 0 && recording.getRecordingId().compareTo(afterRecordingId) > 0);
+    }
+
+    /**
+     * Cuts one page starting at {@code from} out of the whole range result; continued by a keyset cursor.
+     */
+    private static RecordingSearchResultDTO page(RecordingSearchRequestDTO request, List<RecordingItemDTO> all,
+                                                 int from) {
+        int to = Math.min(from + request.getPageSize(), all.size());
+        List<RecordingItemDTO> recordings = new ArrayList<>(all.subList(from, to));
+        boolean hasMore = to < all.size();
+
+        return RecordingSearchResultDTO.builder()
+                .recordings(recordings)
+                .currentPage(request.getPage())
+                .pageSize(request.getPageSize())
+                .totalMatches(recordings.size())
+                .hasMore(hasMore)
+                .nextCursor(hasMore && !recordings.isEmpty()
+                        ? RecordingSearchCursor.after(request, recordings.getLast()).encode()
+                        : null)
+                .build();
+    }
+
+    /**
+     * Searches one uncovered range as day shards and stores the complete result in the cache.
+     */
+    private List<RecordingItemDTO> searchGap(String trackId, Shard gap, ExecutorService executor) {
+        List<Shard> shards = gap.length().compareTo(DAY) > 0 ? gap.split(DAY) : List.of(gap);
+        List<RecordingItemDTO> recordings = new ArrayList<>();
+        searchAll(trackId, shards, executor).forEach(recordings::addAll);
+        searchCache.put(trackId, gap.start(), gap.end(), recordings);
+        return recordings;
+    }
+
+    /**
+     * Runs shards in parallel and returns their results in shard order.
+     */
+    private List<List<RecordingItemDTO>> searchAll(String trackId, List<Shard> shards, ExecutorService executor) {
+        return searchAll(shards, executor, shard -> searchShard(trackId, shard, executor));
+    }
+
+    private <T> List<List<RecordingItemDTO>> searchAll(List<T> shards, ExecutorService executor,
+                                                       ShardSearch<T> search) {
+        List<Future<List<RecordingItemDTO>>> futures = shards.stream()
+                .map(shard -> executor.submit(() -> search.apply(shard)))
+                .toList();
+
+        List<List<RecordingItemDTO>> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<List<RecordingItemDTO>> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CameraRequestException("Range search failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new CameraRequestException("Range search interrupted", e);
+        }
+        return results;
+    }
+
+    private List<RecordingItemDTO> searchShard(String trackId, Shard shard, ExecutorService executor)
+            throws InterruptedException {
+        List<RecordingItemDTO> firstPage = new ArrayList<>(HttpClientConfig.SEARCH_SHARD_PAGE_SIZE);
+        RecordingSearchResultDTO result;
+
+        searchSlots.acquire();
+        try {
+            result = recordingService.searchRecordings(RecordingSearchRequestDTO.builder()
+                    .startTime(shard.start())
+                    .endTime(shard.end())
+                    .trackId(trackId)
+                    .page(1)
+                    .pageSize(HttpClientConfig.SEARCH_SHARD_PAGE_SIZE)
+                    .build(), firstPage::add);
+        } finally {
+            searchSlots.release();
+        }
+
+        if (!result.isHasMore() || firstPage.isEmpty()) {
+            return firstPage;
+        }
+
+        // The probe page holds everything that starts before the last recording it returned
+        LocalDateTime covered = firstPage.stream()
+                .map(RecordingItemDTO::getStartTime)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(shard.start());
+        List<RecordingItemDTO> recordings = new ArrayList<>(firstPage);
+
+        // Dense shard - search the rest as parallel parts of about one page each, sized from
+        // the time span the probe page covered, rather than paging through it serially
+        if (shard.length().compareTo(MIN_SHARD) > 0 && covered.isAfter(shard.start())) {
+            long pageMinutes = Duration.between(shard.start(), covered).toMinutes();
+            Duration partSize = MIN_SHARD.multipliedBy(Math.max(1, pageMinutes / MIN_SHARD.toMinutes()));
+            List<Shard> parts = new Shard(covered, shard.end()).split(partSize);
+            log.debug("🔍 Splitting dense shard {} - {} into {} parts of {}",
+                    shard.start(), shard.end(), parts.size(), partSize);
+            searchAll(trackId, parts, executor).forEach(recordings::addAll);
+            return recordings;
+        }
+
+        // Minimum size reached - page through the rest from the last recording received
+        searchSlots.acquire();
+        try (Stream<RecordingItemDTO> rest = recordingService.streamRecordings(
+                trackId, covered, shard.end(), HttpClientConfig.SEARCH_SHARD_PAGE_SIZE)) {
+            rest.forEach(recordings::add);
+        } finally {
+            searchSlots.release();
+        }
+        return recordings;
+    }
+
+    @FunctionalInterface
+    private interface ShardSearch<T> {
+        List<RecordingItemDTO> apply(T shard) throws InterruptedException;
+    }
+
+    /**
+     * Requested tracks checked against the camera track list; all enabled tracks when none are requested.
+     */
+    private List<String> resolveTracks(List<String> requested) {
+        List<CameraChannelInfoDTO> tracks = cameraService.getTrackList();
+        if (requested == null || requested.isEmpty()) {
+            List<String> enabled = tracks.stream()
+                    .filter(CameraChannelInfoDTO::isEnabled)
+                    .map(CameraChannelInfoDTO::getTrackId)
+                    .toList();
+            if (enabled.isEmpty()) {
+                throw new CameraValidationException("Camera reports no enabled tracks");
+            }
+            return enabled;
+        }
+
+        Set<String> known = tracks.stream()
+                .map(CameraChannelInfoDTO::getTrackId)
+                .collect(Collectors.toSet());
+        List<String> unknown = requested.stream()
+                .filter(trackId -> !known.contains(trackId))
+                .toList();
+        if (!unknown.isEmpty()) {
+            throw new CameraValidationException("Unknown track IDs: " + String.join(", ", unknown));
+        }
+        return requested.stream().distinct().toList();
+    }
+
+    /**
+     * K-way merge of per-track results, each already ordered by start time. Equal start times keep track order.
+     */
+    private static List<RecordingItemDTO> mergeByStartTime(List<List<RecordingItemDTO>> sortedResults) {
+        int total = sortedResults.stream().mapToInt(List::size).sum();
+        List<RecordingItemDTO> merged = new ArrayList<>(total);
+
+        // Heap entry: [result index, position of its next recording]
+        Comparator<int[]> byHead = Comparator.comparing(
+                (int[] head) -> sortedResults.get(head[0]).get(head[1]).getStartTime(),
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sortedResults.size()),
+                byHead.thenComparingInt(head -> head[0]));
+        for (int i = 0; i < sortedResults.size(); i++) {
+            if (!sortedResults.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        while (!heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<RecordingItemDTO> result = sortedResults.get(head[0]);
+            merged.add(result.get(head[1]));
+            if (++head[1] < result.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Concatenates shard results, drops recordings matched by more than one shard and orders by start time,
+     * then recordingId (the order search cursors continue in).
+     */
+    private List<RecordingItemDTO> merge(List<List<RecordingItemDTO>> shardResults) {
+        Map<String, RecordingItemDTO> unique = new LinkedHashMap<>();
+        for (List<RecordingItemDTO> shardResult : shardResults) {
+            for (RecordingItemDTO recording : shardResult) {
+                unique.putIfAbsent(recording.getRecordingId(), recording);
+            }
+        }
+        List<RecordingItemDTO> merged = new ArrayList<>(unique.values());
+        merged.sort(Comparator.comparing(RecordingItemDTO::getStartTime,
+                        Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(RecordingItemDTO::getRecordingId, Comparator.nullsLast(Comparator.naturalOrder())));
+        return merged;
+    }
+}
@@ -0,0 +1,105 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchResultDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Lazily pages through a camera search.
+ * <p>
+ * Only one page is held in memory; the next page is requested when the consumer has taken every
+ * recording of the current one, so a slow consumer naturally slows down the camera search.
+ * <p>
+ * Pages are requested by moving the window start to the last recording received rather than by result
+ * position: cameras cap maxResults below the requested page size, and a position computed from the page
+ * size would silently skip recordings. Recordings returned again at the page boundary are skipped.
+ */
+@Slf4j
+final class RecordingSearchSpliterator extends Spliterators.AbstractSpliterator<RecordingItemDTO> {
+
+    private static final int MAX_PAGES = 10_000;
+
+    private final RecordingService recordingService;
+    private final String trackId;
+    private final LocalDateTime endTime;
+    private final int pageSize;
+
+    private final ArrayDeque<RecordingItemDTO> buffer;
+    private Set<String> previousPageIds = Set.of();
+    private LocalDateTime cursor;
+    private boolean exhausted;
+    private int pages;
+
+    RecordingSearchSpliterator(RecordingService recordingService,
+                               String trackId,
+                               LocalDateTime startTime,
+                               LocalDateTime endTime,
+                               int pageSize) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT);
+        this.recordingService = recordingService;
+        this.trackId = trackId;
+        this.cursor = startTime;
+        this.endTime = endTime;
+        this.pageSize = pageSize;
+        this.buffer = new ArrayDeque<>(pageSize);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super RecordingItemDTO> action) {
+        while (buffer.isEmpty()) {
+            if (exhausted) {
+                return false;
+            }
+            fetchNextPage();
+        }
+        action.accept(buffer.poll());
+        return true;
+    }
+
+    private void fetchNextPage() {
+        Set<String> pageIds = new HashSet<>();
+        LocalDateTime[] lastStart = {cursor};
+
+        RecordingSearchResultDTO result = recordingService.searchRecordings(RecordingSearchRequestDTO.builder()
+                .startTime(cursor)
+                .endTime(endTime)
+                .trackId(trackId)
+                .page(1)
+                .pageSize(pageSize)
+                .build(), item -> {
+            if (item.getStartTime() == null) {
+                return;
+            }
+            pageIds.add(item.getRecordingId());
+            if (!previousPageIds.contains(item.getRecordingId())) {
+                buffer.add(item);
+            }
+            if (item.getStartTime().isAfter(lastStart[0])) {
+                lastStart[0] = item.getStartTime();
+            }
+        });
+        pages++;
+
+        if (!result.isHasMore() || pageIds.isEmpty()) {
+            exhausted = true;
+        } else if (!lastStart[0].isAfter(cursor)) {
+            log.warn("⚠️ Recording search cannot advance past {} - page holds a single start time", cursor);
+            exhausted = true;
+        } else if (pages >= MAX_PAGES) {
+            log.warn("⚠️ Recording search stopped after {} pages at {}", pages, lastStart[0]);
+            exhausted = true;
+        }
+
+        previousPageIds = pageIds;
+        cursor = lastStart[0];
+    }
+}
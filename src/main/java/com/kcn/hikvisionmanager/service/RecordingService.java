@@ -1,10 +1,19 @@
 package com.kcn.hikvisionmanager.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.kcn.hikvisionmanager.client.HikvisionIsapiAsyncClient;
 import com.kcn.hikvisionmanager.client.HikvisionIsapiClient;
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.dto.RecordingCalendarDTO;
+import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
 import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
 import com.kcn.hikvisionmanager.dto.RecordingSearchResultDTO;
 import com.kcn.hikvisionmanager.dto.xml.request.RecordingSearchRequestXml;
+import com.kcn.hikvisionmanager.dto.xml.request.TrackDailyParamXml;
 import com.kcn.hikvisionmanager.dto.xml.response.RecordingSearchResponseXml;
+import com.kcn.hikvisionmanager.dto.xml.response.TrackDailyDistributionXml;
 import com.kcn.hikvisionmanager.exception.CameraOfflineException;
 import com.kcn.hikvisionmanager.exception.CameraParsingException;
 import com.kcn.hikvisionmanager.exception.CameraRequestException;
@@ -13,7 +22,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Slf4j
 @Service
@@ -21,8 +40,25 @@ import java.time.LocalDateTime;
 public class RecordingService {
 
     private final HikvisionIsapiClient hikvisionIsapiClient;
+    private final HikvisionIsapiAsyncClient hikvisionIsapiAsyncClient;
     private final CameraUrlBuilder urlBuilder;
     private final RecordingSearchMapper recordingSearchMapper;
+    private final CameraConfig cameraConfig;
+    private final Clock clock;
+
+    // Past months only change when the camera overwrites its oldest footage
+    private static final Duration PAST_MONTH_TTL = Duration.ofHours(6);
+    private static final Duration CURRENT_MONTH_TTL = Duration.ofMinutes(1);
+    private static final int CALENDAR_CACHE_MONTHS = 36;
+
+    private final Cache<YearMonth, RecordingCalendarDTO> calendarCache = Caffeine.newBuilder()
+            .expireAfter(Expiry.writing((YearMonth month, RecordingCalendarDTO calendar) -> calendarTtl(month)))
+            .maximumSize(CALENDAR_CACHE_MONTHS)
+            .build();
+
+    private Duration calendarTtl(YearMonth month) {
+        return month.isBefore(YearMonth.now(clock)) ? PAST_MONTH_TTL : CURRENT_MONTH_TTL;
+    }
 
     /**
      * Searches for recordings within the given time range and pagination settings.
@@ -31,9 +67,13 @@ public class RecordingService {
         log.debug("🔍 Searching recordings from {} to {}, page {}",
                 request.getStartTime(), request.getEndTime(), request.getPage());
 
+        // 1️⃣ Map DTO → XML request
+        return searchRecordings(request, recordingSearchMapper.toXmlRequest(request));
+    }
+
+    private RecordingSearchResultDTO searchRecordings(RecordingSearchRequestDTO request,
+                                                      RecordingSearchRequestXml xmlRequest) {
         try {
-            // 1️⃣ Map DTO → XML request
-            RecordingSearchRequestXml xmlRequest = recordingSearchMapper.toXmlRequest(request);
             log.debug("Mapped XML request: trackId={}, maxResults={}, position={}",
                     xmlRequest.getTrackIdList().getTrackId(),
                     xmlRequest.getMaxResults(),
@@ -47,7 +87,8 @@ public class RecordingService {
             );
 
             // 3️⃣ Map XML → DTO
-            RecordingSearchResultDTO result = recordingSearchMapper.toSearchResult(xmlResponse, request);
+            RecordingSearchResultDTO result = withNextCursor(
+                    recordingSearchMapper.toSearchResult(xmlResponse, request), request, xmlRequest);
 
             log.debug("✅ Found {} recordings (hasMore={})",
                     result.getTotalMatches(),
@@ -74,56 +115,177 @@ public class RecordingService {
     }
 
     /**
-     * Searches for recordings from the last N hours.
+     * Streaming variant of {@link #searchRecordings(RecordingSearchRequestDTO)}.
+     * Each recording is mapped and passed to {@code consumer} as soon as its XML element is parsed,
+     * so large result pages are never materialized as a list. The returned result carries
+     * paging metadata (totalMatches, hasMore, searchId) with an empty recordings list.
      */
-    public RecordingSearchResultDTO searchRecentRecordings(int lastNHours, int pageSize) {
-        LocalDateTime endTime = LocalDateTime.now();
-        LocalDateTime startTime = endTime.minusHours(lastNHours);
-
-        RecordingSearchRequestDTO request = RecordingSearchRequestDTO.builder()
-                .startTime(startTime)
-                .endTime(endTime)
-                .page(1)
-                .pageSize(pageSize)
-                .build();
+    public RecordingSearchResultDTO searchRecordings(RecordingSearchRequestDTO request,
+                                                     Consumer<RecordingItemDTO> consumer) {
+        log.debug("🔍 Streaming recordings from {} to {}, page {}",
+                request.getStartTime(), request.getEndTime(), request.getPage());
 
-        return searchRecordings(request);
+        try {
+            RecordingSearchRequestXml xmlRequest = recordingSearchMapper.toXmlRequest(request);
+
+            RecordingSearchResponseXml header = hikvisionIsapiClient.executePostStreaming(
+                    urlBuilder.buildRecordingSearchUrl(),
+                    xmlRequest,
+                    RecordingSearchResponseXml.class,
+                    "searchMatchItem",
+                    RecordingSearchResponseXml.SearchMatchItem.class,
+                    item -> consumer.accept(recordingSearchMapper.toRecordingItemDTO(item))
+            );
+
+            RecordingSearchResultDTO result = withNextCursor(
+                    recordingSearchMapper.toSearchResult(header, request), request, xmlRequest);
+            log.debug("✅ Streamed {} recordings (hasMore={})", result.getTotalMatches(), result.isHasMore());
+            return result;
+
+        } catch (CameraParsingException e) {
+            log.error("❌ Failed to parse XML response: {}", e.getMessage(), e);
+            throw e;
+
+        } catch (CameraOfflineException e) {
+            log.warn("❌ Camera is offline: {}", e.getMessage());
+            throw e;
+
+        } catch (CameraRequestException e) {
+            log.error("❌ Camera request failed: {}", e.getMessage(), e);
+            throw e;
+        }
     }
 
     /**
-     * Searches for recordings by a specific date (00:00-23:59).
+     * Lazily streams every recording in [startTime, endTime], following camera pages while the
+     * stream is consumed. Pages are fetched one at a time on the calling thread, so nothing beyond the
+     * current page is held in memory. Camera errors are thrown from the terminal operation.
+     *
+     * @param pageSize Recordings requested per camera round trip
      */
-    public RecordingSearchResultDTO searchRecordingsByDate(LocalDateTime date, int pageSize) {
-        LocalDateTime startTime = date.toLocalDate().atStartOfDay();
-        LocalDateTime endTime = startTime.plusDays(1).minusSeconds(1);
-
-        RecordingSearchRequestDTO request = RecordingSearchRequestDTO.builder()
-                .startTime(startTime)
-                .endTime(endTime)
-                .page(1)
-                .pageSize(pageSize)
-                .build();
+    public Stream<RecordingItemDTO> streamRecordings(LocalDateTime startTime, LocalDateTime endTime, int pageSize) {
+        return streamRecordings(null, startTime, endTime, pageSize);
+    }
+
+    /**
+     * {@link #streamRecordings(LocalDateTime, LocalDateTime, int)} for the given track.
+     *
+     * @param trackId Track to search, or null for the main track
+     */
+    public Stream<RecordingItemDTO> streamRecordings(String trackId, LocalDateTime startTime, LocalDateTime endTime,
+                                                     int pageSize) {
+        log.debug("🔍 Streaming all recordings from {} to {} (track {}, pageSize {})",
+                startTime, endTime, trackId, pageSize);
+        return StreamSupport.stream(
+                new RecordingSearchSpliterator(this, trackId, startTime, endTime, pageSize), false);
+    }
+
+    /**
+     * Asynchronous variant of {@link #searchRecordings(RecordingSearchRequestDTO)}.
+     * The camera round trip runs on a virtual thread; the caller is released immediately.
+     */
+    public CompletableFuture<RecordingSearchResultDTO> searchRecordingsAsync(RecordingSearchRequestDTO request) {
+        log.debug("🔍 Searching recordings (async) from {} to {}, page {}",
+                request.getStartTime(), request.getEndTime(), request.getPage());
 
-        return searchRecordings(request);
+        RecordingSearchRequestXml xmlRequest = recordingSearchMapper.toXmlRequest(request);
+
+        return hikvisionIsapiAsyncClient.executePostAsync(
+                        urlBuilder.buildRecordingSearchUrl(),
+                        xmlRequest,
+                        RecordingSearchResponseXml.class)
+                .thenApply(xmlResponse -> {
+                    RecordingSearchResultDTO result = withNextCursor(
+                            recordingSearchMapper.toSearchResult(xmlResponse, request), request, xmlRequest);
+                    log.debug("✅ Found {} recordings (hasMore={})", result.getTotalMatches(), result.isHasMore());
+                    return result;
+                })
+                .exceptionally(ex -> {
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof CameraParsingException e) {
+                        log.error("❌ Failed to parse XML response: {}", e.getMessage(), e);
+                        throw e;
+                    }
+                    if (cause instanceof CameraOfflineException e) {
+                        log.warn("❌ Camera is offline: {}", e.getMessage());
+                        throw e;
+                    }
+                    if (cause instanceof CameraRequestException e) {
+                        log.error("❌ Camera request failed: {}", e.getMessage(), e);
+                        throw e;
+                    }
+                    if (cause instanceof RuntimeException e) {
+                        log.warn("❌ Recording search failed: {}", e.getMessage());
+                        throw e;
+                    }
+                    log.error("❌ Unexpected error during recording search: {}", cause.getMessage(), cause);
+                    throw new CameraRequestException("Unexpected error during recording search", cause);
+                });
     }
 
     /**
-     * Fetches the next page of results if available.
+     * Returns the days of a month holding recordings on the main track.
+     * Uses the camera's daily distribution query - one request per month instead of a search per day -
+     * and caches the answer per month.
      */
-    public RecordingSearchResultDTO searchNextPage(RecordingSearchResultDTO currentResult, int pageSize) {
-        if (!currentResult.isHasMore()) {
-            log.warn("⚠️ No more results available.");
-            return currentResult;
+    public RecordingCalendarDTO getRecordingCalendar(YearMonth month) {
+        return calendarCache.get(month, this::loadRecordingCalendar);
+    }
+
+    private RecordingCalendarDTO loadRecordingCalendar(YearMonth month) {
+        String trackId = String.valueOf(cameraConfig.getTrackMain());
+        log.debug("🔍 Fetching recording distribution of track {} for {}", trackId, month);
+
+        TrackDailyDistributionXml xmlResponse = hikvisionIsapiClient.executePost(
+                urlBuilder.buildDailyDistributionUrl(trackId),
+                new TrackDailyParamXml(month.getYear(), month.getMonthValue()),
+                TrackDailyDistributionXml.class
+        );
+
+        List<Integer> recordedDays = new ArrayList<>();
+        if (xmlResponse.getDayList() != null && xmlResponse.getDayList().getDays() != null) {
+            for (TrackDailyDistributionXml.Day day : xmlResponse.getDayList().getDays()) {
+                if (day.isRecord() && month.isValidDay(day.getDayOfMonth())) {
+                    recordedDays.add(day.getDayOfMonth());
+                }
+            }
         }
+        recordedDays.sort(null);
 
-        RecordingSearchRequestDTO request = RecordingSearchRequestDTO.builder()
-                .startTime(currentResult.getRecordings().getFirst().getStartTime())
-                .endTime(currentResult.getRecordings().getLast().getEndTime())
-                .page(currentResult.getCurrentPage() + 1)
-                .pageSize(pageSize)
+        log.debug("✅ {} has recordings on {} days", month, recordedDays.size());
+        return RecordingCalendarDTO.builder()
+                .trackId(trackId)
+                .year(month.getYear())
+                .month(month.getMonthValue())
+                .recordedDays(recordedDays)
                 .build();
+    }
 
-        return searchRecordings(request);
+    /**
+     * Fetches the page a camera cursor points to, continuing the same camera search.
+     *
+     * @param pageSize Page size, or null to keep the one of the original search
+     */
+    RecordingSearchResultDTO continueSearch(RecordingSearchCursor cursor, Integer pageSize) {
+        RecordingSearchRequestDTO request = cursor.toRequest(pageSize);
+
+        log.debug("🔍 Continuing search {} at position {} (page {})",
+                cursor.searchId(), cursor.position(), cursor.page());
+        return searchRecordings(request,
+                recordingSearchMapper.toXmlRequest(request, cursor.searchId(), cursor.position()));
     }
 
-}
\ No newline at end of file
+    /**
+     * Adds the cursor of the following page: same window and searchID, position advanced by the number
+     * of results the camera returned (which may be fewer than requested).
+     */
+    private RecordingSearchResultDTO withNextCursor(RecordingSearchResultDTO result,
+                                                    RecordingSearchRequestDTO request,
+                                                    RecordingSearchRequestXml xmlRequest) {
+        if (result.isHasMore() && result.getTotalMatches() > 0) {
+            result.setNextCursor(RecordingSearchCursor.camera(request, xmlRequest.getSearchId(),
+                    xmlRequest.getSearchResultPosition() + result.getTotalMatches()).encode());
+        }
+        return result;
+    }
+}
@@ -3,8 +3,6 @@ package com.kcn.hikvisionmanager.service.backup;
 import com.kcn.hikvisionmanager.config.BackupConfig;
 import com.kcn.hikvisionmanager.domain.*;
 import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
-import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
-import com.kcn.hikvisionmanager.dto.RecordingSearchResultDTO;
 import com.kcn.hikvisionmanager.entity.BackupConfigurationEntity;
 import com.kcn.hikvisionmanager.entity.BackupJobEntity;
 import com.kcn.hikvisionmanager.entity.BackupRecordingEntity;
@@ -24,8 +22,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static com.kcn.hikvisionmanager.util.FileNameUtils.*;
 import static com.kcn.hikvisionmanager.util.ProgressCalculator.formatBytes;
@@ -85,27 +85,19 @@ public class BackupExecutor {
             BackupJobEntity backupJob = createBackupJob(
                     backupJobId, config.getId(), now, backupDateRange, backupDir);
 
-            // Search for recordings
-            RecordingSearchResultDTO searchResult = searchRecordings(
-                    backupDateRange.start(), backupDateRange.end());
+            // Search for recordings - pages are read while downloads are being queued
+            try (Stream<RecordingItemDTO> found = searchRecordings(
+                    backupDateRange.start(), backupDateRange.end())) {
 
-            if (searchResult.getRecordings().isEmpty()) {
-                return handleNoRecordingsFound(backupJob, backupDateRange);
-            }
+                Iterator<RecordingItemDTO> recordings = found.iterator();
+                if (!recordings.hasNext()) {
+                    return handleNoRecordingsFound(backupJob, backupDateRange);
+                }
 
-            // Warn if max limit reached
-            if (searchResult.getRecordings().size() >= backupConfig.getMaxRecordingsPerBackup()) {
-                log.warn("⚠️ Recording limit reached: {} recordings found (limit: {}). " +
-                                "Some recordings may not be backed up.",
-                        searchResult.getRecordings().size(), backupConfig.getMaxRecordingsPerBackup());
+                // Start batch download
+                startBatchDownload(backupJob, recordings, backupDir);
             }
 
-            // Prepare backup recordings
-            prepareBackupRecordings(backupJobId, searchResult.getRecordings());
-
-            // Start batch download
-            startBatchDownload(backupJob, searchResult.getRecordings(), backupDir);
-
             // Update config last run time
             updateConfigLastRun(config, now);
 
@@ -216,49 +208,49 @@ public class BackupExecutor {
     }
 
     /**
-     * Prepare backup recording entries in database.
+     * Prepare backup recording entry in database.
      */
-    private void prepareBackupRecordings(String backupJobId, List<RecordingItemDTO> recordings) {
-        log.debug("📊 Found {} recordings for backup", recordings.size());
-
-        for (RecordingItemDTO recording : recordings) {
-            BackupRecordingEntity backupRecordingEntity = BackupRecordingEntity.builder()
-                    .backupJobId(backupJobId)
-                    .recordingId(recording.getRecordingId())
-                    .trackId(recording.getTrackId())
-                    .startTime(recording.getStartTime())
-                    .endTime(recording.getEndTime())
-                    .duration(recording.getDuration())
-                    .fileName(generateFileName(recording))
-                    .status(BackupRecordingStatus.QUEUED)
-                    .build();
-
-            backupRecordingRepository.save(backupRecordingEntity);
-        }
+    private void prepareBackupRecording(String backupJobId, RecordingItemDTO recording) {
+        BackupRecordingEntity backupRecordingEntity = BackupRecordingEntity.builder()
+                .backupJobId(backupJobId)
+                .recordingId(recording.getRecordingId())
+                .trackId(recording.getTrackId())
+                .startTime(recording.getStartTime())
+                .endTime(recording.getEndTime())
+                .duration(recording.getDuration())
+                .fileName(generateFileName(recording))
+                .status(BackupRecordingStatus.QUEUED)
+                .build();
 
-        log.debug("✅ Created {} backup recording entries in DB", recordings.size());
+        backupRecordingRepository.save(backupRecordingEntity);
     }
 
     /**
      * Start batch download process.
+     * The backup recording entry of each recording is written just before its download is queued.
      */
     private void startBatchDownload(
             BackupJobEntity backupJob,
-            List<RecordingItemDTO> recordings,
+            Iterator<RecordingItemDTO> recordings,
             String backupDir) {
 
         backupJob.setStatus(BackupJobStatus.DOWNLOADING);
-        backupJob.setTotalRecordings(recordings.size());
         backupJobRepository.save(backupJob);
 
         Path backupPath = Paths.get(backupDir);
         String batchId = batchDownloadService.startBatchDownload(
                 recordings,
                 backupPath,
-                backupJob.getId()
+                backupJob.getId(),
+                recording -> prepareBackupRecording(backupJob.getId(), recording)
         );
 
-        log.info("🚀 Backup download started, files will be saved to {}", backupDir);
+        int total = (int) backupRecordingRepository.countByBackupJobId(batchId);
+        log.debug("✅ Created {} backup recording entries in DB", total);
+        backupJob.setTotalRecordings(total);
+        backupJobRepository.save(backupJob);
+
+        log.info("🚀 Backup download started for {} recordings, files will be saved to {}", total, backupDir);
     }
 
     /**
@@ -385,19 +377,13 @@ public class BackupExecutor {
 
     /**
      * Search for recordings in time range.
+     * Follows camera search pages lazily, so the whole range is covered regardless of its size.
      *
      * @param startTime Start time
      * @param endTime End time
-     * @return Search results
+     * @return Lazy stream of recordings, must be closed
      */
-    private RecordingSearchResultDTO searchRecordings(LocalDateTime startTime, LocalDateTime endTime) {
-        RecordingSearchRequestDTO request = RecordingSearchRequestDTO.builder()
-                .startTime(startTime)
-                .endTime(endTime)
-                .page(1)
-                .pageSize(backupConfig.getMaxRecordingsPerBackup())
-                .build();
-
-        return recordingService.searchRecordings(request);
+    private Stream<RecordingItemDTO> searchRecordings(LocalDateTime startTime, LocalDateTime endTime) {
+        return recordingService.streamRecordings(startTime, endTime, backupConfig.getSearchPageSize());
     }
 }
\ No newline at end of file
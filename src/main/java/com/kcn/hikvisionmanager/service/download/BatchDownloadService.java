@@ -23,8 +23,12 @@ import org.springframework.stereotype.Service;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service for managing batch downloads
@@ -71,14 +75,76 @@ public class BatchDownloadService {
      * @return Batch ID for tracking
      */
     public String startBatchDownload(List<RecordingItemDTO> recordings, Path customPath, String backupJobId) {
-        log.info("🚀 Starting batch download for {} recordings{}",
-                recordings.size(),
-                customPath != null ? " to " + customPath : "");
-
         if (recordings.isEmpty()) {
             throw new IllegalArgumentException("Cannot start batch download with empty recording list");
         }
+        return startBatchDownload(recordings.iterator(), customPath, backupJobId, recording -> {
+        });
+    }
+
+    /**
+     * Start batch download consuming recordings incrementally (e.g. from
+     * {@code RecordingService.streamRecordings}). Each recording becomes a queued job as soon as it is read,
+     * so the recordings are never collected into a list. Queuing a job never blocks: the jobs wait as
+     * data until a camera slot is free.
+     * <p>
+     * The batch is saved before the first recording is read and its job ids are appended as they are
+     * queued, so downloads finishing meanwhile already find their batch. It is finalized only after the
+     * last recording was queued.
+     *
+     * @param recordings Recordings to download, consumed once
+     * @param customPath Custom directory path (null = use default /tmp)
+     * @param backupJobId If provided, this is a backup batch (isBackup = true)
+     * @param beforeQueue Called with each recording just before its job is queued
+     * @return Batch ID for tracking
+     */
+    public String startBatchDownload(Iterator<RecordingItemDTO> recordings, Path customPath, String backupJobId,
+                                     Consumer<RecordingItemDTO> beforeQueue) {
+        if (!recordings.hasNext()) {
+            throw new IllegalArgumentException("Cannot start batch download with empty recording list");
+        }
+        BatchDownloadJob batch = createBatch(customPath, backupJobId);
+        queueRecordings(batch, recordings, customPath, backupJobId != null ? "Backup" : "Batch", beforeQueue);
+        return batch.getBatchId();
+    }
 
+    /**
+     * Start batch download and queue the recordings in the background, returning as soon as the batch exists.
+     * Used where the caller must not wait for a long search to be read (e.g. an HTTP request).
+     *
+     * @param recordings Recordings to download; the stream is consumed and closed by the background task
+     * @param customPath Custom directory path (null = use default /tmp)
+     * @return Batch ID for tracking
+     * @throws IllegalArgumentException If there are no recordings
+     */
+    public String startBatchDownloadInBackground(Stream<RecordingItemDTO> recordings, Path customPath) {
+        Iterator<RecordingItemDTO> iterator;
+        try {
+            iterator = recordings.iterator();
+            if (!iterator.hasNext()) {
+                throw new IllegalArgumentException("Cannot start batch download with empty recording list");
+            }
+        } catch (RuntimeException e) {
+            recordings.close();
+            throw e;
+        }
+
+        BatchDownloadJob batch = createBatch(customPath, null);
+        Thread.ofVirtual().name("batch-queue-" + batch.getBatchId()).start(() -> {
+            try (recordings) {
+                queueRecordings(batch, iterator, customPath, "Batch", recording -> {
+                });
+            } catch (RuntimeException e) {
+                // Already logged and recorded on the batch
+            }
+        });
+        return batch.getBatchId();
+    }
+
+    /**
+     * Creates and saves an empty batch that is still queuing.
+     */
+    private BatchDownloadJob createBatch(Path customPath, String backupJobId) {
         String batchId, name;
         // check is it backup or manual
         if(backupJobId==null) {
@@ -90,19 +156,15 @@ public class BatchDownloadService {
             name="Backup";
         }
 
-        // Submit individual downloads
-        List<String> jobIds = new ArrayList<>();
-        for (RecordingItemDTO recording : recordings) {
-            String jobId = downloadService.startDownload(recording, customPath, batchId, name);
-            jobIds.add(jobId);
-        }
+        log.info("🚀 Starting {} download {}{}", name.toLowerCase(), batchId,
+                customPath != null ? " to " + customPath : "");
 
-        // Create batch job
         BatchDownloadJob batch = BatchDownloadJob.builder()
                 .batchId(batchId)
-                .jobIds(jobIds)
+                .jobIds(Collections.synchronizedList(new ArrayList<>()))
+                .queuing(true)
                 .batchDownloadPath(customPath!=null ? customPath : config.getDownloadPath())
-                .totalRecordings(recordings.size())
+                .totalRecordings(0)
                 .completedRecordings(0)
                 .failedRecordings(0)
                 .status(BatchDownloadStatus.IN_PROGRESS)
@@ -113,10 +175,44 @@ public class BatchDownloadService {
         if(backupJobId!=null) {
             publisher.publishBackupStarted(batch.getBatchId());
         }
+        return batch;
+    }
 
-        log.debug("✅ [{}] {} download created: {} ({} recordings with jobId {})", Thread.currentThread().getName(), name, batchId, recordings.size(), jobIds);
+    /**
+     * Submits a download per recording, then ends queuing and checks whether the batch is already done.
+     * When reading the recordings fails, the batch keeps what was queued, cannot end COMPLETED, and the
+     * failure is rethrown.
+     */
+    private void queueRecordings(BatchDownloadJob batch, Iterator<RecordingItemDTO> recordings,
+                                 Path customPath, String name, Consumer<RecordingItemDTO> beforeQueue) {
+        try {
+            while (recordings.hasNext()) {
+                RecordingItemDTO recording = recordings.next();
+                beforeQueue.accept(recording);
+                String jobId = downloadService.startDownload(recording, customPath, batch.getBatchId(), name);
+                batch.getJobIds().add(jobId);
+                batch.setTotalRecordings(batch.getJobIds().size());
+            }
+        } catch (RuntimeException e) {
+            log.error("❌ Queuing {} download {} stopped after {} recordings: {}", name.toLowerCase(),
+                    batch.getBatchId(), batch.getTotalRecordings(), e.getMessage());
+            batch.setErrorMessage("Reading recordings failed: " + e.getMessage());
+            batch.setQueuing(false);
+            if (batch.getJobIds().isEmpty()) {
+                batch.setStatus(BatchDownloadStatus.FAILED);
+                batchRepository.save(batch);
+                publisher.publishBackupFailed(batch.getBatchId());
+            } else {
+                checkBatchCompletion(batch.getBatchId());
+            }
+            throw e;
+        }
+        batch.setQueuing(false);
+        log.debug("✅ [{}] {} download created: {} ({} recordings)", Thread.currentThread().getName(),
+                name, batch.getBatchId(), batch.getTotalRecordings());
 
-        return batchId;
+        // Jobs submitted first may have finished while later ones were still being read
+        checkBatchCompletion(batch.getBatchId());
     }
 
     /**
@@ -155,7 +251,7 @@ public class BatchDownloadService {
         }
 
         // Get all job statuses
-        List<DownloadJob> jobs = batch.getJobIds().stream()
+        List<DownloadJob> jobs = jobIdsOf(batch).stream()
                 .map(jobId -> downloadJobRepository.findById(jobId).orElse(null))
                 .filter(job -> job != null)
                 .toList();
@@ -182,8 +278,8 @@ public class BatchDownloadService {
         log.debug("📊 Batch {} progress: {}/{} completed, {} failed, {} pending",
                 batchId, completed, batch.getTotalRecordings(), failed, pending);
 
-        // Check if all jobs finished
-        if (pending == 0) {
+        // Check if all jobs finished (and no more are being queued)
+        if (pending == 0 && !batch.isQueuing()) {
             finalizeBatch(batch, jobs);
         } else {
             // Save progress
@@ -198,8 +294,8 @@ public class BatchDownloadService {
         long completed = batch.getCompletedRecordings();
         long failed = batch.getFailedRecordings();
 
-        // Determine final status
-        if (completed == batch.getTotalRecordings()) {
+        // Determine final status - a batch whose recordings could not all be read is never complete
+        if (completed == batch.getTotalRecordings() && batch.getErrorMessage() == null) {
             batch.setStatus(BatchDownloadStatus.COMPLETED);
             publisher.publishBackupCompleted(batch.getBatchId());
         } else if (completed == 0) {
@@ -226,7 +322,7 @@ public class BatchDownloadService {
                 .orElseThrow(() -> new IllegalArgumentException("Batch not found: " + batchId));
 
         // Get individual job statuses
-        List<DownloadJob> jobs = batch.getJobIds().stream()
+        List<DownloadJob> jobs = jobIdsOf(batch).stream()
                 .map(jobId -> downloadJobRepository.findById(jobId)
                         .orElseThrow(() -> new JobNotFoundException(jobId)))
                 .toList();
@@ -255,7 +351,7 @@ public class BatchDownloadService {
         log.info("🚫 Cancelling batch: {}", batchId);
 
         // Cancel all individual jobs
-        for (String jobId : batch.getJobIds()) {
+        for (String jobId : jobIdsOf(batch)) {
             try {
                 downloadService.cancelDownload(jobId);
             } catch (Exception e) {
@@ -268,4 +364,14 @@ public class BatchDownloadService {
         batchRepository.save(batch);
         publisher.publishBackupFailed(batch.getBatchId());
     }
-}
\ No newline at end of file
+
+    /**
+     * Snapshot of the batch's job ids, safe while more are being appended.
+     */
+    private static List<String> jobIdsOf(BatchDownloadJob batch) {
+        List<String> jobIds = batch.getJobIds();
+        synchronized (jobIds) {
+            return new ArrayList<>(jobIds);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.kcn.hikvisionmanager.service.download;
+
+import com.kcn.hikvisionmanager.client.HttpClientConfig;
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.config.DownloadConfig;
+import com.kcn.hikvisionmanager.exception.CameraRequestException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive (AIMD) limit on concurrent downloads from the camera.
+ * <p>
+ * Starts at one download and never exceeds {@code recording.download.max-concurrent-camera}. Every HTTP
+ * download attempt reports back through its {@link Permit}:
+ * <ul>
+ *   <li>Additive increase: a download that ran with all slots busy adds a slot, as long as its throughput
+ *       stays above {@value #MIN_THROUGHPUT_RATIO} of a download running alone and at most
+ *       {@value #MAX_ERROR_RATE} of the last {@value #OUTCOME_WINDOW} attempts failed</li>
+ *   <li>Throughput below that ratio while sharing the camera removes one slot</li>
+ *   <li>Multiplicative decrease: a timeout or 503 halves the limit, at most once per {@link #BACKOFF_COOLDOWN}
+ *       so parallel downloads failing together back off once</li>
+ * </ul>
+ * Downloads already running when the limit drops finish; new ones wait until in-flight falls below it.
+ * FFmpeg downloads report nothing, so with that method the limit stays at one.
+ * <p>
+ * Rebooting the camera is decided here too, once for all downloads: a download that keeps failing may
+ * restart the camera only when every download in flight is failing, and at most once per
+ * {@link #RESTART_INTERVAL}. A struggling download never reboots the camera under healthy ones.
+ * <p>
+ * Metrics, tagged by camera: {@code camera.download.limit}, {@code camera.download.in.flight},
+ * {@code camera.download.waiting} and the {@code camera.download.wait} timer.
+ */
+@Slf4j
+@Component
+public class CameraDownloadLimiter {
+
+    static final double MIN_THROUGHPUT_RATIO = 0.5;     // Per-download throughput vs. a download running alone
+    static final double MAX_ERROR_RATE = 0.1;
+    static final int OUTCOME_WINDOW = 20;
+    static final double BACKOFF_FACTOR = 0.5;
+    static final Duration BACKOFF_COOLDOWN = Duration.ofSeconds(30);
+    static final Duration RESTART_INTERVAL = Duration.ofSeconds(HttpClientConfig.CAMERA_RESTART_GRACE_SECONDS);
+
+    private static final long MIN_SAMPLE_BYTES = 1024 * 1024;      // Smaller transfers are too short to time
+    private static final double BASELINE_WEIGHT = 0.3;
+
+    private final int maxLimit;
+    private final Clock clock;
+    private final Timer waitTimer;
+
+    // ReentrantLock rather than synchronized: waiting download threads may be virtual
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFree = lock.newCondition();
+
+    // Guarded by lock
+    private volatile int limit = 1;
+    private volatile int inFlight;
+    private volatile int waiting;
+    private final List<Permit> active = new ArrayList<>();
+    private double baselineBytesPerSecond;                 // Smoothed throughput of downloads running alone
+    private final boolean[] outcomes = new boolean[OUTCOME_WINDOW];   // true = failed attempt
+    private int outcomeNext;
+    private int outcomeCount;
+    private int failures;
+    private long lastDecreaseMillis;
+    private long lastRestartMillis;
+
+    public CameraDownloadLimiter(DownloadConfig downloadConfig,
+                                 CameraConfig cameraConfig,
+                                 Clock clock,
+                                 MeterRegistry meterRegistry) {
+        this.maxLimit = Math.max(1, downloadConfig.getMaxConcurrentCamera());
+        this.clock = clock;
+        this.lastDecreaseMillis = clock.millis() - BACKOFF_COOLDOWN.toMillis();
+        this.lastRestartMillis = clock.millis() - RESTART_INTERVAL.toMillis();
+        String cameraKey = cameraConfig.getIp() + ":" + cameraConfig.getPort();
+
+        this.waitTimer = Timer.builder("camera.download.wait")
+                .description("Time downloads waited for a camera download slot")
+                .tag("camera", cameraKey)
+                .register(meterRegistry);
+        Gauge.builder("camera.download.limit", this, limiter -> limiter.limit)
+                .description("Current adaptive limit of concurrent camera downloads")
+                .tag("camera", cameraKey)
+                .register(meterRegistry);
+        Gauge.builder("camera.download.in.flight", this, limiter -> limiter.inFlight)
+                .description("Downloads currently holding a camera download slot")
+                .tag("camera", cameraKey)
+                .register(meterRegistry);
+        Gauge.builder("camera.download.waiting", this, limiter -> limiter.waiting)
+                .description("Downloads waiting for a camera download slot")
+                .tag("camera", cameraKey)
+                .register(meterRegistry);
+        log.info("✅ Camera download limiter initialized (limit 1, ceiling {})", maxLimit);
+    }
+
+    /**
+     * Acquire a download slot (blocking). The permit must be closed when the download ends.
+     */
+    public Permit acquire() throws InterruptedException {
+        log.debug("⏳ Waiting for camera download slot...");
+        long startNanos = System.nanoTime();
+        Permit permit = new Permit();
+        lock.lock();
+        try {
+            waiting++;
+            try {
+                while (inFlight >= limit) {
+                    slotFree.await();
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            active.add(permit);
+            for (Permit running : active) {
+                running.peakInFlight = Math.max(running.peakInFlight, inFlight);
+            }
+        } finally {
+            lock.unlock();
+        }
+        waitTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        log.debug("✅ Camera download slot acquired ({}/{})", inFlight, limit);
+        return permit;
+    }
+
+    /**
+     * Check if the camera is busy
+     */
+    public boolean isBusy() {
+        return inFlight >= limit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    private void release(Permit permit) {
+        lock.lock();
+        try {
+            if (active.remove(permit)) {
+                inFlight--;
+                slotFree.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+        log.debug("🔓 Camera download slot released");
+    }
+
+    private void onTransfer(Permit permit, long bytes, long nanos) {
+        lock.lock();
+        try {
+            recordOutcome(false);
+            permit.failing = false;
+            if (bytes < MIN_SAMPLE_BYTES || nanos <= 0) {
+                return;
+            }
+            double bytesPerSecond = bytes * 1e9 / nanos;
+            if (permit.peakInFlight <= 1) {
+                baselineBytesPerSecond = baselineBytesPerSecond == 0
+                        ? bytesPerSecond
+                        : baselineBytesPerSecond + BASELINE_WEIGHT * (bytesPerSecond - baselineBytesPerSecond);
+            }
+            if (baselineBytesPerSecond == 0) {
+                return;
+            }
+
+            boolean fastEnough = bytesPerSecond >= baselineBytesPerSecond * MIN_THROUGHPUT_RATIO;
+            if (!fastEnough && permit.peakInFlight > 1 && limit > 1) {
+                setLimit(limit - 1, String.format("throughput %.1f MB/s is below %.0f%% of a single download",
+                        bytesPerSecond / (1024 * 1024), MIN_THROUGHPUT_RATIO * 100));
+            } else if (fastEnough && permit.peakInFlight >= limit && limit < maxLimit
+                    && failures <= outcomeCount * MAX_ERROR_RATE) {
+                setLimit(limit + 1, String.format("download at full concurrency kept %.1f MB/s",
+                        bytesPerSecond / (1024 * 1024)));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onFailure(Permit permit, Throwable cause) {
+        boolean overload = isOverload(cause);
+        lock.lock();
+        try {
+            recordOutcome(true);
+            permit.failing = true;
+            long now = clock.millis();
+            if (overload && limit > 1 && now - lastDecreaseMillis >= BACKOFF_COOLDOWN.toMillis()) {
+                lastDecreaseMillis = now;
+                setLimit(Math.max(1, (int) (limit * BACKOFF_FACTOR)), "camera overloaded: " + cause.getMessage());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onProgress(Permit permit) {
+        lock.lock();
+        try {
+            permit.failing = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean claimRestart(Permit permit) {
+        lock.lock();
+        try {
+            long now = clock.millis();
+            if (now - lastRestartMillis < RESTART_INTERVAL.toMillis()) {
+                log.debug("⏳ Camera restart skipped - camera was restarted less than {} s ago",
+                        RESTART_INTERVAL.toSeconds());
+                return false;
+            }
+            if (!active.contains(permit) || active.stream().anyMatch(running -> !running.failing)) {
+                log.debug("⏳ Camera restart skipped - other downloads are still working");
+                return false;
+            }
+            lastRestartMillis = now;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Timeouts and 503 Service Unavailable mean the camera cannot serve more downloads.
+     */
+    private static boolean isOverload(Throwable cause) {
+        if (cause instanceof CameraRequestException requestException && requestException.getStatusCode() == 503) {
+            return true;
+        }
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordOutcome(boolean failed) {
+        if (outcomeCount == OUTCOME_WINDOW && outcomes[outcomeNext]) {
+            failures--;
+        }
+        outcomes[outcomeNext] = failed;
+        outcomeNext = (outcomeNext + 1) % OUTCOME_WINDOW;
+        outcomeCount = Math.min(outcomeCount + 1, OUTCOME_WINDOW);
+        if (failed) {
+            failures++;
+        }
+    }
+
+    private void setLimit(int newLimit, String reason) {
+        if (newLimit > limit) {
+            slotFree.signalAll();
+            log.info("📈 Camera download limit raised {} -> {} ({})", limit, newLimit, reason);
+        } else {
+            log.warn("📉 Camera download limit lowered {} -> {} ({})", limit, newLimit, reason);
+        }
+        limit = newLimit;
+    }
+
+    /**
+     * Download slot held for the whole download, including its retries.
+     * Attempts report their outcome so the limiter can adapt.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private int peakInFlight;      // Guarded by lock
+        private boolean failing;       // Guarded by lock - last attempt failed without progress
+
+        private Permit() {
+        }
+
+        /**
+         * Successful attempt that transferred {@code bytes} in {@code nanos}.
+         */
+        public void recordTransfer(long bytes, long nanos) {
+            onTransfer(this, bytes, nanos);
+        }
+
+        /**
+         * Failed attempt; timeouts and 503 lower the limit.
+         */
+        public void recordFailure(Throwable cause) {
+            onFailure(this, cause);
+        }
+
+        /**
+         * Failed attempt that still downloaded something: the download is not failing.
+         */
+        public void recordProgress() {
+            onProgress(this);
+        }
+
+        /**
+         * Asks to restart the camera for this failing download.
+         *
+         * @return true when the caller should restart the camera, false when another download is still
+         * working or the camera was restarted within {@link #RESTART_INTERVAL}
+         */
+        public boolean claimCameraRestart() {
+            return claimRestart(this);
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+    }
+}
@@ -10,18 +10,26 @@ import com.kcn.hikvisionmanager.service.ProgressListener;
 import com.kcn.hikvisionmanager.service.ffmpeg.FFmpegDownoladService;
 import com.kcn.hikvisionmanager.service.ffmpeg.FFmpegProgressListener;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
 
 /**
  * Queue manager for download jobs
- * Handles asynchronous execution with camera concurrency control
+ * Handles asynchronous execution with camera concurrency control.
+ * <p>
+ * Submitted jobs wait in the {@link DownloadScheduler}. A dispatcher thread takes a camera slot from the
+ * {@link CameraDownloadLimiter} first and only then picks the job, so the slot goes to the highest priority
+ * job waiting at that moment rather than to whichever job was submitted first.
+ * <p>
+ * Queued jobs are plain data: no thread exists for a job until it has a slot, and then it runs on its own
+ * virtual thread. Submitting never blocks or runs a download on the caller, however many jobs are queued,
+ * and at most the limiter's ceiling of download threads exist at any time.
  */
 @Component
 @Slf4j
@@ -29,34 +37,43 @@ import java.util.concurrent.Executor;
 public class DownloadJobQueue {
 
     private final FFmpegDownoladService ffmpegDownloadService;
-    private final CameraDownloadSemaphore cameraSemaphore;
+    private final CameraDownloadLimiter downloadLimiter;
+    private final DownloadScheduler scheduler;
     private final DownloadJobRepository repository;
     private final HttpDownloadService httpDownloadService;
     private final DownloadConfig config;
     private final RecordingDownloadPublisher publisher;
-
-    @Qualifier("cameraTaskExecutor")
-    private final Executor taskExecutor;
+    private final ThreadFactory downloadThreads = Thread.ofVirtual().name("download-", 0).factory();
 
     // Grace period tracking for camera restart
     private volatile LocalDateTime restartGraceUntil = null;
 
-    public DownloadJobQueue(FFmpegDownoladService ffmpegDownloadService, CameraDownloadSemaphore cameraSemaphore, DownloadJobRepository repository, HttpDownloadService httpDownloadService, DownloadConfig config, RecordingDownloadPublisher publisher, @Qualifier("cameraTaskExecutor") Executor taskExecutor) {
+    private volatile Thread dispatcherThread;
+
+    public DownloadJobQueue(FFmpegDownoladService ffmpegDownloadService, CameraDownloadLimiter downloadLimiter, DownloadScheduler scheduler, DownloadJobRepository repository, HttpDownloadService httpDownloadService, DownloadConfig config, RecordingDownloadPublisher publisher) {
         this.ffmpegDownloadService = ffmpegDownloadService;
-        this.cameraSemaphore = cameraSemaphore;
+        this.downloadLimiter = downloadLimiter;
+        this.scheduler = scheduler;
         this.repository = repository;
         this.httpDownloadService = httpDownloadService;
         this.config = config;
         this.publisher = publisher;
-        this.taskExecutor = taskExecutor;
     }
 
     @PostConstruct
     public void init() {
         String method = config.isHttpDownload() ? "HTTP (fast download)" : "FFmpeg (transcode)";
+        dispatcherThread = Thread.ofVirtual().name("download-dispatcher").start(this::dispatchLoop);
         log.info("✅ Download job queue initialized using {} method", method);
     }
 
+    @PreDestroy
+    public void stop() {
+        if (dispatcherThread != null) {
+            dispatcherThread.interrupt();
+        }
+    }
+
     /**
      * Event listener for camera restart.
      * Blocks the entire download queue during grace period.
@@ -77,20 +94,50 @@ public class DownloadJobQueue {
     public void submit(DownloadJob job) {
         log.debug("📥 Submitting download job to queue: {}", job.getJobId());
 
-        taskExecutor.execute(() -> executeDownload(job));
+        scheduler.enqueue(job);
     }
 
     /**
-     * Execute download job (runs in separate thread)
-     * Waits for camera restart grace period before acquiring semaphore.
+     * Starts queued jobs, one per free camera slot.
+     * Waits for camera restart grace period before acquiring a download slot.
      */
-    private void executeDownload(DownloadJob job) {
-        try {
-            // This blocks entire queue and prevents new downloads during restart
-            waitIfCameraRestarting();
-            // Wait for camera to be available
-            cameraSemaphore.acquire();
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            CameraDownloadLimiter.Permit heldPermit = null;    // Closed here unless handed to a download thread
+            try {
+                scheduler.awaitJob();
+                // This blocks entire queue and prevents new downloads during restart
+                waitIfCameraRestarting();
+                // Wait for camera to be available, then take the job that is first in line now
+                CameraDownloadLimiter.Permit permit = downloadLimiter.acquire();
+                heldPermit = permit;
+                DownloadJob job = scheduler.poll();
+                if (job == null || job.getStatus() == DownloadStatus.CANCELLED) {
+                    if (job != null) {
+                        httpDownloadService.discardPartialDownload(job);
+                    }
+                    continue;
+                }
+                downloadThreads.newThread(() -> executeDownload(job, permit)).start();
+                heldPermit = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("❌ Download dispatcher error: {}", e.getMessage(), e);
+            } finally {
+                if (heldPermit != null) {
+                    heldPermit.close();
+                }
+            }
+        }
+        log.debug("🔴 Download dispatcher stopped");
+    }
 
+    /**
+     * Execute download job (runs in separate thread) on an acquired camera slot, closing it at the end.
+     */
+    private void executeDownload(DownloadJob job, CameraDownloadLimiter.Permit permit) {
+        try {
             // Update status to DOWNLOADING
             job.setStatus(DownloadStatus.DOWNLOADING);
             job.setStartedAt(LocalDateTime.now());
@@ -110,7 +157,7 @@ public class DownloadJobQueue {
             if (config.isHttpDownload()) {
                 listener = new HttpProgressListener(job, repository, publisher);
                 // HTTP download
-                httpDownloadService.downloadRecording(job, listener, config.getTimeoutMinutes());
+                httpDownloadService.downloadRecording(job, listener, config.getTimeoutMinutes(), permit);
             } else {
                 listener = new FFmpegProgressListener(job, repository, publisher);
                 // FFmpeg
@@ -118,15 +165,6 @@ public class DownloadJobQueue {
 
             }
 
-        } catch (InterruptedException e) {
-            log.warn("⚠️ Download interrupted: {}", job.getJobId());
-            job.setStatus(DownloadStatus.CANCELLED);
-            job.setErrorMessage("Download interrupted");
-            repository.save(job);
-            if(job.isBackupJob())
-                publisher.publishDownloadFailed(job.getRecordingId(),job.getBatchId(),job.getActualFileSizeBytes(),job.getErrorMessage());
-            Thread.currentThread().interrupt();
-
         } catch (Exception e) {
             log.error("❌ Download failed: {}", job.getJobId(), e);
             job.setStatus(DownloadStatus.FAILED);
@@ -135,8 +173,11 @@ public class DownloadJobQueue {
             if(job.isBackupJob())
                 publisher.publishDownloadFailed(job.getRecordingId(),job.getBatchId(),job.getActualFileSizeBytes(),job.getErrorMessage());
         } finally {
-            // Always release semaphore
-            cameraSemaphore.release();
+            // Always release the slot
+            permit.close();
+            if (job.getStatus() == DownloadStatus.FAILED || job.getStatus() == DownloadStatus.CANCELLED) {
+                httpDownloadService.discardPartialDownload(job);
+            }
         }
     }
 
@@ -0,0 +1,164 @@
+package com.kcn.hikvisionmanager.service.download;
+
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.domain.DownloadJob;
+import com.kcn.hikvisionmanager.domain.DownloadPriority;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Order in which queued downloads get camera slots.
+ * <p>
+ * Classes are served strictly by {@link DownloadPriority}: a waiting interactive download takes the next
+ * free slot even while a backup of a thousand segments is queued, and backups only run when nothing else
+ * waits. Within a class, batches take turns one job at a time, so two batches started together progress
+ * together instead of one after the other. Jobs keep their submission order within a batch.
+ * <p>
+ * Enqueue and poll are O(1). Metrics, tagged by priority: {@code camera.download.queued} (queue depth)
+ * and the {@code camera.download.queue.wait} timer (time from submission to getting a slot).
+ */
+@Slf4j
+@Component
+public class DownloadScheduler {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition jobQueued = lock.newCondition();
+
+    // Guarded by lock
+    private final Map<DownloadPriority, ClassQueue> queues = new EnumMap<>(DownloadPriority.class);
+    private final Map<DownloadPriority, Timer> waitTimers = new EnumMap<>(DownloadPriority.class);
+    private int size;
+
+    public DownloadScheduler(CameraConfig cameraConfig, MeterRegistry meterRegistry) {
+        String cameraKey = cameraConfig.getIp() + ":" + cameraConfig.getPort();
+        for (DownloadPriority priority : DownloadPriority.values()) {
+            ClassQueue queue = new ClassQueue();
+            queues.put(priority, queue);
+            String tag = priority.name().toLowerCase();
+            Gauge.builder("camera.download.queued", queue, q -> q.size)
+                    .description("Downloads waiting for a camera slot")
+                    .tag("camera", cameraKey)
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            waitTimers.put(priority, Timer.builder("camera.download.queue.wait")
+                    .description("Time downloads waited in the queue for a camera slot")
+                    .tag("camera", cameraKey)
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Queues job behind the other jobs of its batch. Jobs without a priority are treated as batch jobs.
+     */
+    public void enqueue(DownloadJob job) {
+        DownloadPriority priority = job.getPriority() != null ? job.getPriority() : DownloadPriority.BATCH;
+        lock.lock();
+        try {
+            queues.get(priority).add(job);
+            size++;
+            jobQueued.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        log.debug("📥 Queued {} download {} (batch {})", priority.name().toLowerCase(), job.getJobId(), job.getBatchId());
+    }
+
+    /**
+     * Blocks until at least one job is queued.
+     */
+    public void awaitJob() throws InterruptedException {
+        lock.lock();
+        try {
+            while (size == 0) {
+                jobQueued.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the next job to run: the highest priority class with queued jobs, next batch in turn.
+     *
+     * @return Next job, or null when nothing is queued
+     */
+    public DownloadJob poll() {
+        lock.lock();
+        try {
+            for (DownloadPriority priority : DownloadPriority.values()) {
+                QueuedJob next = queues.get(priority).poll();
+                if (next != null) {
+                    size--;
+                    waitTimers.get(priority).record(System.nanoTime() - next.queuedNanos(), TimeUnit.NANOSECONDS);
+                    return next.job();
+                }
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record QueuedJob(DownloadJob job, long queuedNanos) {
+    }
+
+    /**
+     * Jobs of one priority class: a FIFO per batch and a rotation of batches with queued jobs.
+     */
+    private static final class ClassQueue {
+
+        private final Map<String, Deque<QueuedJob>> batches = new HashMap<>();
+        private final Deque<String> turns = new ArrayDeque<>();
+        private volatile int size;
+
+        void add(DownloadJob job) {
+            String batchId = job.getBatchId() != null ? job.getBatchId() : job.getJobId();
+            Deque<QueuedJob> batch = batches.get(batchId);
+            if (batch == null) {
+                batch = new ArrayDeque<>();
+                batches.put(batchId, batch);
+                turns.addLast(batchId);
+            }
+            batch.addLast(new QueuedJob(job, System.nanoTime()));
+            size++;
+        }
+
+        QueuedJob poll() {
+            String batchId = turns.pollFirst();
+            if (batchId == null) {
+                return null;
+            }
+            Deque<QueuedJob> batch = batches.get(batchId);
+            QueuedJob next = batch.pollFirst();
+            if (batch.isEmpty()) {
+                batches.remove(batchId);
+            } else {
+                turns.addLast(batchId);
+            }
+            size--;
+            return next;
+        }
+    }
+}
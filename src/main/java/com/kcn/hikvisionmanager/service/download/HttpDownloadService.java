@@ -1,9 +1,9 @@
 package com.kcn.hikvisionmanager.service.download;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.kcn.hikvisionmanager.client.HttpDownloadClient;
+import com.kcn.hikvisionmanager.client.IsapiRequestXmlWriter;
 import com.kcn.hikvisionmanager.domain.DownloadJob;
+import com.kcn.hikvisionmanager.domain.RecordingSegment;
 import com.kcn.hikvisionmanager.dto.xml.request.RecordingDownloadRequestXml;
 import com.kcn.hikvisionmanager.events.model.CameraRestartInitiatedEvent;
 import com.kcn.hikvisionmanager.exception.CameraOfflineException;
@@ -32,10 +32,11 @@ public class HttpDownloadService {
 
     private final HttpDownloadClient downloadClient;
     private final CameraUrlBuilder urlBuilder;
-    private final XmlMapper xmlMapper;
+    private final IsapiRequestXmlWriter requestXmlWriter;
     private final CameraManagementService managementService;
 
-    private static final int MAX_RETRY_ATTEMPTS = 3;
+    private static final int MAX_RETRY_ATTEMPTS = 3;       // Consecutive attempts that download nothing new
+    private static final int MAX_TOTAL_ATTEMPTS = 20;      // Including attempts that resumed and made progress
     private static final int RETRY_DELAY_SECONDS = 12;
 
     // Grace period tracking for camera restart (same as CameraService)
@@ -64,45 +65,67 @@ public class HttpDownloadService {
     /**
      * Download recording from camera via HTTP with progress tracking.
      * Automatically waits during camera restart grace period.
+     * <p>
+     * A failed attempt keeps what it downloaded and the retry resumes from there, so only attempts that
+     * add nothing count against {@link #MAX_RETRY_ATTEMPTS}. Each attempt reports its throughput or failure
+     * to the download slot, which adapts how many downloads run in parallel and decides whether the camera
+     * may be restarted before the last attempt.
      *
      * @param job            Download job with recording info
      * @param listener       Progress listener (reused from FFmpeg)
      * @param timeoutMinutes Maximum time allowed for download
+     * @param permit         Camera download slot held for this download
      */
     public void downloadRecording(
             DownloadJob job,
             ProgressListener listener,
-            int timeoutMinutes) {
+            int timeoutMinutes,
+            CameraDownloadLimiter.Permit permit) {
 
         log.debug("🚀 [{}] Starting HTTP download: {}", Thread.currentThread().getName(), job.getFileName());
 
         int attempt = 0;
+        int failedAttempts = 0;
+        boolean cameraRestarted = false;   // Progress resets failedAttempts, the restart still happens only once
         Exception lastException = null;
+        long expectedBytes = RecordingSegment.parseSizeBytes(job.getRtspUrl());
 
-        while (attempt < MAX_RETRY_ATTEMPTS) {
+        while (failedAttempts < MAX_RETRY_ATTEMPTS && attempt < MAX_TOTAL_ATTEMPTS) {
             attempt++;
+            long partialBefore = downloadClient.partialBytes(job.getFilePath());
 
             try {
                 if (attempt > 1) {
-                    log.info("🔄 Retry attempt {}/{}", attempt, MAX_RETRY_ATTEMPTS);
+                    log.info("🔄 Retry attempt {} ({} MB already downloaded)", attempt, partialBefore / (1024 * 1024));
                     Thread.sleep(RETRY_DELAY_SECONDS * 1000L);
                 }
 
                 // CRITICAL: Wait if camera is restarting
                 waitIfCameraRestarting();
 
-                executeDownload(job, listener, timeoutMinutes);
+                long attemptStartNanos = System.nanoTime();
+                executeDownload(job, listener, timeoutMinutes, expectedBytes);
+                permit.recordTransfer(downloadedSize(job) - partialBefore, System.nanoTime() - attemptStartNanos);
 
                 // Success - exit retry loop
                 return;
 
             } catch (CameraOfflineException | CameraRequestException e) {
                 lastException = e;
-                log.warn("⚠️ Download attempt {}/{} failed: {}",
-                        attempt, MAX_RETRY_ATTEMPTS, e.getMessage());
+                permit.recordFailure(e);
+                long partialAfter = downloadClient.partialBytes(job.getFilePath());
+                if (partialAfter > partialBefore) {
+                    failedAttempts = 0;     // Next attempt resumes after the new bytes
+                    permit.recordProgress();
+                } else {
+                    failedAttempts++;
+                }
+                log.warn("⚠️ Download attempt {} failed ({}/{} without progress, {} MB kept): {}",
+                        attempt, failedAttempts, MAX_RETRY_ATTEMPTS, partialAfter / (1024 * 1024), e.getMessage());
 
-                // On last attempt, try camera restart
-                if (attempt == MAX_RETRY_ATTEMPTS - 1) {
+                // On last attempt, try camera restart - unless other downloads are fine or it was just restarted
+                if (failedAttempts == MAX_RETRY_ATTEMPTS - 1 && !cameraRestarted && permit.claimCameraRestart()) {
+                    cameraRestarted = true;
                     log.warn("🔄 Last retry attempt - restarting camera...");
                     tryRestartCamera();
                 }
@@ -115,6 +138,7 @@ public class HttpDownloadService {
 
             } catch (Exception e) {
                 // Unexpected error - fail immediately
+                permit.recordFailure(e);
                 log.error("❌ Unexpected download error: {}", e.getMessage(), e);
                 listener.onError("Unexpected error: " + e.getMessage());
                 return;
@@ -124,13 +148,33 @@ public class HttpDownloadService {
         // All retries exhausted
         String errorMsg = String.format(
                 "Download failed after %d attempts: %s",
-                MAX_RETRY_ATTEMPTS,
+                attempt,
                 lastException != null ? lastException.getMessage() : "Unknown error"
         );
         log.error("❌ {}", errorMsg);
         listener.onError(errorMsg);
     }
 
+    /**
+     * Drops the partial file of a download that ended FAILED or CANCELLED; nothing will resume it.
+     */
+    public void discardPartialDownload(DownloadJob job) {
+        if (job.getFilePath() != null) {
+            downloadClient.deletePartialFile(job.getFilePath());
+        }
+    }
+
+    /**
+     * Size of the finished download, or 0 when it cannot be read.
+     */
+    private static long downloadedSize(DownloadJob job) {
+        try {
+            return Files.size(job.getFilePath());
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
     /**
      * Waits if camera is currently in restart grace period.
      * Blocks the calling thread until grace period expires.
@@ -171,31 +215,28 @@ public class HttpDownloadService {
     private void executeDownload(
             DownloadJob job,
             ProgressListener listener,
-            int timeoutMinutes) throws IOException {
+            int timeoutMinutes,
+            long expectedBytes) throws IOException {
 
         // Ensure output directory exists
         Files.createDirectories(job.getFilePath().getParent());
 
         // Build XML payload
-        String xmlPayload = buildDownloadRequestXml(job.getRtspUrl());
+        byte[] xmlPayload = buildDownloadRequestXml(job.getRtspUrl());
 
         // Build download URL
         String downloadUrl = urlBuilder.buildDownloadUrl();
 
-        log.debug("📄 Download payload: {}", xmlPayload);
-
-        // Progress tracking state
-        final long startTimeMs = System.currentTimeMillis();
-        final long[] lastUpdateTime = {startTimeMs};
-        final long[] lastDownloadedBytes = {0};
+        log.debug("📄 Download playbackURI: {}", job.getRtspUrl());
 
-        // Execute HTTP download with streaming
+        // Execute HTTP download with streaming, resuming a partial file from an earlier attempt
         downloadClient.executeDownloadStream(
                 downloadUrl,
                 xmlPayload,
                 job.getFilePath(),
                 listener,
-                timeoutMinutes
+                timeoutMinutes,
+                expectedBytes
         );
     }
 
@@ -203,27 +244,13 @@ public class HttpDownloadService {
      * Build XML payload for download request
      * <p>
      * Format:
-     * <?xml version='1.0' encoding='utf8'?>
+     * <?xml version='1.0' encoding='UTF-8'?>
      * <downloadRequest>
      * <playbackURI>rtsp://192.168.0.64/Streaming/tracks/101/?starttime=...&endtime=...</playbackURI>
      * </downloadRequest>
      */
-    private String buildDownloadRequestXml(String playbackUrl) {
-        RecordingDownloadRequestXml request = new RecordingDownloadRequestXml(playbackUrl);
-        try {
-            return xmlMapper.writeValueAsString(request);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize download request XML", e);
-            // Fallback to manual XML
-            return createManualXml(playbackUrl);
-        }
-    }
-
-    private String createManualXml(String playbackUrl) {
-        return "<?xml version='1.0' encoding='utf8'?>\n" +
-                "<downloadRequest>\n" +
-                "    <playbackURI>" + playbackUrl.replace("&", "&amp;") + "</playbackURI>\n" +
-                "</downloadRequest>";
+    private byte[] buildDownloadRequestXml(String playbackUrl) {
+        return requestXmlWriter.toBytes(new RecordingDownloadRequestXml(playbackUrl));
     }
 
     /**
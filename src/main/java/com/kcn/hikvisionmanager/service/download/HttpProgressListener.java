@@ -61,13 +61,7 @@ public class HttpProgressListener implements ProgressListener {
     @Override
     public void onComplete(Path filePath) {
         try {
-            job.setStatus(DownloadStatus.COMPLETED);
-            job.setCompletedAt(LocalDateTime.now());
-            job.setProgressPercent(100);
-            job.setCurrentTime(formatCurrentTime());
-            job.setEta("Completed");
-            job.setDownloadSpeed(0.0);
-
+            // Size first: status readers map a COMPLETED job's file size
             try {
                 long fileSize = Files.size(filePath);
                 job.setActualFileSizeBytes(fileSize);
@@ -77,6 +71,13 @@ public class HttpProgressListener implements ProgressListener {
                 log.warn("Failed to get file size for job {}: {}", job.getJobId(), e.getMessage());
             }
 
+            job.setStatus(DownloadStatus.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setProgressPercent(100);
+            job.setCurrentTime(formatCurrentTime());
+            job.setEta("Completed");
+            job.setDownloadSpeed(0.0);
+
             long downloadTime = System.currentTimeMillis() - startTime;
             double averageSpeed = calculateAverageSpeedMbps(job.getDownloadedBytes(), downloadTime);
 
@@ -1,10 +1,14 @@
 package com.kcn.hikvisionmanager.service.download;
 
+import com.kcn.hikvisionmanager.client.HttpDownloadClient;
 import com.kcn.hikvisionmanager.config.DownloadConfig;
 import com.kcn.hikvisionmanager.domain.DownloadJob;
+import com.kcn.hikvisionmanager.domain.DownloadPriority;
 import com.kcn.hikvisionmanager.domain.DownloadStatus;
+import com.kcn.hikvisionmanager.domain.RecordingSegment;
 import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
 import com.kcn.hikvisionmanager.events.publishers.RecordingDownloadPublisher;
+import com.kcn.hikvisionmanager.mapper.RecordingSearchMapper;
 import com.kcn.hikvisionmanager.repository.DownloadJobRepository;
 import com.kcn.hikvisionmanager.service.CameraUrlBuilder;
 import com.kcn.hikvisionmanager.util.ProgressCalculator;
@@ -30,9 +34,11 @@ public class RecordingDownloadService {
     private final DownloadJobRepository repository;
     private final DownloadJobQueue jobQueue;
     private final DownloadConfig config;
-    private final CameraDownloadSemaphore cameraSemaphore;
+    private final CameraDownloadLimiter downloadLimiter;
     private final CameraUrlBuilder urlBuilder;
     private final RecordingDownloadPublisher publisher;
+    private final RecordingSearchMapper recordingSearchMapper;
+    private final HttpDownloadClient downloadClient;
 
 
     /**
@@ -74,7 +80,7 @@ public class RecordingDownloadService {
 
         // Clean up old downloads if configured (only for default path)
         if (customPath == null && config.isKeepLastCompletedOnly()) {
-            cleanupPreviousDownloads();
+            cleanupPreviousDownloads(batchId);
         }
 
         // Create and save job
@@ -138,6 +144,17 @@ public class RecordingDownloadService {
         }
     }
 
+    /**
+     * Scheduling class: single downloads are interactive, backups run in the background.
+     */
+    private static DownloadPriority priorityOf(String batchName) {
+        return switch (batchName) {
+            case "single" -> DownloadPriority.INTERACTIVE;
+            case "Backup" -> DownloadPriority.BACKUP;
+            default -> DownloadPriority.BATCH;
+        };
+    }
+
     /**
      * Create download job from recording DTO
      */
@@ -155,18 +172,21 @@ public class RecordingDownloadService {
             rtspUrl = urlBuilder.addCredentialsToRtspUrl(recording.getPlaybackUrl());
         else rtspUrl=recording.getPlaybackUrl();
 
-        // Parse expected file size to bytes
-        long totalBytes = ProgressCalculator.parseFileSize(recording.getFileSize());
+        // Exact size from the search result or playback URI; the formatted string only for clients that send neither
+        RecordingSegment segment = recordingSearchMapper.toRecordingSegment(recording);
+        long totalBytes = segment.hasSize() ? segment.sizeBytes()
+                : recording.getFileSize() != null ? ProgressCalculator.parseFileSize(recording.getFileSize()) : 0;
 
         return DownloadJob.builder()
                 .jobId(jobId)
                 .batchId(batchId)
                 .isBackupJob(batchName.equals("Backup"))
+                .priority(priorityOf(batchName))
                 .recordingId(recording.getRecordingId())
                 .trackId(recording.getTrackId())
                 .startTime(recording.getStartTime())
                 .endTime(recording.getEndTime())
-                .duration(recording.getDuration())
+                .durationSeconds(segment.durationSeconds())
                 .status(DownloadStatus.QUEUED)
                 .progressPercent(0)
                 .downloadedBytes(0)
@@ -179,16 +199,20 @@ public class RecordingDownloadService {
     }
 
     /**
-     * Clean up previous completed downloads
+     * Clean up previous completed downloads, except those of the batch being queued
      */
-    private void cleanupPreviousDownloads() {
-        repository.findByStatus(DownloadStatus.COMPLETED)
+    private void cleanupPreviousDownloads(String batchId) {
+        repository.findByStatus(DownloadStatus.COMPLETED).stream()
+                .filter(job -> !batchId.equals(job.getBatchId()))
                 .forEach(job -> {
                     try {
                         if (job.getFilePath() != null && Files.exists(job.getFilePath())) {
                             Files.delete(job.getFilePath());
                             log.info("🗑️ Deleted previous download: {}", job.getFileName());
                         }
+                        if (job.getFilePath() != null) {
+                            downloadClient.deletePartialFile(job.getFilePath());
+                        }
                         repository.delete(job.getJobId());
                     } catch (Exception e) {
                         log.warn("Failed to delete previous download: {}", job.getFileName(), e);
@@ -212,6 +236,9 @@ public class RecordingDownloadService {
                                     job.getFileName(),
                                     java.time.Duration.between(job.getCreatedAt(), LocalDateTime.now()).toHours());
                         }
+                        if (job.getFilePath() != null) {
+                            downloadClient.deletePartialFile(job.getFilePath());
+                        }
                         repository.delete(job.getJobId());
                     } catch (Exception e) {
                         log.warn("Failed to cleanup old download: {}", job.getFileName(), e);
@@ -223,7 +250,7 @@ public class RecordingDownloadService {
      * Check if camera is currently busy downloading
      */
     public boolean isCameraBusy() {
-        return cameraSemaphore.isBusy();
+        return downloadLimiter.isBusy();
     }
 }
 
@@ -99,7 +99,7 @@ public class FFmpegDownoladService {
 
                 // Submit output reading task
                 Future<?> outputFuture = executor.submit(() ->
-                        readFFmpegOutput(finalProcess, job.getDuration(), job.getTotalBytes(), listener));
+                        readFFmpegOutput(finalProcess, job.getDurationSeconds(), job.getTotalBytes(), listener));
 
                 try {
                     // Wait for completion with timeout
@@ -194,7 +194,7 @@ public class FFmpegDownoladService {
     /**
      * Read and parse FFmpeg output for progress tracking
      */
-    private void readFFmpegOutput(Process process, String totalDuration, long totalBytes, ProgressListener listener) {
+    private void readFFmpegOutput(Process process, long totalSeconds, long totalBytes, ProgressListener listener) {
         try (BufferedReader reader = new BufferedReader(
                 new InputStreamReader(process.getInputStream()))) {
 
@@ -221,11 +221,7 @@ public class FFmpegDownoladService {
 
                     // Calculate progress with size estimation
                     ProgressCalculator.ProgressInfo progress =
-                            ProgressCalculator.calculate(
-                                    currentTime,
-                                    totalDuration,
-                                    ProgressCalculator.formatBytes(totalBytes)
-                            );
+                            ProgressCalculator.calculate(currentTime, totalSeconds, totalBytes);
 
                     // Report progress only if changed by at least 1%
                     if (progress.getProgressPercent() > lastReportedProgress) {
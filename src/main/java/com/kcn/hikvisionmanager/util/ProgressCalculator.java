@@ -29,27 +29,23 @@ public class ProgressCalculator {
     /**
      * Calculate progress from FFmpeg time output and expected file size
      *
-     * @param currentTimeStr   Current time from FFmpeg (e.g., "00:04:42")
-     * @param totalDuration    Total duration (e.g., "10:26")
-     * @param expectedFileSize Expected file size from search (e.g., "248,6 MB")
+     * @param currentTimeStr Current time from FFmpeg (e.g., "00:04:42")
+     * @param totalSeconds   Total recording duration in seconds
+     * @param totalBytes     Expected file size in bytes
      * @return Progress information with size estimation
      */
-    public static ProgressInfo calculate(String currentTimeStr, String totalDuration, String expectedFileSize) {
+    public static ProgressInfo calculate(String currentTimeStr, long totalSeconds, long totalBytes) {
         try {
             long currentSeconds = parseTimeToSeconds(currentTimeStr);
-            long totalSeconds = parseTimeToSeconds(totalDuration);
 
-            if (totalSeconds == 0) {
-                return createUnknownProgress(currentTimeStr, expectedFileSize);
+            if (totalSeconds <= 0) {
+                return createUnknownProgress(currentTimeStr, totalBytes);
             }
 
             // Calculate percentage based on time
             int progress = (int) ((currentSeconds * 100) / totalSeconds);
             progress = Math.min(progress, 100); // Cap at 100%
 
-            // Parse expected file size to bytes
-            long totalBytes = parseFileSize(expectedFileSize);
-
             // Estimate downloaded bytes based on time progress
             long downloadedBytes = (long) (totalBytes * (currentSeconds / (double) totalSeconds));
 
@@ -69,15 +65,14 @@ public class ProgressCalculator {
 
         } catch (Exception e) {
             log.warn("Failed to calculate progress: {}", e.getMessage());
-            return createUnknownProgress(currentTimeStr, expectedFileSize);
+            return createUnknownProgress(currentTimeStr, totalBytes);
         }
     }
 
     /**
      * Create progress info when calculation fails
      */
-    private static ProgressInfo createUnknownProgress(String currentTime, String expectedFileSize) {
-        long totalBytes = parseFileSize(expectedFileSize);
+    private static ProgressInfo createUnknownProgress(String currentTime, long totalBytes) {
         return ProgressInfo.builder()
                 .progressPercent(0)
                 .currentTime(currentTime)
@@ -115,6 +110,7 @@ public class ProgressCalculator {
     /**
      * Parse file size string to bytes
      * Supports formats: "248,6 MB", "248.6 MB", "1,2 GB", "512 KB"
+     * Lossy - only for recordings that carry no exact size (see {@code RecordingItemDTO#fileSizeBytes})
      */
     public static long parseFileSize(String fileSize) {
         try {
@@ -43,6 +43,27 @@ public class TimeUtils {
                 .toLocalDateTime();
     }
 
+    /**
+     * UTC String from the camera → epoch seconds
+     */
+    public static long cameraUtcToEpochSecond(String utcString) {
+        return OffsetDateTime.parse(utcString).toEpochSecond();
+    }
+
+    /**
+     * Local time → epoch seconds
+     */
+    public static long localToEpochSecond(LocalDateTime localDateTime) {
+        return localDateTime.atZone(LOCAL_ZONE).toEpochSecond();
+    }
+
+    /**
+     * Epoch seconds → local time
+     */
+    public static LocalDateTime epochSecondToLocal(long epochSecond) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), LOCAL_ZONE);
+    }
+
     /**
      * Formatowanie dla wyświetlania w UI (jeśli potrzebujesz)
      */
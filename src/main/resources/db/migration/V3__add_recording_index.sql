@@ -0,0 +1,32 @@
+-- ============================================
+--  ADD RECORDING CATALOG TABLES
+-- ============================================
+
+-- ============================================
+-- TABLE: recording_index
+-- ============================================
+CREATE TABLE IF NOT EXISTS recording_index (
+    id BIGSERIAL PRIMARY KEY,
+    recording_id VARCHAR(100) NOT NULL UNIQUE,
+    track_id VARCHAR(10) NOT NULL,
+    start_time TIMESTAMP(6) NOT NULL,
+    end_time TIMESTAMP(6) NOT NULL,
+    duration VARCHAR(20),
+    codec VARCHAR(20),
+    playback_url VARCHAR(500) NOT NULL,
+    file_size VARCHAR(20),
+    indexed_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_recording_index_track_start ON recording_index(track_id, start_time);
+
+-- ============================================
+-- TABLE: recording_sync_state
+-- ============================================
+CREATE TABLE IF NOT EXISTS recording_sync_state (
+    track_id VARCHAR(10) PRIMARY KEY,
+    covered_from TIMESTAMP(6) NOT NULL,
+    synced_until TIMESTAMP(6) NOT NULL,
+    last_sync_at TIMESTAMP(6),
+    last_error TEXT
+);
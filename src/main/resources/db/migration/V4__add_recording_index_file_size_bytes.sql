@@ -0,0 +1,7 @@
+-- ============================================
+--  EXACT RECORDING SIZE IN THE CATALOG
+-- ============================================
+
+-- Exact size from the playback URI; file_size keeps the formatted value.
+-- Older rows stay NULL and are read from playback_url.
+ALTER TABLE recording_index ADD COLUMN IF NOT EXISTS file_size_bytes BIGINT;
@@ -14,6 +14,7 @@ export const API = {
     time: `${API_BASE}/api/camera/time`,
     storage: `${API_BASE}/api/camera/storage`,
     restart: `${API_BASE}/api/camera/management/restart`,
+    events: `${API_BASE}/api/camera/events`,
   },
 
   // Live stream endpoints
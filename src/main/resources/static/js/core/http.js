@@ -20,6 +20,8 @@ export class APIError extends Error {
  * Unified fetch wrapper with error handling
  */
 async function request(url, options = {}) {
+  const { withMeta, ...fetchOptions } = options;
+  options = fetchOptions;
   const defaultOptions = {
     credentials: "include",
     headers: {
@@ -41,19 +43,10 @@ async function request(url, options = {}) {
       );
     }
 
-    // Handle empty responses (204 No Content)
-    if (response.status === 204) {
-      return null;
-    }
-
-    // Parse JSON response
-    const contentType = response.headers.get('content-type');
-    if (contentType?.includes('application/json')) {
-      return await response.json();
-    }
+    const data = await parseBody(response);
 
-    // Return text for non-JSON responses
-    return await response.text();
+    // Optionally expose headers (e.g. Age / X-Data-Stale freshness indicators)
+    return withMeta ? { data, headers: response.headers } : data;
   } catch (error) {
     // Network errors or other fetch failures
     if (error instanceof APIError) {
@@ -68,6 +61,25 @@ async function request(url, options = {}) {
   }
 }
 
+/**
+ * Parse response body according to status and content type
+ */
+async function parseBody(response) {
+  // Handle empty responses (204 No Content)
+  if (response.status === 204) {
+    return null;
+  }
+
+  // Parse JSON response
+  const contentType = response.headers.get('content-type');
+  if (contentType?.includes('application/json')) {
+    return await response.json();
+  }
+
+  // Return text for non-JSON responses
+  return await response.text();
+}
+
 /**
  * HTTP methods
  */
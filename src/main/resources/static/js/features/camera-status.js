@@ -1,14 +1,22 @@
 /**
  * Camera Status Monitor
- * Auto-refreshes camera health information
+ * Auto-refreshes camera health information.
+ * Camera alerts pushed over SSE trigger a refresh; once the server reports that
+ * the camera alert stream is connected, polling only runs as a slow safety net.
  */
 
 import { API } from '../core/api.js';
 import { http } from '../core/http.js';
 
+const ALERT_FALLBACK_REFRESH_RATE = 30000;
+const ALERT_REFRESH_DELAY = 1000;
+
 class CameraStatusMonitor {
   constructor() {
     this.refreshInterval = null;
+    this.refreshRate = 5000;
+    this.alertSource = null;
+    this.alertRefreshTimeout = null;
     this.elements = {};
   }
 
@@ -38,12 +46,53 @@ class CameraStatusMonitor {
     }
 
     // Initial update
+    this.refreshRate = refreshRate;
     this.updateStatus();
 
-    // Start auto-refresh
+    // Start auto-refresh, slowed down while alerts are pushed
+    this.startPolling(refreshRate);
+    this.subscribeAlerts();
+  }
+
+  /**
+   * (Re)start polling with given interval
+   */
+  startPolling(rate) {
+    if (this.refreshInterval) {
+      clearInterval(this.refreshInterval);
+    }
     this.refreshInterval = setInterval(() => {
       this.updateStatus();
-    }, refreshRate);
+    }, rate);
+  }
+
+  /**
+   * Subscribe to camera alerts (SSE); EventSource reconnects on its own.
+   * Server sends a 'stream' event with camera alert stream state on connect and on every change.
+   */
+  subscribeAlerts() {
+    if (!window.EventSource) return;
+
+    this.alertSource = new EventSource(API.camera.events);
+    this.alertSource.onerror = () => this.startPolling(this.refreshRate);
+    this.alertSource.addEventListener('stream', (event) => {
+      const { connected } = JSON.parse(event.data);
+      this.startPolling(connected ? ALERT_FALLBACK_REFRESH_RATE : this.refreshRate);
+    });
+    this.alertSource.addEventListener('alert', () => this.scheduleAlertRefresh());
+  }
+
+  /**
+   * Read status shortly after an alert - snapshot refresh triggered by the alert completes
+   * in the background. Alerts arriving meanwhile share the pending read.
+   */
+  scheduleAlertRefresh() {
+    if (this.alertRefreshTimeout) return;
+
+    this.alertRefreshTimeout = setTimeout(() => {
+      this.alertRefreshTimeout = null;
+      this.updateStatus();
+    }, ALERT_REFRESH_DELAY);
   }
 
   /**
@@ -51,8 +100,11 @@ class CameraStatusMonitor {
    */
   async updateStatus() {
     try {
-      const data = await http.get(API.camera.status);
-      this.renderStatus(data);
+      const { data, headers } = await http.get(API.camera.status, { withMeta: true });
+      this.renderStatus(data, {
+        stale: headers.get('X-Data-Stale') === 'true',
+        ageSeconds: Number(headers.get('Age')) || 0,
+      });
     } catch (error) {
       console.error('Failed to update camera status:', error);
       this.renderOffline();
@@ -62,7 +114,7 @@ class CameraStatusMonitor {
   /**
    * Render online status
    */
-  renderStatus(data) {
+  renderStatus(data, freshness = { stale: false, ageSeconds: 0 }) {
     // Update metrics
     if (this.elements.cpuUsage) {
       this.elements.cpuUsage.textContent = data.cpuUsage || '—';
@@ -81,8 +133,10 @@ class CameraStatusMonitor {
       this.elements.deviceTime.textContent = data.currentDeviceTime || '—';
     }
 
-    // Update connection indicator
-    if (data.online) {
+    // Update connection indicator (stale = last known values, camera unreachable)
+    if (freshness.stale) {
+      this.setStale(freshness.ageSeconds);
+    } else if (data.online) {
       this.setConnected();
     } else {
       this.setDisconnected();
@@ -116,6 +170,21 @@ class CameraStatusMonitor {
     }
   }
 
+  /**
+   * Set stale state - showing last known values while camera is unreachable
+   */
+  setStale(ageSeconds) {
+    if (this.elements.connectionDot) {
+      this.elements.connectionDot.classList.remove('connected');
+      this.elements.connectionDot.classList.add('disconnected');
+    }
+
+    if (this.elements.statusLabel) {
+      this.elements.statusLabel.innerHTML =
+        `<i class="bi bi-activity text-warning"></i> Reconnecting (data ${ageSeconds}s old)`;
+    }
+  }
+
   /**
    * Set disconnected state
    */
@@ -139,6 +208,14 @@ class CameraStatusMonitor {
       clearInterval(this.refreshInterval);
       this.refreshInterval = null;
     }
+    if (this.alertRefreshTimeout) {
+      clearTimeout(this.alertRefreshTimeout);
+      this.alertRefreshTimeout = null;
+    }
+    if (this.alertSource) {
+      this.alertSource.close();
+      this.alertSource = null;
+    }
   }
 }
 
@@ -0,0 +1,128 @@
+package com.kcn.hikvisionmanager.benchmark;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.kcn.hikvisionmanager.client.AdaptiveTimeoutPolicy;
+import com.kcn.hikvisionmanager.client.CameraCircuitBreaker;
+import com.kcn.hikvisionmanager.client.DigestAuthCache;
+import com.kcn.hikvisionmanager.client.HikvisionIsapiClient;
+import com.kcn.hikvisionmanager.client.HttpDownloadClient;
+import com.kcn.hikvisionmanager.client.IsapiMetrics;
+import com.kcn.hikvisionmanager.client.IsapiRequestXmlWriter;
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.config.DownloadConfig;
+import com.kcn.hikvisionmanager.dto.xml.request.RecordingDownloadRequestXml;
+import com.kcn.hikvisionmanager.mock.MockCameraSettings;
+import com.kcn.hikvisionmanager.mock.MockIsapiCamera;
+import com.kcn.hikvisionmanager.service.ProgressListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * HTTP download throughput against an unthrottled mock camera: buffered stream path versus the
+ * NIO path (pooled direct buffers + FileChannel). Reports throughput, CPU time and heap allocation
+ * of the downloading thread per recording, and checks every downloaded file has the recording size:
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.kcn.hikvisionmanager.benchmark.DownloadPathBenchmark [size-mb]
+ * </pre>
+ * Loopback transfer runs well above 100 MB/s, so the copy path rather than the network dominates.
+ */
+public class DownloadPathBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 10;
+
+    private static final ProgressListener NO_PROGRESS = new ProgressListener() {
+        @Override
+        public void onProgress(long downloadedBytes) {
+        }
+
+        @Override
+        public void onComplete(Path filePath) {
+        }
+
+        @Override
+        public void onError(String error) {
+        }
+    };
+
+    public static void main(String[] args) throws Exception {
+        long sizeBytes = (args.length > 0 ? Long.parseLong(args[0]) : 256) * 1024 * 1024;
+
+        MockCameraSettings settings = new MockCameraSettings();
+        settings.apply("download-bps", "0");
+        try (MockIsapiCamera camera = new MockIsapiCamera(settings).start(0)) {
+            CameraConfig cameraConfig = new CameraConfig("127.0.0.1", camera.getPort(), "admin", "admin12345",
+                    554, "UTC", 101, 102);
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+            XmlMapper xmlMapper = new XmlMapper();
+            xmlMapper.configure(ToXmlGenerator.Feature.WRITE_XML_DECLARATION, true);
+            IsapiRequestXmlWriter writer = new IsapiRequestXmlWriter(xmlMapper);
+            DigestAuthCache digestAuthCache = new DigestAuthCache(meterRegistry);
+            CameraCircuitBreaker circuitBreaker = new CameraCircuitBreaker();
+            IsapiMetrics isapiMetrics = new IsapiMetrics(meterRegistry);
+            HikvisionIsapiClient isapiClient = new HikvisionIsapiClient(cameraConfig, xmlMapper, digestAuthCache,
+                    circuitBreaker, new AdaptiveTimeoutPolicy(), isapiMetrics, writer);
+
+            DownloadConfig downloadConfig = new DownloadConfig();
+            HttpDownloadClient downloadClient = new HttpDownloadClient(isapiClient.httpClient(), cameraConfig,
+                    digestAuthCache, circuitBreaker, isapiMetrics, downloadConfig);
+
+            String url = "http://127.0.0.1:" + camera.getPort() + "/ISAPI/ContentMgmt/download";
+            byte[] payload = writer.toBytes(new RecordingDownloadRequestXml(
+                    "rtsp://127.0.0.1/Streaming/tracks/101/?starttime=20251030T145528Z&endtime=20251030T150554Z"
+                            + "&name=ch01_0001&size=" + sizeBytes));
+            Path directory = Files.createTempDirectory("download-benchmark");
+            Download download = () -> {
+                Path output = directory.resolve("recording.mp4");
+                downloadClient.executeDownloadStream(url, payload, output, NO_PROGRESS, 5, sizeBytes);
+                long actual = Files.size(output);
+                Files.delete(output);
+                if (actual != sizeBytes) {
+                    throw new IllegalStateException("Downloaded " + actual + " bytes, expected " + sizeBytes);
+                }
+            };
+
+            System.out.printf("recording size: %d MB%n", sizeBytes / (1024 * 1024));
+            downloadConfig.setNioTransfer(false);
+            report("before (buffered streams)        ", download, sizeBytes);
+            downloadConfig.setNioTransfer(true);
+            report("after  (direct buffers + channel)", download, sizeBytes);
+
+            Files.delete(directory);
+            isapiClient.httpClient().close();
+        }
+    }
+
+    private static void report(String label, Download download, long sizeBytes) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        for (int i = 0; i < WARMUP; i++) {
+            download.run();
+        }
+
+        long startBytes = threads.getThreadAllocatedBytes(threadId);
+        long startCpuNanos = threads.getCurrentThreadCpuTime();
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            download.run();
+        }
+        long nanos = System.nanoTime() - startNanos;
+        long cpuNanos = threads.getCurrentThreadCpuTime() - startCpuNanos;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - startBytes;
+
+        double megabytesPerSecond = (double) sizeBytes * ITERATIONS / (1024 * 1024) / (nanos / 1e9);
+        System.out.printf("%s: %7.1f MB/s, %5d ms CPU/download, %8d B allocated/download%n",
+                label, megabytesPerSecond, cpuNanos / ITERATIONS / 1_000_000, bytes / ITERATIONS);
+    }
+
+    @FunctionalInterface
+    private interface Download {
+        void run() throws Exception;
+    }
+}
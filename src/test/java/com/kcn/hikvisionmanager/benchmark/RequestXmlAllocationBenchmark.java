@@ -0,0 +1,108 @@
+package com.kcn.hikvisionmanager.benchmark;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.kcn.hikvisionmanager.client.IsapiRequestXmlWriter;
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
+import com.kcn.hikvisionmanager.dto.xml.request.RecordingDownloadRequestXml;
+import com.kcn.hikvisionmanager.dto.xml.request.RecordingSearchRequestXml;
+import com.kcn.hikvisionmanager.mapper.RecordingSearchMapper;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.StringEntity;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Allocation per search request body: previous path (UUID.randomUUID + XmlMapper.writeValueAsString
+ * + StringEntity) versus the current one (counter search ID + template writer into pooled buffer).
+ * Measured with per-thread allocation counters, so it needs no extra tooling:
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.kcn.hikvisionmanager.benchmark.RequestXmlAllocationBenchmark
+ * </pre>
+ * Also verifies that template output is identical to Jackson output.
+ */
+public class RequestXmlAllocationBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private static final OutputStream DISCARD = OutputStream.nullOutputStream();
+
+    public static void main(String[] args) throws Exception {
+        XmlMapper xmlMapper = new XmlMapper();
+        xmlMapper.configure(ToXmlGenerator.Feature.WRITE_XML_DECLARATION, true);
+        IsapiRequestXmlWriter writer = new IsapiRequestXmlWriter(xmlMapper);
+        RecordingSearchMapper mapper = new RecordingSearchMapper(
+                new CameraConfig("127.0.0.1", 80, "admin", "admin12345", 554, "UTC", 101, 102));
+
+        LocalDateTime end = LocalDateTime.now().withNano(0);
+        RecordingSearchRequestDTO request = RecordingSearchRequestDTO.builder()
+                .startTime(end.minusHours(6)).endTime(end).page(3).pageSize(50).build();
+
+        verifyEquivalence(xmlMapper, writer, mapper.toXmlRequest(request));
+
+        Operation before = () -> {
+            RecordingSearchRequestXml xml = mapper.toXmlRequest(request);
+            xml.setSearchId(UUID.randomUUID().toString());
+            HttpEntity entity = new StringEntity(xmlMapper.writeValueAsString(xml), ContentType.APPLICATION_XML);
+            entity.writeTo(DISCARD);
+        };
+        Operation after = () -> {
+            try (IsapiRequestXmlWriter.PooledXml xml = writer.write(mapper.toXmlRequest(request))) {
+                xml.toEntity().writeTo(DISCARD);
+            }
+        };
+
+        report("before (Jackson + UUID.randomUUID)", before);
+        report("after  (template + pooled buffer) ", after);
+    }
+
+    private static void verifyEquivalence(XmlMapper xmlMapper, IsapiRequestXmlWriter writer,
+                                          RecordingSearchRequestXml search) throws Exception {
+        String jacksonSearch = xmlMapper.writeValueAsString(search);
+        String templateSearch = new String(writer.toBytes(search), StandardCharsets.UTF_8);
+
+        RecordingDownloadRequestXml download = new RecordingDownloadRequestXml(
+                "rtsp://192.168.0.2/Streaming/tracks/101/?starttime=20251030T145528Z&endtime=20251030T150554Z&name=ch01_0001&size=31457280");
+        String jacksonDownload = xmlMapper.writeValueAsString(download);
+        String templateDownload = new String(writer.toBytes(download), StandardCharsets.UTF_8);
+
+        System.out.println("search template matches Jackson:   " + jacksonSearch.equals(templateSearch));
+        System.out.println("download template matches Jackson: " + jacksonDownload.equals(templateDownload));
+        if (!jacksonSearch.equals(templateSearch) || !jacksonDownload.equals(templateDownload)) {
+            System.out.println("jackson:  " + jacksonSearch + "\ntemplate: " + templateSearch);
+            System.out.println("jackson:  " + jacksonDownload + "\ntemplate: " + templateDownload);
+        }
+    }
+
+    private static void report(String label, Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        for (int i = 0; i < WARMUP; i++) {
+            operation.run();
+        }
+
+        long startBytes = threads.getThreadAllocatedBytes(threadId);
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.run();
+        }
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = threads.getThreadAllocatedBytes(threadId) - startBytes;
+
+        System.out.printf("%s: %6d B/op, %6d ns/op%n", label, bytes / ITERATIONS, nanos / ITERATIONS);
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+}
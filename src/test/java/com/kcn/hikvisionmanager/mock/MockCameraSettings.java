@@ -0,0 +1,120 @@
+package com.kcn.hikvisionmanager.mock;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runtime-adjustable behaviour of {@link MockIsapiCamera}.
+ * All fields are volatile so faults can be switched on and off while a benchmark is running,
+ * either programmatically or through {@code POST /mock/faults?key=value}.
+ * Keys accepted by {@link #apply(String, String)} match the command line options of the mock
+ * (e.g. {@code --latency-ms=250}).
+ */
+public class MockCameraSettings {
+
+    // ===== Authentication =====
+    volatile String username = "admin";
+    volatile String password = "admin12345";
+    volatile String realm = "IP Camera(MOCK)";
+    volatile boolean digestEnabled = true;
+    volatile int nonceValiditySeconds = 300;
+
+    // ===== Fault injection (all endpoints) =====
+    volatile long latencyMillis = 0;
+    volatile long latencyJitterMillis = 0;
+    volatile double errorRate = 0.0;
+    volatile int errorStatus = 503;
+    volatile boolean offline = false;
+    volatile long offlineHangMillis = 15_000;
+    volatile int rebootSeconds = 10;
+    final Map<String, Long> endpointLatencyMillis = new ConcurrentHashMap<>();
+
+    // ===== Recording timeline (search) =====
+    volatile int timelineDays = 30;
+    volatile int segmentMinutes = 10;
+    volatile int gapEverySegments = 0;
+    volatile int smallEverySegments = 0;
+    volatile int maxResultsCap = 50;
+    volatile long searchLatencyPerResultMillis = 0;
+
+    // ===== Download =====
+    volatile long segmentSizeBytes = 8L * 1024 * 1024;
+    volatile long downloadSizeOverride = -1;
+    volatile long downloadBytesPerSecond = 0;
+    volatile long downloadFailAfterBytes = -1;
+    volatile double downloadFailureRate = 0.0;
+    volatile boolean supportRange = true;
+
+    // ===== Stream substitute =====
+    volatile int previewFps = 5;
+
+    // ===== Alert stream =====
+    volatile long alertHeartbeatMillis = 2_000;
+    volatile long motionAlertIntervalMillis = 0;
+
+    // ===== Determinism =====
+    volatile long seed = 42;
+
+    /**
+     * Applies single setting by its option name.
+     *
+     * @return true if key was recognised
+     */
+    public boolean apply(String key, String value) {
+        switch (key) {
+            case "username" -> username = value;
+            case "password" -> password = value;
+            case "realm" -> realm = value;
+            case "digest" -> digestEnabled = Boolean.parseBoolean(value);
+            case "nonce-validity-seconds" -> nonceValiditySeconds = Integer.parseInt(value);
+            case "latency-ms" -> latencyMillis = Long.parseLong(value);
+            case "latency-jitter-ms" -> latencyJitterMillis = Long.parseLong(value);
+            case "error-rate" -> errorRate = Double.parseDouble(value);
+            case "error-status" -> errorStatus = Integer.parseInt(value);
+            case "offline" -> offline = Boolean.parseBoolean(value);
+            case "offline-hang-ms" -> offlineHangMillis = Long.parseLong(value);
+            case "reboot-seconds" -> rebootSeconds = Integer.parseInt(value);
+            case "timeline-days" -> timelineDays = Integer.parseInt(value);
+            case "segment-minutes" -> segmentMinutes = Integer.parseInt(value);
+            case "gap-every" -> gapEverySegments = Integer.parseInt(value);
+            case "small-every" -> smallEverySegments = Integer.parseInt(value);
+            case "max-results" -> maxResultsCap = Integer.parseInt(value);
+            case "search-latency-per-result-ms" -> searchLatencyPerResultMillis = Long.parseLong(value);
+            case "segment-size-bytes" -> segmentSizeBytes = Long.parseLong(value);
+            case "download-size-bytes" -> downloadSizeOverride = Long.parseLong(value);
+            case "download-bps" -> downloadBytesPerSecond = Long.parseLong(value);
+            case "download-fail-after-bytes" -> downloadFailAfterBytes = Long.parseLong(value);
+            case "download-failure-rate" -> downloadFailureRate = Double.parseDouble(value);
+            case "range" -> supportRange = Boolean.parseBoolean(value);
+            case "preview-fps" -> previewFps = Integer.parseInt(value);
+            case "alert-heartbeat-ms" -> alertHeartbeatMillis = Long.parseLong(value);
+            case "motion-alert-interval-ms" -> motionAlertIntervalMillis = Long.parseLong(value);
+            case "seed" -> seed = Long.parseLong(value);
+            default -> {
+                // Per-endpoint latency: endpoint-latency-ms./ISAPI/ContentMgmt/search=2000
+                if (key.startsWith("endpoint-latency-ms.")) {
+                    endpointLatencyMillis.put(key.substring("endpoint-latency-ms.".length()), Long.parseLong(value));
+                    return true;
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "latencyMs=" + latencyMillis + "±" + latencyJitterMillis
+                + ", errorRate=" + errorRate + " (" + errorStatus + ")"
+                + ", offline=" + offline
+                + ", endpointLatencyMs=" + endpointLatencyMillis
+                + ", timeline=" + timelineDays + "d/" + segmentMinutes + "min (gapEvery=" + gapEverySegments + ")"
+                + ", maxResults=" + maxResultsCap
+                + ", segmentSize=" + segmentSizeBytes
+                + ", downloadBps=" + downloadBytesPerSecond
+                + ", downloadFailAfter=" + downloadFailAfterBytes
+                + ", downloadFailureRate=" + downloadFailureRate
+                + ", motionAlertIntervalMs=" + motionAlertIntervalMillis
+                + ", digest=" + digestEnabled;
+    }
+}
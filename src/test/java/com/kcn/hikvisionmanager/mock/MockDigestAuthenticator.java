@@ -0,0 +1,119 @@
+package com.kcn.hikvisionmanager.mock;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Server side of RFC 7616 digest authentication (MD5, qop=auth) as implemented by Hikvision cameras.
+ * Nonces expire after {@link MockCameraSettings#nonceValiditySeconds}; an expired nonce is answered
+ * with {@code stale=TRUE} so clients can re-authenticate without prompting for credentials.
+ */
+class MockDigestAuthenticator {
+
+    private static final Pattern PARAM = Pattern.compile("(\\w+)=(?:\"([^\"]*)\"|([^,\\s]*))");
+
+    private final MockCameraSettings settings;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Long> nonces = new ConcurrentHashMap<>();
+    private final AtomicLong challenges = new AtomicLong();
+    private final AtomicLong authorized = new AtomicLong();
+
+    MockDigestAuthenticator(MockCameraSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Verifies Authorization header; sends 401 challenge when missing or invalid.
+     *
+     * @return true if request is authorized and may be handled
+     */
+    boolean authenticate(HttpExchange exchange) throws java.io.IOException {
+        if (!settings.digestEnabled) {
+            return true;
+        }
+
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Digest ", 0, 7)) {
+            challenge(exchange, false);
+            return false;
+        }
+
+        Map<String, String> params = parse(header.substring(7));
+        String nonce = params.get("nonce");
+        Long issuedAt = nonce != null ? nonces.get(nonce) : null;
+        if (issuedAt == null) {
+            challenge(exchange, false);
+            return false;
+        }
+
+        String ha1 = md5(settings.username + ":" + settings.realm + ":" + settings.password);
+        String ha2 = md5(exchange.getRequestMethod() + ":" + params.get("uri"));
+        String expected = md5(ha1 + ":" + nonce + ":" + params.get("nc") + ":" + params.get("cnonce")
+                + ":" + params.get("qop") + ":" + ha2);
+
+        if (!settings.username.equals(params.get("username")) || !expected.equals(params.get("response"))) {
+            challenge(exchange, false);
+            return false;
+        }
+
+        if (System.currentTimeMillis() - issuedAt > settings.nonceValiditySeconds * 1000L) {
+            nonces.remove(nonce);
+            challenge(exchange, true);
+            return false;
+        }
+
+        authorized.incrementAndGet();
+        return true;
+    }
+
+    long getChallenges() {
+        return challenges.get();
+    }
+
+    long getAuthorized() {
+        return authorized.get();
+    }
+
+    private void challenge(HttpExchange exchange, boolean stale) throws java.io.IOException {
+        challenges.incrementAndGet();
+        byte[] nonceBytes = new byte[16];
+        random.nextBytes(nonceBytes);
+        String nonce = HexFormat.of().formatHex(nonceBytes);
+        nonces.put(nonce, System.currentTimeMillis());
+
+        exchange.getResponseHeaders().add("WWW-Authenticate", String.format(
+                "Digest qop=\"auth\", realm=\"%s\", nonce=\"%s\", stale=\"%s\"",
+                settings.realm, nonce, stale ? "TRUE" : "FALSE"));
+        MockIsapiCamera.sendXml(exchange, 401, MockIsapiCamera.responseStatus(
+                exchange.getRequestURI().getPath(), 4, "Invalid Operation", "notAuthenticated"));
+    }
+
+    private static Map<String, String> parse(String value) {
+        Map<String, String> params = new HashMap<>();
+        Matcher matcher = PARAM.matcher(value);
+        while (matcher.find()) {
+            params.put(matcher.group(1), matcher.group(2) != null ? matcher.group(2) : matcher.group(3));
+        }
+        return params;
+    }
+
+    private static String md5(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,813 @@
+package com.kcn.hikvisionmanager.mock;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embeddable fake Hikvision camera for load, performance and failure testing without hardware.
+ * <p>
+ * Serves the ISAPI subset used by the application:
+ * <ul>
+ *   <li>{@code GET /ISAPI/System/deviceInfo}, {@code /System/status}, {@code /System/time},
+ *       {@code /System/Network/interfaces/1}, {@code /ContentMgmt/Storage}, {@code /ContentMgmt/record/tracks}</li>
+ *   <li>{@code POST /ISAPI/ContentMgmt/search} - paged search over {@link MockRecordingTimeline}
+ *       with {@code OK} / {@code MORE} / {@code NO MATCHES} status</li>
+ *   <li>{@code POST /ISAPI/ContentMgmt/record/tracks/{id}/dailyDistribution} - days of a month with segments</li>
+ *   <li>{@code GET /ISAPI/ContentMgmt/download} - generated payload of the size encoded in playbackURI,
+ *       with throttling, mid-transfer failures and optional {@code Range} support</li>
+ *   <li>{@code PUT /ISAPI/System/reboot} - accepts the request, then refuses connections for
+ *       {@link MockCameraSettings#rebootSeconds}</li>
+ *   <li>{@code PUT /ISAPI/ContentMgmt/record/control/manual/{start|stop}/track/{id}}</li>
+ *   <li>{@code GET /ISAPI/Streaming/channels/{id}/httpPreview} - MJPEG stream standing in for RTSP</li>
+ *   <li>{@code GET /ISAPI/Event/notification/alertStream} - multipart event push with heartbeats,
+ *       periodic motion alerts and alerts injected via {@code POST /mock/alert?type=diskfull&state=active}</li>
+ * </ul>
+ * All ISAPI endpoints require digest authentication (unless disabled) and pass through fault injection
+ * (latency, error rate, offline). Two unauthenticated control endpoints are exposed:
+ * {@code GET /mock/stats} (request counters) and {@code POST /mock/faults?key=value} (live reconfiguration,
+ * keys as in {@link MockCameraSettings#apply(String, String)}).
+ * <p>
+ * Standalone usage (from test classpath):
+ * <pre>
+ * java -cp target/test-classes com.kcn.hikvisionmanager.mock.MockIsapiCamera --port=8081 --latency-ms=50 --download-bps=4000000
+ * CAMERA_IP=127.0.0.1 CAMERA_PORT=8081 CAMERA_PASSWORD=admin12345 mvn spring-boot:run
+ * </pre>
+ */
+public class MockIsapiCamera implements AutoCloseable {
+
+    static final String NAMESPACE = "http://www.hikvision.com/ver20/XMLSchema";
+
+    private static final DateTimeFormatter ISO_UTC =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter PLAYBACK_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private static final Pattern SEARCH_ID = Pattern.compile("<searchID>([^<]*)</searchID>");
+    private static final Pattern TRACK_ID = Pattern.compile("<trackID>([^<]*)</trackID>");
+    private static final Pattern START_TIME = Pattern.compile("<startTime>([^<]*)</startTime>");
+    private static final Pattern END_TIME = Pattern.compile("<endTime>([^<]*)</endTime>");
+    private static final Pattern MAX_RESULTS = Pattern.compile("<maxResults>(\\d+)</maxResults>");
+    private static final Pattern POSITION = Pattern.compile("<searchResultPosition>(\\d+)</searchResultPosition>");
+    private static final Pattern PLAYBACK_URI = Pattern.compile("<playbackURI>([^<]*)</playbackURI>");
+    private static final Pattern PREVIEW = Pattern.compile("/ISAPI/Streaming/channels/(\\d+)/httpPreview");
+    private static final Pattern DAILY_DISTRIBUTION =
+            Pattern.compile("/ISAPI/ContentMgmt/record/tracks/(\\d+)/dailyDistribution");
+    private static final Pattern YEAR = Pattern.compile("<year>(\\d+)</year>");
+    private static final Pattern MONTH_OF_YEAR = Pattern.compile("<monthOfYear>(\\d+)</monthOfYear>");
+    private static final Pattern RECORD_CONTROL =
+            Pattern.compile("/ISAPI/ContentMgmt/record/control/manual/(start|stop)/track/(\\d+)");
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final MockCameraSettings settings;
+    private final MockDigestAuthenticator authenticator;
+    private final MockRecordingTimeline timeline;
+    private final byte[] payloadPattern;
+
+    private final Map<String, LongAdder> requestsByPath = new ConcurrentHashMap<>();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicLong rebootCount = new AtomicLong();
+    private final Set<BlockingQueue<String>> alertSubscribers = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private volatile HttpServer server;
+    private volatile int port;
+    private volatile Instant bootTime = Instant.now();
+
+    public MockIsapiCamera(MockCameraSettings settings) {
+        this.settings = settings;
+        this.authenticator = new MockDigestAuthenticator(settings);
+        this.timeline = new MockRecordingTimeline(settings);
+        this.payloadPattern = new byte[CHUNK_SIZE];
+        new Random(settings.seed).nextBytes(payloadPattern);
+    }
+
+    /**
+     * Starts the camera on given port (0 = ephemeral).
+     */
+    public MockIsapiCamera start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 256);
+        server.createContext("/", this::dispatch);
+        server.setExecutor(executor);
+        server.start();
+        this.port = server.getAddress().getPort();
+        return this;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public MockCameraSettings getSettings() {
+        return settings;
+    }
+
+    public long getRequestCount(String path) {
+        LongAdder counter = requestsByPath.get(path);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    public long getAuthChallenges() {
+        return authenticator.getChallenges();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        HttpServer current = server;
+        if (current != null) {
+            current.stop(0);
+        }
+        executor.shutdownNow();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        MockCameraSettings settings = new MockCameraSettings();
+        int port = 8081;
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = option.indexOf('=');
+            String key = eq > 0 ? option.substring(0, eq) : option;
+            String value = eq > 0 ? option.substring(eq + 1) : "true";
+            if ("port".equals(key)) {
+                port = Integer.parseInt(value);
+            } else if (!settings.apply(key, value)) {
+                System.err.println("Unknown option: " + arg);
+                System.exit(2);
+            }
+        }
+
+        MockIsapiCamera camera = new MockIsapiCamera(settings).start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(camera::close));
+        System.out.printf("Mock ISAPI camera listening on port %d (user=%s, password=%s)%n",
+                camera.getPort(), settings.username, settings.password);
+        System.out.println("Settings: " + settings);
+        Thread.currentThread().join();
+    }
+
+    // ===== Request pipeline =====
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try (exchange) {
+            requestsByPath.computeIfAbsent(path, key -> new LongAdder()).increment();
+
+            if (path.startsWith("/mock/")) {
+                handleControl(exchange, path);
+                return;
+            }
+            if (settings.offline) {
+                // Accept the connection but never answer - like a camera behind a dead route
+                sleep(settings.offlineHangMillis);
+                return;
+            }
+
+            sleep(latencyFor(path));
+
+            if (!authenticator.authenticate(exchange)) {
+                return;
+            }
+            if (settings.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate) {
+                injectedErrors.increment();
+                sendXml(exchange, settings.errorStatus,
+                        responseStatus(path, 6, "Device Error", "deviceError"));
+                return;
+            }
+
+            route(exchange, path);
+        } catch (IOException e) {
+            // Client went away (timeout, cancelled download, closed preview) - nothing to answer
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private void route(HttpExchange exchange, String path) throws IOException {
+        String method = exchange.getRequestMethod();
+        switch (path) {
+            case "/ISAPI/System/deviceInfo" -> sendXml(exchange, 200, deviceInfoXml());
+            case "/ISAPI/System/status" -> sendXml(exchange, 200, statusXml());
+            case "/ISAPI/System/time" -> sendXml(exchange, 200, timeXml());
+            case "/ISAPI/System/Network/interfaces/1" -> sendXml(exchange, 200, networkXml(exchange));
+            case "/ISAPI/ContentMgmt/Storage" -> sendXml(exchange, 200, storageXml());
+            case "/ISAPI/ContentMgmt/record/tracks" -> sendXml(exchange, 200, tracksXml());
+            case "/ISAPI/ContentMgmt/search" -> {
+                if (!"POST".equals(method)) {
+                    sendXml(exchange, 405, responseStatus(path, 4, "Invalid Operation", "methodNotAllowed"));
+                    return;
+                }
+                handleSearch(exchange);
+            }
+            case "/ISAPI/ContentMgmt/download" -> handleDownload(exchange);
+            case "/ISAPI/Event/notification/alertStream" -> handleAlertStream(exchange);
+            case "/ISAPI/System/reboot" -> {
+                if (!"PUT".equals(method)) {
+                    sendXml(exchange, 405, responseStatus(path, 4, "Invalid Operation", "methodNotAllowed"));
+                    return;
+                }
+                readBody(exchange);
+                sendXml(exchange, 200, responseStatus(path, 1, "OK", "ok"));
+                scheduleReboot();
+            }
+            default -> {
+                Matcher preview = PREVIEW.matcher(path);
+                Matcher control = RECORD_CONTROL.matcher(path);
+                Matcher distribution = DAILY_DISTRIBUTION.matcher(path);
+                if (preview.matches()) {
+                    handlePreview(exchange, preview.group(1));
+                } else if (distribution.matches() && "POST".equals(method)) {
+                    handleDailyDistribution(exchange);
+                } else if (control.matches() && "PUT".equals(method)) {
+                    sendXml(exchange, 200, responseStatus(path, 1, "OK", "ok"));
+                } else {
+                    sendXml(exchange, 404, responseStatus(path, 4, "Invalid Operation", "notSupport"));
+                }
+            }
+        }
+    }
+
+    private long latencyFor(String path) {
+        long latency = settings.latencyMillis;
+        if (settings.latencyJitterMillis > 0) {
+            latency += ThreadLocalRandom.current().nextLong(settings.latencyJitterMillis + 1);
+        }
+        for (Map.Entry<String, Long> entry : settings.endpointLatencyMillis.entrySet()) {
+            if (path.startsWith(entry.getKey())) {
+                latency += entry.getValue();
+            }
+        }
+        return latency;
+    }
+
+    /**
+     * Acknowledges reboot, then drops the listening socket so clients see connection refused
+     * (exactly what a rebooting camera looks like), and comes back after configured time.
+     */
+    private void scheduleReboot() {
+        Thread.ofVirtual().name("mock-camera-reboot").start(() -> {
+            sleep(200);
+            HttpServer current = server;
+            current.stop(0);
+            sleep(settings.rebootSeconds * 1000L);
+            try {
+                rebootCount.incrementAndGet();
+                bootTime = Instant.now();
+                start(port);
+            } catch (IOException e) {
+                System.err.println("Mock camera failed to come back after reboot: " + e.getMessage());
+            }
+        });
+    }
+
+    // ===== Search =====
+
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        String body = readBody(exchange);
+        String searchId = find(SEARCH_ID, body, "");
+        String trackId = find(TRACK_ID, body, "101");
+        Instant from = Instant.parse(find(START_TIME, body, "1970-01-01T00:00:00Z"));
+        Instant to = Instant.parse(find(END_TIME, body, ISO_UTC.format(Instant.now())));
+        int maxResults = Math.min(Integer.parseInt(find(MAX_RESULTS, body, "40")), settings.maxResultsCap);
+        int position = Integer.parseInt(find(POSITION, body, "0"));
+
+        List<MockRecordingTimeline.Segment> all = timeline.find(from, to);
+        int fromIndex = Math.min(position, all.size());
+        int toIndex = Math.min(fromIndex + maxResults, all.size());
+        List<MockRecordingTimeline.Segment> page = all.subList(fromIndex, toIndex);
+
+        sleep(settings.searchLatencyPerResultMillis * page.size());
+
+        String status = page.isEmpty() ? "NO MATCHES" : toIndex < all.size() ? "MORE" : "OK";
+        String host = hostOf(exchange);
+
+        StringBuilder xml = new StringBuilder(512 + page.size() * 700);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<CMSearchResult version=\"2.0\" xmlns=\"").append(NAMESPACE).append("\">\n")
+                .append("<searchID>").append(searchId).append("</searchID>\n")
+                .append("<responseStatus>true</responseStatus>\n")
+                .append("<responseStatusStrg>").append(status).append("</responseStatusStrg>\n")
+                .append("<numOfMatches>").append(page.size()).append("</numOfMatches>\n")
+                .append("<matchList>\n");
+        for (MockRecordingTimeline.Segment segment : page) {
+            String start = PLAYBACK_TIME.format(segment.start());
+            String end = PLAYBACK_TIME.format(segment.end());
+            xml.append("<searchMatchItem>\n")
+                    .append("<sourceID>{0000000000-0000-0000-0000-000000000000}</sourceID>\n")
+                    .append("<trackID>").append(trackId).append("</trackID>\n")
+                    .append("<timeSpan>\n")
+                    .append("<startTime>").append(ISO_UTC.format(segment.start())).append("</startTime>\n")
+                    .append("<endTime>").append(ISO_UTC.format(segment.end())).append("</endTime>\n")
+                    .append("</timeSpan>\n")
+                    .append("<mediaSegmentDescriptor>\n")
+                    .append("<contentType>video</contentType>\n")
+                    .append("<codecType>H.264-BP</codecType>\n")
+                    .append("<playbackURI>rtsp://").append(host).append("/Streaming/tracks/").append(trackId)
+                    .append("/?starttime=").append(start).append("&amp;endtime=").append(end)
+                    .append("&amp;name=").append(String.format("ch01_%08d", segment.index() & 0x7fffffff))
+                    .append("&amp;size=").append(segment.sizeBytes()).append("</playbackURI>\n")
+                    .append("</mediaSegmentDescriptor>\n")
+                    .append("<metadataMatches>\n")
+                    .append("<metadataDescriptor>recordType.meta.std-cgi.com/CMR</metadataDescriptor>\n")
+                    .append("</metadataMatches>\n")
+                    .append("</searchMatchItem>\n");
+        }
+        xml.append("</matchList>\n</CMSearchResult>\n");
+        sendXml(exchange, 200, xml.toString());
+    }
+
+    /**
+     * Marks every (UTC) day of the requested month holding at least one segment of the timeline.
+     */
+    private void handleDailyDistribution(HttpExchange exchange) throws IOException {
+        String body = readBody(exchange);
+        YearMonth month = YearMonth.of(
+                Integer.parseInt(find(YEAR, body, "1970")), Integer.parseInt(find(MONTH_OF_YEAR, body, "1")));
+
+        StringBuilder xml = new StringBuilder(4096);
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<trackDailyDistribution version=\"2.0\" xmlns=\"").append(NAMESPACE).append("\">\n")
+                .append("<dayList>\n");
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            Instant dayStart = month.atDay(day).atStartOfDay(ZoneOffset.UTC).toInstant();
+            boolean record = !timeline.find(dayStart, dayStart.plusSeconds(86_400)).isEmpty();
+            xml.append("<day>\n<id>").append(day).append("</id>\n")
+                    .append("<dayOfMonth>").append(day).append("</dayOfMonth>\n")
+                    .append("<record>").append(record).append("</record>\n")
+                    .append("<recordType>").append(record ? "time" : "").append("</recordType>\n")
+                    .append("</day>\n");
+        }
+        xml.append("</dayList>\n</trackDailyDistribution>\n");
+        sendXml(exchange, 200, xml.toString());
+    }
+
+    // ===== Download =====
+
+    private void handleDownload(HttpExchange exchange) throws IOException {
+        String body = readBody(exchange);
+        String playbackUri = find(PLAYBACK_URI, body, "").replace("&amp;", "&");
+        if (playbackUri.isEmpty()) {
+            sendXml(exchange, 400, responseStatus(exchange.getRequestURI().getPath(), 4,
+                    "Invalid Operation", "badXmlContent"));
+            return;
+        }
+
+        long size = settings.downloadSizeOverride > 0 ? settings.downloadSizeOverride : sizeFromPlaybackUri(playbackUri);
+        long offset = 0;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (settings.supportRange && range != null && range.startsWith("bytes=")) {
+            String first = range.substring(6, range.indexOf('-'));
+            offset = Math.min(Long.parseLong(first), size);
+        }
+        long length = size - offset;
+
+        long failAfter = settings.downloadFailAfterBytes;
+        if (settings.downloadFailureRate > 0 && ThreadLocalRandom.current().nextDouble() < settings.downloadFailureRate) {
+            failAfter = ThreadLocalRandom.current().nextLong(Math.max(1, length));
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "video/mp4");
+        if (settings.supportRange) {
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+        }
+        if (offset > 0) {
+            exchange.getResponseHeaders().set("Content-Range", "bytes " + offset + "-" + (size - 1) + "/" + size);
+            exchange.sendResponseHeaders(206, length > 0 ? length : -1);
+        } else {
+            exchange.sendResponseHeaders(200, length > 0 ? length : -1);
+        }
+
+        OutputStream out = exchange.getResponseBody();
+        long bps = settings.downloadBytesPerSecond;
+        long startNanos = System.nanoTime();
+        long sent = 0;
+        while (sent < length) {
+            if (failAfter >= 0 && sent >= failAfter) {
+                // Abort mid-transfer: fixed-length stream closed short of Content-Length
+                throw new IOException("Injected download failure after " + sent + " bytes");
+            }
+            int patternOffset = (int) ((offset + sent) % CHUNK_SIZE);
+            int chunk = (int) Math.min(CHUNK_SIZE - patternOffset, length - sent);
+            if (failAfter >= 0) {
+                chunk = (int) Math.min(chunk, Math.max(1, failAfter - sent));
+            }
+            out.write(payloadPattern, patternOffset, chunk);
+            sent += chunk;
+            bytesSent.add(chunk);
+
+            if (bps > 0) {
+                long expectedNanos = sent * 1_000_000_000L / bps;
+                long aheadNanos = expectedNanos - (System.nanoTime() - startNanos);
+                if (aheadNanos > 1_000_000) {
+                    sleep(aheadNanos / 1_000_000);
+                }
+            }
+        }
+        out.flush();
+    }
+
+    private long sizeFromPlaybackUri(String playbackUri) {
+        for (String param : playbackUri.substring(playbackUri.indexOf('?') + 1).split("&")) {
+            if (param.startsWith("size=")) {
+                return Long.parseLong(param.substring(5));
+            }
+        }
+        return settings.segmentSizeBytes;
+    }
+
+    // ===== Stream substitute =====
+
+    /**
+     * MJPEG preview ({@code multipart/x-mixed-replace}) - the HTTP stream Hikvision exposes next to RTSP.
+     * Frames show a moving bar so stalls are visible when the stream is viewed in a browser.
+     */
+    private void handlePreview(HttpExchange exchange, String channelId) throws IOException {
+        String boundary = "boundary";
+        exchange.getResponseHeaders().set("Content-Type", "multipart/x-mixed-replace;boundary=" + boundary);
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+
+        boolean subStream = channelId.endsWith("2");
+        BufferedImage image = new BufferedImage(subStream ? 320 : 640, subStream ? 180 : 360, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream(64 * 1024);
+        long frame = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            Graphics2D graphics = image.createGraphics();
+            graphics.setColor(Color.DARK_GRAY);
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.setColor(Color.ORANGE);
+            int barWidth = image.getWidth() / 8;
+            graphics.fillRect((int) (frame * 8 % (image.getWidth() - barWidth)), 0, barWidth, image.getHeight());
+            graphics.dispose();
+
+            jpeg.reset();
+            ImageIO.write(image, "jpg", jpeg);
+            byte[] header = ("--" + boundary + "\r\nContent-Type: image/jpeg\r\nContent-Length: "
+                    + jpeg.size() + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+            out.write(header);
+            jpeg.writeTo(out);
+            out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            bytesSent.add(header.length + jpeg.size() + 2L);
+
+            frame++;
+            sleep(1000L / Math.max(1, settings.previewFps));
+        }
+    }
+
+    // ===== Alert stream =====
+
+    /**
+     * Endless {@code multipart/mixed} response, one EventNotificationAlert per part. Like a real camera
+     * it sends {@code videoloss/inactive} heartbeats while nothing happens.
+     */
+    private void handleAlertStream(HttpExchange exchange) throws IOException {
+        BlockingQueue<String> alerts = new LinkedBlockingQueue<>(1024);
+        alertSubscribers.add(alerts);
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "multipart/mixed; boundary=boundary");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            String host = exchange.getLocalAddress().getAddress().getHostAddress();
+            long nextMotion = System.currentTimeMillis() + settings.motionAlertIntervalMillis;
+
+            while (!Thread.currentThread().isInterrupted()) {
+                String pending = null;
+                try {
+                    pending = alerts.poll(Math.max(1, settings.alertHeartbeatMillis), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                String alert = pending != null ? pending : alertXml(host, "videoloss", "inactive", "videoloss alarm");
+                if (pending == null && settings.motionAlertIntervalMillis > 0 && System.currentTimeMillis() >= nextMotion) {
+                    alert = alertXml(host, "VMD", "active", "Motion alarm");
+                    nextMotion = System.currentTimeMillis() + settings.motionAlertIntervalMillis;
+                }
+                byte[] body = alert.getBytes(StandardCharsets.UTF_8);
+                byte[] header = ("--boundary\r\nContent-Type: application/xml; charset=\"UTF-8\"\r\nContent-Length: "
+                        + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+                out.write(header);
+                out.write(body);
+                out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+                bytesSent.add(header.length + body.length + 2L);
+            }
+        } finally {
+            alertSubscribers.remove(alerts);
+        }
+    }
+
+    private String alertXml(String host, String eventType, String eventState, String description) {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <EventNotificationAlert version="2.0" xmlns="%s">
+                <ipAddress>%s</ipAddress>
+                <portNo>%d</portNo>
+                <protocol>HTTP</protocol>
+                <macAddress>00:00:5e:00:53:01</macAddress>
+                <channelID>1</channelID>
+                <dateTime>%s</dateTime>
+                <activePostCount>1</activePostCount>
+                <eventType>%s</eventType>
+                <eventState>%s</eventState>
+                <eventDescription>%s</eventDescription>
+                </EventNotificationAlert>
+                """.formatted(NAMESPACE, host, port, ISO_UTC.format(Instant.now()), eventType, eventState, description);
+    }
+
+    // ===== Control endpoints =====
+
+    private void handleControl(HttpExchange exchange, String path) throws IOException {
+        if ("/mock/faults".equals(path) && "POST".equals(exchange.getRequestMethod())) {
+            StringBuilder rejected = new StringBuilder();
+            for (Map.Entry<String, String> entry : queryParams(exchange.getRequestURI()).entrySet()) {
+                if (!settings.apply(entry.getKey(), entry.getValue())) {
+                    rejected.append(entry.getKey()).append(' ');
+                }
+            }
+            if (!rejected.isEmpty()) {
+                sendText(exchange, 400, "Unknown settings: " + rejected.toString().trim() + "\n");
+                return;
+            }
+            sendText(exchange, 200, settings + "\n");
+        } else if ("/mock/alert".equals(path) && "POST".equals(exchange.getRequestMethod())) {
+            Map<String, String> params = queryParams(exchange.getRequestURI());
+            String type = params.getOrDefault("type", "VMD");
+            String alert = alertXml(exchange.getLocalAddress().getAddress().getHostAddress(), type,
+                    params.getOrDefault("state", "active"), params.getOrDefault("description", type + " alarm"));
+            alertSubscribers.forEach(subscriber -> subscriber.offer(alert));
+            sendText(exchange, 200, "Alert sent to " + alertSubscribers.size() + " subscriber(s)\n");
+        } else if ("/mock/stats".equals(path)) {
+            StringBuilder stats = new StringBuilder();
+            stats.append("inFlight=").append(inFlight.get() - 1).append('\n')
+                    .append("maxInFlight=").append(maxInFlight.get()).append('\n')
+                    .append("bytesSent=").append(bytesSent.sum()).append('\n')
+                    .append("authChallenges=").append(authenticator.getChallenges()).append('\n')
+                    .append("authorized=").append(authenticator.getAuthorized()).append('\n')
+                    .append("injectedErrors=").append(injectedErrors.sum()).append('\n')
+                    .append("reboots=").append(rebootCount.get()).append('\n')
+                    .append("alertSubscribers=").append(alertSubscribers.size()).append('\n');
+            new TreeMap<>(requestsByPath).forEach((key, counter) ->
+                    stats.append("requests[").append(key).append("]=").append(counter.sum()).append('\n'));
+            sendText(exchange, 200, stats.toString());
+        } else {
+            sendText(exchange, 404, "Unknown mock endpoint\n");
+        }
+    }
+
+    // ===== XML bodies =====
+
+    private String deviceInfoXml() {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <DeviceInfo version="2.0" xmlns="%s">
+                <deviceName>Mock Camera</deviceName>
+                <deviceID>00000000-0000-0000-0000-mock00000001</deviceID>
+                <deviceDescription>IPCamera</deviceDescription>
+                <deviceLocation>hangzhou</deviceLocation>
+                <systemContact>Hikvision.China</systemContact>
+                <model>DS-2CD2043G2-I</model>
+                <serialNumber>DS-2CD2043G2-I20250101AAWRMOCK0001</serialNumber>
+                <macAddress>00:00:5e:00:53:01</macAddress>
+                <firmwareVersion>V5.7.3</firmwareVersion>
+                <firmwareReleasedDate>build 220112</firmwareReleasedDate>
+                <encoderVersion>V7.3</encoderVersion>
+                <encoderReleasedDate>build 220107</encoderReleasedDate>
+                <bootVersion>V1.3.4</bootVersion>
+                <bootReleasedDate>100316</bootReleasedDate>
+                <hardwareVersion>0x0</hardwareVersion>
+                <deviceType>IPCamera</deviceType>
+                <telecontrolID>88</telecontrolID>
+                <supportBeep>false</supportBeep>
+                <supportVideoLoss>false</supportVideoLoss>
+                <firmwareVersionInfo>B-R-G5-0</firmwareVersionInfo>
+                </DeviceInfo>
+                """.formatted(NAMESPACE);
+    }
+
+    private String statusXml() {
+        Instant now = Instant.now();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <DeviceStatus version="2.0" xmlns="%s">
+                <currentDeviceTime>%s</currentDeviceTime>
+                <deviceUpTime>%d</deviceUpTime>
+                <CPUList><CPU><cpuUtilization>%d</cpuUtilization></CPU></CPUList>
+                <MemoryList><Memory><memoryUsage>%d</memoryUsage><memoryAvailable>%d</memoryAvailable></Memory></MemoryList>
+                <totalRebootCount>%d</totalRebootCount>
+                </DeviceStatus>
+                """.formatted(NAMESPACE, ISO_UTC.format(now), now.getEpochSecond() - bootTime.getEpochSecond(),
+                random.nextInt(5, 40), random.nextInt(60, 90), random.nextInt(30, 80), rebootCount.get());
+    }
+
+    private String timeXml() {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <Time version="2.0" xmlns="%s">
+                <timeMode>NTP</timeMode>
+                <localTime>%s</localTime>
+                <timeZone>CST+0:00:00</timeZone>
+                </Time>
+                """.formatted(NAMESPACE, ISO_UTC.format(Instant.now()));
+    }
+
+    private String networkXml(HttpExchange exchange) {
+        String ip = exchange.getLocalAddress().getAddress().getHostAddress();
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <NetworkInterface version="2.0" xmlns="%s">
+                <id>1</id>
+                <IPAddress version="2.0">
+                <ipVersion>v4</ipVersion>
+                <addressingType>static</addressingType>
+                <ipAddress>%s</ipAddress>
+                <subnetMask>255.255.255.0</subnetMask>
+                <DefaultGateway><ipAddress>0.0.0.0</ipAddress></DefaultGateway>
+                <PrimaryDNS><ipAddress>8.8.8.8</ipAddress></PrimaryDNS>
+                <SecondaryDNS><ipAddress>0.0.0.0</ipAddress></SecondaryDNS>
+                </IPAddress>
+                <Link version="2.0">
+                <MACAddress>00:00:5e:00:53:01</MACAddress>
+                <autoNegotiation>true</autoNegotiation>
+                <speed>100</speed>
+                <duplex>full</duplex>
+                <MTU>1500</MTU>
+                </Link>
+                </NetworkInterface>
+                """.formatted(NAMESPACE, ip);
+    }
+
+    private String storageXml() {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <storage version="2.0" xmlns="%s">
+                <hddList>
+                <hdd>
+                <id>1</id>
+                <hddName>hdde</hddName>
+                <hddPath></hddPath>
+                <hddType>SD</hddType>
+                <status>ok</status>
+                <capacity>121856</capacity>
+                <freeSpace>2048</freeSpace>
+                <property>RW</property>
+                <formatType>EXT4</formatType>
+                </hdd>
+                </hddList>
+                <nasList>
+                <supportMountType opt="NFS,SMB/CIFS"></supportMountType>
+                <authentication opt="SMB/CIFS"></authentication>
+                </nasList>
+                </storage>
+                """.formatted(NAMESPACE);
+    }
+
+    private String tracksXml() {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <TrackList version="2.0" xmlns="%s">
+                %s%s</TrackList>
+                """.formatted(NAMESPACE, trackXml(101, "1920*1080", 4096), trackXml(102, "640*360", 512));
+    }
+
+    private String trackXml(int id, String resolution, int bitrate) {
+        return """
+                <Track version="2.0">
+                <id>%d</id>
+                <Channel>1</Channel>
+                <Enable>true</Enable>
+                <Description>trackType=standard,codecType=H.264-BP,resolution=%s,framerate=25.000000 fps,bitrate=%d kbps</Description>
+                <DefaultRecordingMode>CMR</DefaultRecordingMode>
+                <TrackSchedule>
+                <ScheduleBlockList>
+                <ScheduleBlock ScheduleActionSize="1">
+                <ScheduleAction><id>1</id><Actions><Record>true</Record></Actions></ScheduleAction>
+                </ScheduleBlock>
+                </ScheduleBlockList>
+                </TrackSchedule>
+                <CustomExtensionList><CustomExtension><enableSchedule>true</enableSchedule></CustomExtension></CustomExtensionList>
+                </Track>
+                """.formatted(id, resolution, bitrate);
+    }
+
+    static String responseStatus(String requestUrl, int statusCode, String statusString, String subStatusCode) {
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <ResponseStatus version="2.0" xmlns="%s">
+                <requestURL>%s</requestURL>
+                <statusCode>%d</statusCode>
+                <statusString>%s</statusString>
+                <subStatusCode>%s</subStatusCode>
+                </ResponseStatus>
+                """.formatted(NAMESPACE, requestUrl, statusCode, statusString, subStatusCode);
+    }
+
+    // ===== Helpers =====
+
+    static void sendXml(HttpExchange exchange, int status, String xml) throws IOException {
+        send(exchange, status, "application/xml; charset=\"UTF-8\"", xml);
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        send(exchange, status, "text/plain; charset=UTF-8", text);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String find(Pattern pattern, String text, String fallback) {
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? matcher.group(1).trim() : fallback;
+    }
+
+    private static String hostOf(HttpExchange exchange) {
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        if (host == null) {
+            return exchange.getLocalAddress().getAddress().getHostAddress();
+        }
+        int colon = host.lastIndexOf(':');
+        return colon > 0 && !host.endsWith("]") ? host.substring(0, colon) : host;
+    }
+
+    private static Map<String, String> queryParams(URI uri) {
+        Map<String, String> params = new TreeMap<>();
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
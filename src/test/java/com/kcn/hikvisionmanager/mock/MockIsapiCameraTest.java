@@ -0,0 +1,182 @@
+package com.kcn.hikvisionmanager.mock;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.kcn.hikvisionmanager.client.AdaptiveTimeoutPolicy;
+import com.kcn.hikvisionmanager.client.CameraCircuitBreaker;
+import com.kcn.hikvisionmanager.client.DigestAuthCache;
+import com.kcn.hikvisionmanager.client.HikvisionIsapiAsyncClient;
+import com.kcn.hikvisionmanager.client.HikvisionIsapiClient;
+import com.kcn.hikvisionmanager.client.HttpDownloadClient;
+import com.kcn.hikvisionmanager.client.IsapiMetrics;
+import com.kcn.hikvisionmanager.client.IsapiRequestXmlWriter;
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.config.DownloadConfig;
+import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchResultDTO;
+import com.kcn.hikvisionmanager.dto.xml.request.RecordingDownloadRequestXml;
+import com.kcn.hikvisionmanager.exception.CameraRequestException;
+import com.kcn.hikvisionmanager.mapper.RecordingSearchMapper;
+import com.kcn.hikvisionmanager.service.CameraUrlBuilder;
+import com.kcn.hikvisionmanager.service.ProgressListener;
+import com.kcn.hikvisionmanager.service.RecordingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the real ISAPI and download clients against {@link MockIsapiCamera}, covering the camera behaviour
+ * the application has to cope with: capped search pages ({@code MORE} status) and downloads breaking off.
+ */
+class MockIsapiCameraTest {
+
+    private static final int MAX_RESULTS = 10;
+    private static final String DOWNLOAD_PATH = "/ISAPI/ContentMgmt/download";
+
+    private static final ProgressListener NO_PROGRESS = new ProgressListener() {
+        @Override
+        public void onProgress(long downloadedBytes) {
+        }
+
+        @Override
+        public void onComplete(Path filePath) {
+        }
+
+        @Override
+        public void onError(String error) {
+        }
+    };
+
+    @TempDir
+    Path directory;
+
+    private MockCameraSettings settings;
+    private MockIsapiCamera camera;
+    private ExecutorService executor;
+    private HikvisionIsapiClient isapiClient;
+    private IsapiRequestXmlWriter writer;
+    private RecordingService recordingService;
+    private HttpDownloadClient downloadClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        settings = new MockCameraSettings();
+        settings.apply("max-results", Integer.toString(MAX_RESULTS));
+        settings.apply("segment-size-bytes", Long.toString(1024 * 1024));
+        camera = new MockIsapiCamera(settings).start(0);
+
+        CameraConfig cameraConfig = new CameraConfig("127.0.0.1", camera.getPort(), "admin", "admin12345",
+                554, "UTC", 101, 102);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        XmlMapper xmlMapper = new XmlMapper();
+        xmlMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        xmlMapper.configure(ToXmlGenerator.Feature.WRITE_XML_DECLARATION, true);
+        writer = new IsapiRequestXmlWriter(xmlMapper);
+        DigestAuthCache digestAuthCache = new DigestAuthCache(meterRegistry);
+        CameraCircuitBreaker circuitBreaker = new CameraCircuitBreaker();
+        IsapiMetrics isapiMetrics = new IsapiMetrics(meterRegistry);
+        isapiClient = new HikvisionIsapiClient(cameraConfig, xmlMapper, digestAuthCache, circuitBreaker,
+                new AdaptiveTimeoutPolicy(), isapiMetrics, writer);
+
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        recordingService = new RecordingService(isapiClient, new HikvisionIsapiAsyncClient(isapiClient, executor),
+                new CameraUrlBuilder(cameraConfig), new RecordingSearchMapper(cameraConfig), cameraConfig,
+                Clock.systemUTC());
+        downloadClient = new HttpDownloadClient(isapiClient.httpClient(), cameraConfig, digestAuthCache,
+                circuitBreaker, isapiMetrics, new DownloadConfig());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.close();
+        isapiClient.httpClient().close();
+        camera.close();
+    }
+
+    @Test
+    void searchReportsMoreWhenCameraCapsPage() {
+        RecordingSearchResultDTO result = recordingService.searchRecordings(request(50));
+
+        assertThat(result.getRecordings()).hasSize(MAX_RESULTS);
+        assertThat(result.isHasMore()).isTrue();
+        assertThat(result.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void streamFollowsCappedPagesToLastRecording() {
+        RecordingSearchRequestDTO window = request(50);
+
+        List<String> paged = ids(recordingService.streamRecordings(window.getStartTime(), window.getEndTime(), 50)
+                .toList());
+        long pagedSearches = camera.getRequestCount("/ISAPI/ContentMgmt/search");
+
+        settings.apply("max-results", "1000");
+        RecordingSearchResultDTO single = recordingService.searchRecordings(request(1000));
+
+        assertThat(single.isHasMore()).isFalse();
+        assertThat(single.getRecordings()).hasSizeGreaterThan(MAX_RESULTS);
+        assertThat(paged).containsExactlyElementsOf(ids(single.getRecordings()));
+        assertThat(pagedSearches).isGreaterThan(1);
+    }
+
+    @Test
+    void downloadResumesAfterBrokenTransfer() throws Exception {
+        RecordingItemDTO recording = recordingService.searchRecordings(request(1)).getRecordings().getFirst();
+        long size = recording.getFileSizeBytes();
+        String url = "http://127.0.0.1:" + camera.getPort() + DOWNLOAD_PATH;
+        byte[] payload = writer.toBytes(new RecordingDownloadRequestXml(recording.getPlaybackUrl()));
+        Path output = directory.resolve("recording.mp4");
+
+        // Every response breaks off after 60% of its body: the first attempt fails, the resumed one gets the rest
+        settings.apply("download-fail-after-bytes", Long.toString(size * 3 / 5));
+        assertThatThrownBy(() -> downloadClient.executeDownloadStream(url, payload, output, NO_PROGRESS, 1, size))
+                .isInstanceOf(CameraRequestException.class);
+        long partial = downloadClient.partialBytes(output);
+        assertThat(partial).isPositive().isLessThan(size);
+        assertThat(output).doesNotExist();
+
+        downloadClient.executeDownloadStream(url, payload, output, NO_PROGRESS, 1, size);
+
+        assertThat(Files.size(output)).isEqualTo(size);
+        assertThat(downloadClient.partialBytes(output)).isZero();
+
+        // Resumed file must match an uninterrupted download byte for byte
+        settings.apply("download-fail-after-bytes", "-1");
+        Path reference = directory.resolve("reference.mp4");
+        downloadClient.executeDownloadStream(url, payload, reference, NO_PROGRESS, 1, size);
+        assertThat(Files.mismatch(output, reference)).isEqualTo(-1);
+        assertThat(camera.getRequestCount(DOWNLOAD_PATH)).isEqualTo(3);
+    }
+
+    private static RecordingSearchRequestDTO request(int pageSize) {
+        // Three hours a day back: well inside the mock timeline and the same window for every search
+        LocalDateTime end = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.HOURS).minusDays(1);
+        return RecordingSearchRequestDTO.builder()
+                .startTime(end.minusHours(3))
+                .endTime(end)
+                .page(1)
+                .pageSize(pageSize)
+                .build();
+    }
+
+    private static List<String> ids(List<RecordingItemDTO> recordings) {
+        return recordings.stream().map(RecordingItemDTO::getRecordingId).toList();
+    }
+}
@@ -0,0 +1,79 @@
+package com.kcn.hikvisionmanager.mock;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic continuous-recording timeline of the mock camera.
+ * Segments are aligned to {@link MockCameraSettings#segmentMinutes} boundaries and cover the last
+ * {@link MockCameraSettings#timelineDays} days up to "now"; the newest segment is still being recorded
+ * and ends at the current time. Gaps and segment sizes derive from the seed, so repeated searches
+ * (and separate mock instances with the same settings) always return the same recordings.
+ */
+class MockRecordingTimeline {
+
+    record Segment(long index, Instant start, Instant end, long sizeBytes) {
+    }
+
+    private final MockCameraSettings settings;
+
+    MockRecordingTimeline(MockCameraSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * @return All segments overlapping [from, to), ordered by start time
+     */
+    List<Segment> find(Instant from, Instant to) {
+        long segmentSeconds = settings.segmentMinutes * 60L;
+        long now = Instant.now().getEpochSecond();
+        long timelineStart = now - settings.timelineDays * 86_400L;
+
+        long fromSeconds = Math.max(from.getEpochSecond(), timelineStart);
+        long toSeconds = Math.min(to.getEpochSecond(), now);
+        if (fromSeconds >= toSeconds) {
+            return List.of();
+        }
+
+        long firstIndex = Math.floorDiv(fromSeconds, segmentSeconds);
+        long lastIndex = Math.floorDiv(toSeconds - 1, segmentSeconds);
+
+        List<Segment> segments = new ArrayList<>((int) Math.min(lastIndex - firstIndex + 1, 100_000));
+        for (long index = firstIndex; index <= lastIndex; index++) {
+            if (isGap(index)) {
+                continue;
+            }
+            long start = Math.max(index * segmentSeconds, timelineStart);
+            long end = Math.min((index + 1) * segmentSeconds, now);
+            segments.add(new Segment(index, Instant.ofEpochSecond(start), Instant.ofEpochSecond(end),
+                    sizeOf(index, end - start, segmentSeconds)));
+        }
+        return segments;
+    }
+
+    private boolean isGap(long index) {
+        int gapEvery = settings.gapEverySegments;
+        return gapEvery > 0 && Math.floorMod(index, gapEvery) == gapEvery - 1;
+    }
+
+    /**
+     * Nominal segment size varied by +/-25% (bitrate fluctuation), scaled down for partial segments
+     * and for the segments marked small by {@link MockCameraSettings#smallEverySegments}.
+     */
+    private long sizeOf(long index, long durationSeconds, long segmentSeconds) {
+        double variation = 0.75 + (mix(index ^ settings.seed) >>> 11) / (double) (1L << 53) * 0.5;
+        int smallEvery = settings.smallEverySegments;
+        if (smallEvery > 0 && Math.floorMod(index, smallEvery) == 0) {
+            variation *= 0.1;
+        }
+        return Math.max(1, (long) (settings.segmentSizeBytes * variation * durationSeconds / segmentSeconds));
+    }
+
+    // SplitMix64 finalizer - cheap stateless hash with good bit dispersion
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,174 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.config.RecordingCatalogConfig;
+import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchResultDTO;
+import com.kcn.hikvisionmanager.entity.RecordingSyncStateEntity;
+import com.kcn.hikvisionmanager.exception.CameraValidationException;
+import com.kcn.hikvisionmanager.repository.RecordingIndexRepository;
+import com.kcn.hikvisionmanager.repository.RecordingSyncStateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecordingCatalogServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.of("UTC");
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 10, 12, 0);
+    private static final String TRACK = "101";
+
+    private RecordingSearchPlanner searchPlanner;
+    private RecordingIndexRepository indexRepository;
+    private RecordingSyncStateRepository syncStateRepository;
+    private ExecutorService executor;
+    private RecordingCatalogService catalogService;
+
+    @BeforeEach
+    void setUp() {
+        searchPlanner = mock(RecordingSearchPlanner.class);
+        indexRepository = mock(RecordingIndexRepository.class);
+        syncStateRepository = mock(RecordingSyncStateRepository.class);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        when(indexRepository.findOverlapping(eq(TRACK), any(), any(), any())).thenReturn(Page.empty());
+        when(searchPlanner.searchPage(any())).thenReturn(RecordingSearchResultDTO.builder()
+                .recordings(List.of())
+                .build());
+
+        CameraConfig cameraConfig = new CameraConfig("127.0.0.1", 80, "admin", "admin12345", 554, "UTC", 101, 102);
+        Clock clock = Clock.fixed(NOW.atZone(ZONE).toInstant(), ZONE);
+        catalogService = new RecordingCatalogService(mock(RecordingService.class), searchPlanner, executor,
+                indexRepository, syncStateRepository, new RecordingCatalogConfig(), cameraConfig, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void servesFromIndexWhileSyncIsCurrent() {
+        syncState(NOW.minusMinutes(1), null);
+
+        catalogService.search(lastHour(), false).join();
+
+        verify(indexRepository).findOverlapping(eq(TRACK), any(), any(), any());
+        verify(searchPlanner, never()).searchPage(any());
+    }
+
+    @Test
+    void searchesCameraWhenLastSyncFailed() {
+        syncState(NOW.minusMinutes(1), "Connection refused");
+
+        catalogService.search(lastHour(), false).join();
+
+        verify(searchPlanner).searchPage(any());
+        verify(indexRepository, never()).findOverlapping(any(), any(), any(), any());
+    }
+
+    @Test
+    void searchesCameraWhenWatermarkLagsBehindRangeEnd() {
+        // Default sync interval (1 min) plus overlap (10 min) allows 11 minutes of lag
+        syncState(NOW.minusMinutes(12), null);
+
+        catalogService.search(lastHour(), false).join();
+
+        verify(searchPlanner).searchPage(any());
+    }
+
+    @Test
+    void acceptsLagUpToSyncIntervalPlusOverlap() {
+        syncState(NOW.minusMinutes(11), null);
+
+        catalogService.search(lastHour(), false).join();
+
+        verify(searchPlanner, never()).searchPage(any());
+    }
+
+    @Test
+    void servesOlderRangeFromIndexWhileWatermarkLags() {
+        syncState(NOW.minusHours(2), null);
+
+        catalogService.search(request(NOW.minusDays(2), NOW.minusDays(1)), false).join();
+
+        verify(indexRepository).findOverlapping(eq(TRACK), any(), any(), any());
+        verify(searchPlanner, never()).searchPage(any());
+    }
+
+    @Test
+    void searchesCameraForRangeBeforeIndex() {
+        syncState(NOW.minusMinutes(1), null);
+
+        catalogService.search(request(NOW.minusDays(30), NOW.minusDays(29)), false).join();
+
+        verify(searchPlanner).searchPage(any());
+    }
+
+    @Test
+    void continuesKeysetCursorFromIndexWhileCovered() {
+        syncState(NOW.minusMinutes(1), null);
+        RecordingItemDTO last = RecordingItemDTO.builder().recordingId("rec-1").startTime(NOW.minusMinutes(30)).build();
+        String cursor = RecordingSearchCursor.after(lastHour(), last).encode();
+
+        RecordingSearchResultDTO result = catalogService.searchWithCursor(cursor, null);
+
+        verify(indexRepository).findOverlappingAfterRecording(eq(TRACK), eq(NOW.minusMinutes(30)), eq("rec-1"),
+                eq(NOW.minusHours(1)), eq(NOW), any());
+        verify(searchPlanner, never()).searchPageAfter(any(), any(), any());
+        assertThat(result.getCurrentPage()).isEqualTo(2);
+        assertThat(result.isHasMore()).isFalse();
+    }
+
+    @Test
+    void rejectsNextPageWithoutCursor() {
+        RecordingSearchResultDTO current = RecordingSearchResultDTO.builder()
+                .recordings(List.of())
+                .hasMore(true)
+                .build();
+
+        assertThatThrownBy(() -> catalogService.searchNextPage(current, 10))
+                .isInstanceOf(CameraValidationException.class);
+    }
+
+    private void syncState(LocalDateTime syncedUntil, String lastError) {
+        when(syncStateRepository.findById(TRACK)).thenReturn(Optional.of(RecordingSyncStateEntity.builder()
+                .trackId(TRACK)
+                .coveredFrom(NOW.minusDays(7))
+                .syncedUntil(syncedUntil)
+                .lastError(lastError)
+                .build()));
+    }
+
+    private static RecordingSearchRequestDTO lastHour() {
+        return request(NOW.minusHours(1), NOW);
+    }
+
+    private static RecordingSearchRequestDTO request(LocalDateTime start, LocalDateTime end) {
+        return RecordingSearchRequestDTO.builder()
+                .startTime(start)
+                .endTime(end)
+                .page(1)
+                .pageSize(10)
+                .build();
+    }
+}
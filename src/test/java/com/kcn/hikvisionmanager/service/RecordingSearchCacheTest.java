@@ -0,0 +1,177 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
+import com.kcn.hikvisionmanager.mapper.RecordingSearchMapper;
+import com.kcn.hikvisionmanager.service.RecordingSearchCache.TimeRange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecordingSearchCacheTest {
+
+    private static final String TRACK = "101";
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 10, 12, 0);
+    private static final Duration CLOSED_TTL = Duration.ofHours(6);
+
+    private MutableClock clock;
+    private RecordingSearchCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(NOW.atZone(ZoneId.systemDefault()).toInstant());
+        CameraConfig cameraConfig = new CameraConfig("127.0.0.1", 80, "admin", "admin12345", 554, "UTC", 101, 102);
+        cache = new RecordingSearchCache(clock, new RecordingSearchMapper(cameraConfig), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void searchesOnlyEdgesOutsideStoredRange() {
+        cache.put(TRACK, at(8, 0), at(10, 0), List.of(recording("a", at(8, 0), at(8, 10)),
+                recording("b", at(9, 50), at(10, 5))));
+
+        RecordingSearchCache.Lookup lookup = cache.lookup(TRACK, at(7, 0), at(11, 0));
+
+        assertThat(lookup.gaps()).containsExactly(range(at(7, 0), at(8, 0)), range(at(10, 0), at(11, 0)));
+        assertThat(ids(lookup)).containsExactly("a", "b");
+    }
+
+    @Test
+    void adjacentRangesLeaveNoGap() {
+        cache.put(TRACK, at(1, 0), at(2, 0), List.of());
+        cache.put(TRACK, at(2, 0), at(3, 0), List.of());
+
+        assertThat(cache.lookup(TRACK, at(1, 0), at(3, 0)).gaps()).isEmpty();
+    }
+
+    @Test
+    void closedRangeExpiresAfterClosedTtl() {
+        cache.put(TRACK, at(8, 0), at(10, 0), List.of(recording("a", at(8, 0), at(8, 10))));
+
+        clock.advance(CLOSED_TTL.minusSeconds(1));
+        assertThat(cache.lookup(TRACK, at(8, 0), at(10, 0)).gaps()).isEmpty();
+
+        clock.advance(Duration.ofSeconds(1));
+        RecordingSearchCache.Lookup lookup = cache.lookup(TRACK, at(8, 0), at(10, 0));
+        assertThat(lookup.gaps()).containsExactly(range(at(8, 0), at(10, 0)));
+        assertThat(lookup.recordings()).isEmpty();
+    }
+
+    @Test
+    void nowEdgeExpiresBeforeClosedPart() {
+        // Last 15 minutes before now may still be recorded - they are cached for 30 s only
+        cache.put(TRACK, at(11, 0), at(12, 0), List.of());
+
+        clock.advance(Duration.ofSeconds(29));
+        assertThat(cache.lookup(TRACK, at(11, 0), at(12, 0)).gaps()).isEmpty();
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(cache.lookup(TRACK, at(11, 0), at(12, 0)).gaps())
+                .containsExactly(range(at(11, 45), at(12, 0)));
+    }
+
+    @Test
+    void newRangeSplitsOlderIntervalAndReplacesItsRecordings() {
+        cache.put(TRACK, at(2, 0), at(8, 0), List.of(recording("x", at(4, 30), at(4, 40)),
+                recording("y", at(6, 0), at(6, 10))));
+
+        clock.advance(Duration.ofHours(3));
+        cache.put(TRACK, at(4, 0), at(5, 0), List.of());
+
+        RecordingSearchCache.Lookup lookup = cache.lookup(TRACK, at(2, 0), at(8, 0));
+        assertThat(lookup.gaps()).isEmpty();
+        assertThat(ids(lookup)).containsExactly("y");
+
+        // Parts of the older interval keep its expiry, the new one outlives them
+        clock.advance(Duration.ofHours(3));
+        assertThat(cache.lookup(TRACK, at(2, 0), at(8, 0)).gaps())
+                .containsExactly(range(at(2, 0), at(4, 0)), range(at(5, 0), at(8, 0)));
+    }
+
+    @Test
+    void gapsSkipExpiredAndPartlyOverlappingIntervals() {
+        cache.put(TRACK, at(1, 0), at(2, 0), List.of());
+        clock.advance(Duration.ofHours(3));
+        cache.put(TRACK, at(2, 30), at(3, 30), List.of());
+        cache.put(TRACK, at(4, 0), at(5, 0), List.of());
+
+        clock.advance(Duration.ofHours(3));
+
+        assertThat(cache.lookup(TRACK, at(1, 30), at(4, 30)).gaps())
+                .containsExactly(range(at(1, 30), at(2, 30)), range(at(3, 30), at(4, 0)));
+    }
+
+    @Test
+    void returnsRecordingsOverlappingRangeStartButNotOnesEndingAtIt() {
+        cache.put(TRACK, at(0, 0), at(3, 0), List.of(recording("ends-at-start", at(0, 50), at(1, 0)),
+                recording("crosses-start", at(0, 55), at(1, 5)),
+                recording("inside", at(1, 30), at(1, 40)),
+                recording("starts-at-end", at(2, 0), at(2, 10))));
+
+        assertThat(ids(cache.lookup(TRACK, at(1, 0), at(2, 0)))).containsExactly("crosses-start", "inside");
+    }
+
+    @Test
+    void tracksAreCachedSeparately() {
+        cache.put(TRACK, at(8, 0), at(10, 0), List.of());
+
+        assertThat(cache.lookup("102", at(8, 0), at(10, 0)).gaps()).containsExactly(range(at(8, 0), at(10, 0)));
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return NOW.toLocalDate().atTime(hour, minute);
+    }
+
+    private static TimeRange range(LocalDateTime start, LocalDateTime end) {
+        return new TimeRange(start, end);
+    }
+
+    private static RecordingItemDTO recording(String id, LocalDateTime start, LocalDateTime end) {
+        return RecordingItemDTO.builder()
+                .recordingId(id)
+                .trackId(TRACK)
+                .startTime(start)
+                .endTime(end)
+                .build();
+    }
+
+    private static List<String> ids(RecordingSearchCache.Lookup lookup) {
+        return lookup.recordings().stream().map(RecordingItemDTO::getRecordingId).toList();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.kcn.hikvisionmanager.service;
+
+import com.kcn.hikvisionmanager.dto.RecordingItemDTO;
+import com.kcn.hikvisionmanager.dto.RecordingSearchRequestDTO;
+import com.kcn.hikvisionmanager.exception.CameraValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecordingSearchCursorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 15, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2025, 1, 15, 23, 59, 59);
+
+    @Test
+    void cameraCursorRoundTrip() {
+        RecordingSearchCursor cursor = RecordingSearchCursor.camera(request("102", 2), "search-uuid", 37);
+
+        RecordingSearchCursor decoded = RecordingSearchCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.isKeyset()).isFalse();
+        assertThat(decoded.trackId()).isEqualTo("102");
+        assertThat(decoded.position()).isEqualTo(37);
+        assertThat(decoded.page()).isEqualTo(3);
+    }
+
+    @Test
+    void keysetCursorRoundTrip() {
+        RecordingItemDTO last = RecordingItemDTO.builder()
+                .recordingId("rec|with|separators")
+                .startTime(START.plusHours(5))
+                .build();
+        RecordingSearchCursor cursor = RecordingSearchCursor.after(request(null, 1), last);
+
+        RecordingSearchCursor decoded = RecordingSearchCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.isKeyset()).isTrue();
+        assertThat(decoded.trackId()).isNull();
+        assertThat(decoded.searchId()).isNull();
+        assertThat(decoded.afterStartTime()).isEqualTo(START.plusHours(5));
+        assertThat(decoded.afterRecordingId()).isEqualTo("rec|with|separators");
+    }
+
+    @Test
+    void requestKeepsWindowAndOverridesPageSize() {
+        RecordingSearchCursor cursor = RecordingSearchCursor.camera(request("101", 1), "search-uuid", 10);
+
+        RecordingSearchRequestDTO next = cursor.toRequest(25);
+
+        assertThat(next.getStartTime()).isEqualTo(START);
+        assertThat(next.getEndTime()).isEqualTo(END);
+        assertThat(next.getTrackId()).isEqualTo("101");
+        assertThat(next.getPage()).isEqualTo(2);
+        assertThat(next.getPageSize()).isEqualTo(25);
+        assertThat(cursor.toRequest(null).getPageSize()).isEqualTo(10);
+    }
+
+    @Test
+    void rejectsTokensNotProducedByEncode() {
+        assertInvalid("not base64 %%");
+        assertInvalid(token("garbage"));
+        assertInvalid(token("1|" + START + "|" + END + "|search-uuid|10|2|10"));
+        assertInvalid(token("9|" + START + "|" + END + "||search-uuid|10||2|10|"));
+        assertInvalid(token("2|" + START + "|" + END + "||search-uuid|10||2|10"));
+        assertInvalid(token("2|yesterday|" + END + "||search-uuid|10||2|10|"));
+        assertInvalid(token("2|" + START + "|" + END + "||search-uuid|ten||2|10|"));
+    }
+
+    @Test
+    void rejectsInconsistentPositions() {
+        // Neither kind of position
+        assertInvalid(token("2|" + START + "|" + END + "|||0||2|10|"));
+        // Both kinds at once
+        assertInvalid(token("2|" + START + "|" + END + "||search-uuid|0|" + START + "|2|10|rec-1"));
+        // Keyset cursor without recording ID
+        assertInvalid(token("2|" + START + "|" + END + "|||0|" + START + "|2|10|"));
+        assertInvalid(token("2|" + START + "|" + END + "||search-uuid|-1||2|10|"));
+        assertInvalid(token("2|" + START + "|" + END + "||search-uuid|10||2|0|"));
+        assertInvalid(token("2|" + END + "|" + START + "||search-uuid|10||2|10|"));
+    }
+
+    private static RecordingSearchRequestDTO request(String trackId, int page) {
+        return RecordingSearchRequestDTO.builder()
+                .startTime(START)
+                .endTime(END)
+                .trackId(trackId)
+                .page(page)
+                .pageSize(10)
+                .build();
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThatThrownBy(() -> RecordingSearchCursor.decode(cursor))
+                .isInstanceOf(CameraValidationException.class)
+                .hasMessage("Invalid search cursor");
+    }
+}
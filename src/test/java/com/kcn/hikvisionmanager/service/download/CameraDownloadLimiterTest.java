@@ -0,0 +1,204 @@
+package com.kcn.hikvisionmanager.service.download;
+
+import com.kcn.hikvisionmanager.config.CameraConfig;
+import com.kcn.hikvisionmanager.config.DownloadConfig;
+import com.kcn.hikvisionmanager.exception.CameraRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CameraDownloadLimiterTest {
+
+    private static final long MB = 1024 * 1024;
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private MutableClock clock;
+    private CameraDownloadLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        DownloadConfig downloadConfig = new DownloadConfig();
+        downloadConfig.setMaxConcurrentCamera(4);
+        CameraConfig cameraConfig = new CameraConfig("127.0.0.1", 80, "admin", "admin12345", 554, "UTC", 101, 102);
+        clock = new MutableClock();
+        limiter = new CameraDownloadLimiter(downloadConfig, cameraConfig, clock, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void startsAtOneAndAddsSlotForFastDownloadAtFullConcurrency() throws Exception {
+        assertThat(limiter.getLimit()).isEqualTo(1);
+
+        raiseLimitTo(4);
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void neverExceedsConfiguredCeiling() throws Exception {
+        raiseLimitTo(4);
+
+        try (CameraDownloadLimiter.Permit permit = limiter.acquire()) {
+            permit.recordTransfer(10 * MB, ONE_SECOND);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void ignoresTransfersTooShortToTime() throws Exception {
+        try (CameraDownloadLimiter.Permit permit = limiter.acquire()) {
+            permit.recordTransfer(MB / 2, ONE_SECOND / 100);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    void removesSlotWhenSharedDownloadIsSlow() throws Exception {
+        raiseLimitTo(2);
+
+        CameraDownloadLimiter.Permit first = limiter.acquire();
+        CameraDownloadLimiter.Permit second = limiter.acquire();
+        second.recordTransfer(2 * MB, 10 * ONE_SECOND);     // 0.2 MB/s against a 10 MB/s baseline
+        first.close();
+        second.close();
+
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    void halvesLimitOnOverloadOncePerCooldown() throws Exception {
+        raiseLimitTo(4);
+
+        try (CameraDownloadLimiter.Permit permit = limiter.acquire()) {
+            permit.recordFailure(new CameraRequestException("Service unavailable", 503));
+            assertThat(limiter.getLimit()).isEqualTo(2);
+
+            permit.recordFailure(new CameraRequestException("Service unavailable", 503));
+            assertThat(limiter.getLimit()).isEqualTo(2);
+
+            clock.advance(CameraDownloadLimiter.BACKOFF_COOLDOWN);
+            permit.recordFailure(new CameraRequestException("Timed out", new SocketTimeoutException("Read timed out")));
+            assertThat(limiter.getLimit()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void otherFailuresDoNotLowerLimit() throws Exception {
+        raiseLimitTo(2);
+
+        try (CameraDownloadLimiter.Permit permit = limiter.acquire()) {
+            permit.recordFailure(new CameraRequestException("Not found", 404));
+            permit.recordFailure(new IOException("Connection reset"));
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void holdsIncreaseWhileRecentErrorRateIsTooHigh() throws Exception {
+        try (CameraDownloadLimiter.Permit permit = limiter.acquire()) {
+            for (int i = 0; i < 3; i++) {
+                permit.recordFailure(new IOException("Connection reset"));
+            }
+            // 3 failures stay in the window of 20 until 18 successes push the first one out
+            for (int i = 0; i < 17; i++) {
+                permit.recordTransfer(10 * MB, ONE_SECOND);
+                assertThat(limiter.getLimit()).isEqualTo(1);
+            }
+            permit.recordTransfer(10 * MB, ONE_SECOND);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void restartsCameraOnlyWhenEveryDownloadIsFailing() throws Exception {
+        raiseLimitTo(2);
+
+        CameraDownloadLimiter.Permit failing = limiter.acquire();
+        CameraDownloadLimiter.Permit healthy = limiter.acquire();
+        failing.recordFailure(new IOException("Connection reset"));
+
+        assertThat(failing.claimCameraRestart()).isFalse();
+
+        healthy.recordFailure(new IOException("Connection reset"));
+        healthy.recordProgress();
+        assertThat(failing.claimCameraRestart()).isFalse();
+
+        healthy.recordFailure(new IOException("Connection reset"));
+        assertThat(failing.claimCameraRestart()).isTrue();
+        failing.close();
+        healthy.close();
+    }
+
+    @Test
+    void restartsCameraAtMostOncePerInterval() throws Exception {
+        raiseLimitTo(2);
+
+        CameraDownloadLimiter.Permit first = limiter.acquire();
+        CameraDownloadLimiter.Permit second = limiter.acquire();
+        first.recordFailure(new IOException("Connection reset"));
+        second.recordFailure(new IOException("Connection reset"));
+
+        assertThat(first.claimCameraRestart()).isTrue();
+        assertThat(second.claimCameraRestart()).isFalse();
+
+        clock.advance(CameraDownloadLimiter.RESTART_INTERVAL);
+        assertThat(second.claimCameraRestart()).isTrue();
+        first.close();
+        second.close();
+    }
+
+    /**
+     * Raises the limit one slot at a time with fast downloads that use every slot.
+     */
+    private void raiseLimitTo(int target) throws InterruptedException {
+        while (limiter.getLimit() < target) {
+            int slots = limiter.getLimit();
+            CameraDownloadLimiter.Permit[] permits = new CameraDownloadLimiter.Permit[slots];
+            for (int i = 0; i < slots; i++) {
+                permits[i] = limiter.acquire();
+            }
+            permits[0].recordTransfer(10 * MB, ONE_SECOND);
+            for (CameraDownloadLimiter.Permit permit : permits) {
+                permit.close();
+            }
+            assertThat(limiter.getLimit()).isEqualTo(slots + 1);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}